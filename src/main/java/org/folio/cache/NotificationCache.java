@@ -0,0 +1,304 @@
+package org.folio.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.folio.metrics.MetricsRegistry;
+import org.folio.subscription.ChangeFeed;
+import org.folio.util.Settings;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded cache of the first pages of {@code GET /notify/user/_self} per tenant and
+ * recipient, with the version of the recipient's notifications they were read at: the
+ * latest notifications (no query) and the unseen ones ({@code seen=false}), whose
+ * totalRecords is the unseen count, up to {@value #LIMIT} (default {@value #DEFAULT_LIMIT})
+ * notifications. Per tenant, the {@value #RECIPIENTS} (default {@value #DEFAULT_RECIPIENTS},
+ * 0 to disable) most recently used recipients are kept, by {@link ChangeFeed#recipientKey}.
+ * <p>
+ * The pages of a recipient are dropped whenever the recipient's notifications change, by
+ * the write paths of this instance and by the {@link ChangeFeed} for the changes of all
+ * instances. The cache is only used while the feed listens, and is empty again whenever it
+ * starts listening on another connection, since changes may have been missed meanwhile.
+ * <p>
+ * Only the lists written from the jsonb text of the rows are cached, so the cache depends on
+ * {@code LIST_RAW_JSON}: while it is {@code false}, the cache is not used, and neither hits
+ * nor misses are counted.
+ * <p>
+ * Hits and misses are counted per tenant in {@value #REQUESTS}, with the hit ratio in
+ * {@value #HIT_RATIO}; {@value #BYTES} estimates the memory used by the cached pages.
+ */
+public class NotificationCache {
+  public static final String RECIPIENTS = "NOTIFY_CACHE_RECIPIENTS";
+  public static final String LIMIT = "NOTIFY_CACHE_LIMIT";
+  static final int DEFAULT_RECIPIENTS = 10000;
+  static final int DEFAULT_LIMIT = 10;
+  static final String REQUESTS = "mod_notify_cache_requests";
+  static final String HIT_RATIO = "mod_notify_cache_hit_ratio";
+  static final String SIZE = "mod_notify_cache_recipients";
+  static final String BYTES = "mod_notify_cache_bytes";
+  private static final Set<String> CACHED_QUERIES = Set.of("", "seen=false", "seen==false");
+  private static final int PAGES_PER_RECIPIENT = 4;
+  // map entries, page record, headers of the two strings
+  private static final int PAGE_OVERHEAD_BYTES = 160;
+  private static final Settings settings = Settings.fromEnvironment();
+  private static final NotificationCache instance = new NotificationCache(MetricsRegistry.get(),
+    settings.intValue(RECIPIENTS, DEFAULT_RECIPIENTS), settings.intValue(LIMIT, DEFAULT_LIMIT),
+    ChangeFeed.getInstance()::generation);
+
+  private final MeterRegistry registry;
+  private final int maxRecipients;
+  private final int maxLimit;
+  private final LongSupplier generation;
+  private final Map<String, TenantCache> tenants = new ConcurrentHashMap<>();
+
+  /**
+   * A cached page: the version of the recipient's notifications and the JSON response.
+   */
+  public record Page(String version, String body) {
+  }
+
+  /**
+   * Taken before reading a page from the database; the page is only cached if the
+   * recipient's notifications have not changed since.
+   */
+  public static final class Stamp {
+    private final TenantCache tenantCache;
+    private final String recipientId;
+    private final Entry entry;
+    private final long changes;
+
+    private Stamp(TenantCache tenantCache, String recipientId, Entry entry) {
+      this.tenantCache = tenantCache;
+      this.recipientId = recipientId;
+      this.entry = entry;
+      this.changes = entry.changes;
+    }
+  }
+
+  NotificationCache(MeterRegistry registry, int maxRecipients, int maxLimit,
+    LongSupplier generation) {
+
+    this.registry = registry;
+    this.maxRecipients = maxRecipients;
+    this.maxLimit = maxLimit;
+    this.generation = generation;
+  }
+
+  public static NotificationCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * The key of the page in the recipient's cache, null if the page is not cached.
+   */
+  public String pageKey(String query, int offset, int limit) {
+    if (maxRecipients <= 0 || offset != 0 || limit < 1 || limit > maxLimit) {
+      return null;
+    }
+    String trimmed = query == null ? "" : query.trim();
+    return CACHED_QUERIES.contains(trimmed) ? trimmed + "|" + limit : null;
+  }
+
+  /**
+   * The cached page, null on a miss or if the page key is null.
+   */
+  public Page get(String tenant, String recipientId, String pageKey) {
+    if (pageKey == null) {
+      return null;
+    }
+    long current = generation.getAsLong();
+    TenantCache tenantCache = tenantCache(tenant);
+    Page page = null;
+    if (current >= 0) {
+      synchronized (tenantCache) {
+        Entry entry = tenantCache.recipients.get(ChangeFeed.recipientKey(recipientId));
+        if (entry != null && entry.generation == current) {
+          page = entry.pages.get(pageKey);
+        }
+      }
+    }
+    (page == null ? tenantCache.misses : tenantCache.hits).increment();
+    return page;
+  }
+
+  /**
+   * The stamp to {@link #put} a page of the recipient read from now on, null if pages cannot
+   * be cached now.
+   */
+  public Stamp stamp(String tenant, String recipientId) {
+    long current = generation.getAsLong();
+    if (maxRecipients <= 0 || current < 0) {
+      return null;
+    }
+    TenantCache tenantCache = tenantCache(tenant);
+    String key = ChangeFeed.recipientKey(recipientId);
+    synchronized (tenantCache) {
+      Entry entry = tenantCache.recipients.get(key);
+      if (entry == null || entry.generation != current) {
+        if (entry != null) {
+          tenantCache.bytes -= entry.bytes;
+        }
+        entry = new Entry(current);
+        tenantCache.recipients.put(key, entry);
+        tenantCache.evict(maxRecipients);
+      }
+      return new Stamp(tenantCache, key, entry);
+    }
+  }
+
+  /**
+   * Caches the page unless the recipient's notifications changed since the stamp was taken.
+   */
+  public void put(Stamp stamp, String pageKey, String version, String body) {
+    if (stamp == null || pageKey == null) {
+      return;
+    }
+    TenantCache tenantCache = stamp.tenantCache;
+    synchronized (tenantCache) {
+      Entry entry = stamp.entry;
+      if (tenantCache.recipients.get(stamp.recipientId) != entry
+        || entry.changes != stamp.changes || entry.generation != generation.getAsLong()) {
+        return;
+      }
+      Page page = new Page(version, body);
+      Page replaced = entry.pages.put(pageKey, page);
+      long delta = footprint(page) - (replaced == null ? 0 : footprint(replaced));
+      if (entry.pages.size() > PAGES_PER_RECIPIENT) {
+        Iterator<Page> oldest = entry.pages.values().iterator();
+        delta -= footprint(oldest.next());
+        oldest.remove();
+      }
+      entry.bytes += delta;
+      tenantCache.bytes += delta;
+    }
+  }
+
+  /**
+   * Drops the pages of the recipient.
+   */
+  public void invalidate(String tenant, String recipientId) {
+    TenantCache tenantCache = tenants.get(tenant);
+    if (tenantCache == null) {
+      return;
+    }
+    synchronized (tenantCache) {
+      Entry entry = tenantCache.recipients.get(ChangeFeed.recipientKey(recipientId));
+      if (entry != null) {
+        entry.changes++;
+        entry.pages.clear();
+        tenantCache.bytes -= entry.bytes;
+        entry.bytes = 0;
+      }
+    }
+  }
+
+  /**
+   * Drops the pages of all recipients of the tenant, for changes whose recipients are unknown.
+   */
+  public void invalidate(String tenant) {
+    TenantCache tenantCache = tenants.get(tenant);
+    if (tenantCache == null) {
+      return;
+    }
+    synchronized (tenantCache) {
+      for (Entry entry : tenantCache.recipients.values()) {
+        entry.changes++;
+        entry.pages.clear();
+        entry.bytes = 0;
+      }
+      tenantCache.bytes = 0;
+    }
+  }
+
+  /**
+   * The estimated memory used by a page; the strings are compact as long as the
+   * notifications are Latin-1.
+   */
+  static long footprint(Page page) {
+    return PAGE_OVERHEAD_BYTES + page.version().length() + page.body().length();
+  }
+
+  long bytes(String tenant) {
+    TenantCache tenantCache = tenantCache(tenant);
+    synchronized (tenantCache) {
+      return tenantCache.bytes;
+    }
+  }
+
+  private TenantCache tenantCache(String tenant) {
+    return tenants.computeIfAbsent(tenant, TenantCache::new);
+  }
+
+  private static final class Entry {
+    private final long generation;
+    private final Map<String, Page> pages = new LinkedHashMap<>();
+    private long changes;
+    private long bytes;
+
+    private Entry(long generation) {
+      this.generation = generation;
+    }
+  }
+
+  private final class TenantCache {
+    private final Map<String, Entry> recipients = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hits;
+    private final Counter misses;
+    private long bytes;
+
+    private TenantCache(String tenant) {
+      hits = counter(tenant, "hit");
+      misses = counter(tenant, "miss");
+      Gauge.builder(HIT_RATIO, this, TenantCache::hitRatio)
+        .description("Share of the cacheable requests answered from the cache")
+        .tag("tenant", tenant)
+        .register(registry);
+      Gauge.builder(SIZE, this, TenantCache::size)
+        .description("Recipients in the cache")
+        .tag("tenant", tenant)
+        .register(registry);
+      Gauge.builder(BYTES, this, TenantCache::footprint)
+        .description("Estimated memory used by the cached pages")
+        .tag("tenant", tenant)
+        .baseUnit("bytes")
+        .register(registry);
+    }
+
+    private Counter counter(String tenant, String result) {
+      return Counter.builder(REQUESTS)
+        .description("Cacheable requests for the notifications of a recipient")
+        .tag("tenant", tenant)
+        .tag("result", result)
+        .register(registry);
+    }
+
+    private void evict(int maxSize) {
+      Iterator<Entry> eldest = recipients.values().iterator();
+      while (recipients.size() > maxSize) {
+        bytes -= eldest.next().bytes;
+        eldest.remove();
+      }
+    }
+
+    private double hitRatio() {
+      double total = hits.count() + misses.count();
+      return total == 0 ? Double.NaN : hits.count() / total;
+    }
+
+    private synchronized int size() {
+      return recipients.size();
+    }
+
+    private synchronized long footprint() {
+      return bytes;
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package org.folio.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * gzip content coding (RFC 9110, section 8.4.1) of HTTP request bodies; the HTTP client
+ * decodes compressed responses itself.
+ */
+final class HttpCompression {
+  static final String GZIP = "gzip";
+
+  private HttpCompression() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  static Buffer gzip(Buffer body) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(body.length() / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(body.getBytes());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return Buffer.buffer(out.toByteArray());
+  }
+}
@@ -1,7 +1,6 @@
 package org.folio.client;
 
 import static javax.ws.rs.core.HttpHeaders.ACCEPT;
-import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
 import static org.folio.util.LogUtil.asJson;
@@ -31,10 +30,7 @@ public class NoticesClient extends OkapiClient {
 
   public Future<EventEntity> getEventConfig(String name) {
     log.debug("getEventConfig:: parameters name: {}", name);
-    return getAbs("/eventConfig")
-      .addQueryParam("query", "name==" + name)
-      .putHeader(ACCEPT, APPLICATION_JSON)
-      .send()
+    return getCoalesced("/eventConfig", Map.of("query", "name==" + name))
       .map(responseMapper(EventEntityCollection.class))
       .map(collection -> collection.getEventEntity()
         .stream()
@@ -45,10 +41,7 @@ public class NoticesClient extends OkapiClient {
 
   public Future<TemplateProcessingResult> postTemplateRequest(TemplateProcessingRequest request) {
     log.debug("postTemplateRequest:: parameters request: {}", () -> asJson(request));
-    return postAbs("/template-request")
-      .putHeader(ACCEPT, APPLICATION_JSON)
-      .putHeader(CONTENT_TYPE, APPLICATION_JSON)
-      .sendJson(request)
+    return sendJson(postAbs("/template-request").putHeader(ACCEPT, APPLICATION_JSON), request)
       .onSuccess(r -> log.info("postTemplateRequest:: Posted Template Request Successfully"))
       .map(responseMapper(TemplateProcessingResult.class))
       .onSuccess(r -> log.info("postTemplateRequest:: Posted Template Request Successfully"));
@@ -56,9 +49,7 @@ public class NoticesClient extends OkapiClient {
 
   public Future<Void> postMessageDelivery(NotifySendRequest request) {
     log.debug("postMessageDelivery:: parameters request: {}", () -> asJson(request));
-    return postAbs("/message-delivery")
-      .putHeader(ACCEPT, TEXT_PLAIN)
-      .sendJson(request)
+    return sendJson(postAbs("/message-delivery").putHeader(ACCEPT, TEXT_PLAIN), request)
       .onSuccess(r -> log.info("postMessageDelivery:: result: {}", () -> bodyAsString(r)))
       .map(responseMapper(Void.class));
   }
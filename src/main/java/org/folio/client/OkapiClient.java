@@ -1,12 +1,18 @@
 package org.folio.client;
 
-import static org.folio.okapi.common.WebClientFactory.getWebClient;
+import static javax.ws.rs.core.HttpHeaders.ACCEPT;
+import static javax.ws.rs.core.HttpHeaders.CONTENT_ENCODING;
+import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.folio.client.OkapiWebClientFactory.getSharedClient;
 import static org.folio.okapi.common.XOkapiHeaders.REQUEST_ID;
 import static org.folio.okapi.common.XOkapiHeaders.TENANT;
 import static org.folio.okapi.common.XOkapiHeaders.TOKEN;
 import static org.folio.okapi.common.XOkapiHeaders.URL;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.function.Function;
 
 import javax.ws.rs.BadRequestException;
@@ -15,10 +21,19 @@ import javax.ws.rs.InternalServerErrorException;
 import org.apache.commons.collections4.map.CaseInsensitiveMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.folio.jfr.HttpClientEvent;
+import org.folio.jfr.JsonEvent;
+import org.folio.tracing.Tracing;
 
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.Json;
 import io.vertx.ext.web.client.HttpRequest;
 import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.WebClient;
@@ -26,37 +41,168 @@ import io.vertx.ext.web.client.WebClient;
 public class OkapiClient {
   private static final Logger log = LogManager.getLogger(OkapiClient.class);
   private final WebClient webClient;
+  private final OkapiClientOptions options;
+  private final OkapiClientTrafficMetrics trafficMetrics;
   private final String okapiUrl;
   private final String tenant;
   private final String token;
   private final String requestId;
+  private final Map<String, String> okapiHeaders;
   private static final int SC_BAD_REQUEST = 400;
   private static final int SC_NO_CONTENT = 204;
   private static final int SC_OK = 200;
+  private static final SingleFlight<String, HttpResponse<Buffer>> inFlightGets =
+    new SingleFlight<>();
 
   public OkapiClient(Vertx vertx, Map<String, String> okapiHeaders) {
     CaseInsensitiveMap<String, String> headers = new CaseInsensitiveMap<>(okapiHeaders);
-    this.webClient = getWebClient(vertx);
+    OkapiWebClientFactory.SharedClient sharedClient = getSharedClient(vertx);
+    this.webClient = sharedClient.webClient();
+    this.options = sharedClient.options();
+    this.trafficMetrics = sharedClient.trafficMetrics();
     this.okapiUrl = headers.get(URL);
     this.tenant = headers.get(TENANT);
     this.token = headers.get(TOKEN);
     this.requestId = headers.get(REQUEST_ID);
+    this.okapiHeaders = okapiHeaders;
   }
 
   protected HttpRequest<Buffer> postAbs(String path) {
     log.debug("postAbs:: parameters path: {}", path);
-    return webClient.requestAbs(HttpMethod.POST, okapiUrl + path)
+    return withTraceContext(webClient.requestAbs(HttpMethod.POST, okapiUrl + path)
       .putHeader(TENANT, tenant)
       .putHeader(TOKEN, token)
-      .putHeader(REQUEST_ID, requestId);
+      .putHeader(REQUEST_ID, requestId));
   }
 
   protected HttpRequest<Buffer> getAbs(String path) {
     log.debug("getAbs:: parameters path: {}", path);
-    return webClient.requestAbs(HttpMethod.GET, okapiUrl + path)
+    return withTraceContext(webClient.requestAbs(HttpMethod.GET, okapiUrl + path)
       .putHeader(TENANT, tenant)
       .putHeader(TOKEN, token)
-      .putHeader(REQUEST_ID, requestId);
+      .putHeader(REQUEST_ID, requestId));
+  }
+
+  /**
+   * Passes on the W3C trace context of the incoming request.
+   */
+  private HttpRequest<Buffer> withTraceContext(HttpRequest<Buffer> request) {
+    Tracing.traceHeaders(okapiHeaders).forEach(request::putHeader);
+    return request;
+  }
+
+  /**
+   * Sends a GET request accepting JSON, sharing the response with identical requests
+   * (same Okapi URL, tenant, path and query parameters) that are already in flight.
+   * Only use this for idempotent reads whose result does not depend on the user.
+   */
+  protected Future<HttpResponse<Buffer>> getCoalesced(String path,
+    Map<String, String> queryParams) {
+
+    log.debug("getCoalesced:: parameters path: {}, queryParams: {}", path, queryParams);
+    String key = okapiUrl + " " + tenant + " " + path + " " + new TreeMap<>(queryParams);
+    return inFlightGets.execute(key, () -> {
+      HttpRequest<Buffer> request = getAbs(path).putHeader(ACCEPT, APPLICATION_JSON);
+      queryParams.forEach(request::addQueryParam);
+      return send(request);
+    });
+  }
+
+  /**
+   * Sends a request without body.
+   */
+  protected Future<HttpResponse<Buffer>> send(HttpRequest<Buffer> request) {
+    Span span = startClientSpan(request);
+    HttpClientEvent event = HttpClientEvent.start();
+    return request
+      .send()
+      .onSuccess(this::countResponse)
+      .onComplete(ar -> endClientCall(request, span, event, 0, ar));
+  }
+
+  /**
+   * Sends the body as JSON, gzipped if request compression is enabled and the body
+   * reaches the size threshold.
+   */
+  protected Future<HttpResponse<Buffer>> sendJson(HttpRequest<Buffer> request, Object body) {
+    JsonEvent jsonEvent = JsonEvent.start();
+    Buffer json = Json.encodeToBuffer(body);
+    jsonEvent.complete(okapiHeaders, JsonEvent.SERIALIZE,
+      body == null ? null : body.getClass(), json.length());
+    Buffer onWire = json;
+    if (options.isCompressRequests() && json.length() >= options.getCompressionThreshold()) {
+      onWire = HttpCompression.gzip(json);
+      request.putHeader(CONTENT_ENCODING, HttpCompression.GZIP);
+    }
+    trafficMetrics.requestSent(json.length(), onWire.length());
+    Span span = startClientSpan(request);
+    HttpClientEvent event = HttpClientEvent.start();
+    return request
+      .putHeader(CONTENT_TYPE, APPLICATION_JSON)
+      .sendBuffer(onWire)
+      .onSuccess(this::countResponse)
+      .onComplete(ar -> endClientCall(request, span, event, json.length(), ar));
+  }
+
+  /**
+   * Starts a client span, child of the incoming request's span, and makes it the parent
+   * of the called module's spans.
+   */
+  private Span startClientSpan(HttpRequest<Buffer> request) {
+    Span span = Tracing.startSpan(request.method().name() + " " + path(request),
+      SpanKind.CLIENT, okapiHeaders);
+    Map<String, String> traceHeaders = new HashMap<>(4);
+    Tracing.inject(span, traceHeaders);
+    traceHeaders.forEach(request::putHeader);
+    return span;
+  }
+
+  private static String path(HttpRequest<Buffer> request) {
+    String uri = request.uri();
+    int query = uri.indexOf('?');
+    return query < 0 ? uri : uri.substring(0, query);
+  }
+
+  /**
+   * Ends the client span and the JDK Flight Recorder event of a call.
+   */
+  private void endClientCall(HttpRequest<Buffer> request, Span span, HttpClientEvent event,
+    long requestSize, AsyncResult<HttpResponse<Buffer>> result) {
+
+    endClientSpan(span, result);
+    HttpResponse<Buffer> response = result.succeeded() ? result.result() : null;
+    event.complete(okapiHeaders, request.method().name(), path(request),
+      response == null ? 0 : response.statusCode(), requestSize,
+      response == null || response.body() == null ? 0 : response.body().length());
+  }
+
+  private static void endClientSpan(Span span, AsyncResult<HttpResponse<Buffer>> result) {
+    if (result.succeeded()) {
+      span.setAttribute(Tracing.STATUS_ATTRIBUTE, (long) result.result().statusCode());
+      if (result.result().statusCode() >= 500) {
+        span.setStatus(StatusCode.ERROR);
+      }
+    }
+    Tracing.end(span, result);
+  }
+
+  /**
+   * Counts the response body; the HTTP client has decompressed it already.
+   */
+  private void countResponse(HttpResponse<Buffer> response) {
+    trafficMetrics.responseReceived(response.body() == null ? 0 : response.body().length());
+  }
+
+  static SingleFlight<String, HttpResponse<Buffer>> getInFlightGets() {
+    return inFlightGets;
+  }
+
+  private static <T> T deserialize(HttpResponse<Buffer> response, Class<T> type) {
+    JsonEvent event = JsonEvent.start();
+    T result = response.bodyAsJson(type);
+    event.complete(null, JsonEvent.DESERIALIZE, type,
+      response.body() == null ? 0 : response.body().length());
+    return result;
   }
 
   protected static <T> Function<HttpResponse<Buffer>, T> responseMapper(Class<T> type) {
@@ -70,7 +216,7 @@ public class OkapiClient {
         log.info("responseMapper:: response status code is not {} or {}", SC_OK, SC_NO_CONTENT);
         throw new InternalServerErrorException();
       }
-      T result = type == Void.class ? null : resp.bodyAsJson(type);
+      T result = type == Void.class ? null : deserialize(resp, type);
       log.info("responseMapper:: Mapped Response Successfully");
       return result;
     };
@@ -0,0 +1,153 @@
+package org.folio.client;
+
+import java.util.function.UnaryOperator;
+
+import org.folio.util.Settings;
+
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.PoolOptions;
+import io.vertx.ext.web.client.WebClientOptions;
+
+/**
+ * Settings of the HTTP client pool shared by all {@link OkapiClient}s. Every value can be
+ * set with an environment variable or a system property of the same name; the defaults
+ * are those of Vert.x.
+ */
+public class OkapiClientOptions {
+  public static final String POOL_SIZE = "OKAPI_CLIENT_POOL_SIZE";
+  public static final String WAIT_QUEUE_SIZE = "OKAPI_CLIENT_WAIT_QUEUE_SIZE";
+  public static final String KEEP_ALIVE = "OKAPI_CLIENT_KEEP_ALIVE";
+  public static final String KEEP_ALIVE_TIMEOUT = "OKAPI_CLIENT_KEEP_ALIVE_TIMEOUT";
+  public static final String IDLE_TIMEOUT = "OKAPI_CLIENT_IDLE_TIMEOUT";
+  public static final String HTTP2 = "OKAPI_CLIENT_HTTP2";
+  public static final String HTTP2_MULTIPLEXING_LIMIT = "OKAPI_CLIENT_HTTP2_MULTIPLEXING_LIMIT";
+  public static final String METRICS_LOG_INTERVAL = "OKAPI_CLIENT_METRICS_LOG_INTERVAL";
+  public static final String COMPRESSION = "OKAPI_CLIENT_COMPRESSION";
+  public static final String COMPRESS_REQUESTS = "OKAPI_CLIENT_COMPRESS_REQUESTS";
+  public static final String COMPRESSION_THRESHOLD = "OKAPI_CLIENT_COMPRESSION_THRESHOLD";
+  private static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+  private final int poolSize;
+  private final int waitQueueSize;
+  private final boolean keepAlive;
+  private final int keepAliveTimeout;
+  private final int idleTimeout;
+  private final boolean http2;
+  private final int http2MultiplexingLimit;
+  private final int metricsLogInterval;
+  private final boolean compression;
+  private final boolean compressRequests;
+  private final int compressionThreshold;
+
+  OkapiClientOptions(UnaryOperator<String> lookup) {
+    Settings settings = new Settings(lookup);
+    poolSize = settings.intValue(POOL_SIZE, PoolOptions.DEFAULT_MAX_POOL_SIZE);
+    waitQueueSize = settings.intValue(WAIT_QUEUE_SIZE, PoolOptions.DEFAULT_MAX_WAIT_QUEUE_SIZE);
+    keepAlive = booleanValue(lookup, KEEP_ALIVE, WebClientOptions.DEFAULT_KEEP_ALIVE);
+    keepAliveTimeout = settings.intValue(KEEP_ALIVE_TIMEOUT,
+      WebClientOptions.DEFAULT_KEEP_ALIVE_TIMEOUT);
+    idleTimeout = settings.intValue(IDLE_TIMEOUT, WebClientOptions.DEFAULT_IDLE_TIMEOUT);
+    http2 = booleanValue(lookup, HTTP2, false);
+    http2MultiplexingLimit = settings.intValue(HTTP2_MULTIPLEXING_LIMIT,
+      WebClientOptions.DEFAULT_HTTP2_MULTIPLEXING_LIMIT);
+    metricsLogInterval = settings.intValue(METRICS_LOG_INTERVAL, 0);
+    compression = booleanValue(lookup, COMPRESSION, true);
+    compressRequests = booleanValue(lookup, COMPRESS_REQUESTS, false);
+    compressionThreshold = settings.intValue(COMPRESSION_THRESHOLD,
+      DEFAULT_COMPRESSION_THRESHOLD);
+  }
+
+  /**
+   * Reads the settings from the environment, with system properties taking precedence.
+   */
+  public static OkapiClientOptions fromEnvironment() {
+    return new OkapiClientOptions(name -> System.getProperty(name, System.getenv(name)));
+  }
+
+  public WebClientOptions webClientOptions() {
+    WebClientOptions options = new WebClientOptions()
+      .setKeepAlive(keepAlive)
+      .setKeepAliveTimeout(keepAliveTimeout)
+      .setIdleTimeout(idleTimeout)
+      // sends Accept-Encoding and decompresses the responses in the client
+      .setDecompressionSupported(compression);
+    if (http2) {
+      // h2c with prior knowledge: Okapi is reached over plain HTTP inside the cluster
+      options.setProtocolVersion(HttpVersion.HTTP_2)
+        .setHttp2ClearTextUpgrade(false)
+        .setHttp2MultiplexingLimit(http2MultiplexingLimit)
+        .setHttp2KeepAliveTimeout(keepAliveTimeout);
+    }
+    return options;
+  }
+
+  public PoolOptions poolOptions() {
+    return new PoolOptions()
+      .setHttp1MaxSize(poolSize)
+      .setHttp2MaxSize(poolSize)
+      .setMaxWaitQueueSize(waitQueueSize);
+  }
+
+  /**
+   * Number of requests that can be in flight without waiting for a connection,
+   * or -1 when the HTTP/2 server decides how many streams a connection takes.
+   */
+  public int capacity() {
+    if (!http2) {
+      return poolSize;
+    }
+    return http2MultiplexingLimit > 0 ? poolSize * http2MultiplexingLimit : -1;
+  }
+
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  public boolean isHttp2() {
+    return http2;
+  }
+
+  public int getMetricsLogInterval() {
+    return metricsLogInterval;
+  }
+
+  /**
+   * Whether to ask for compressed responses, which the HTTP client decompresses.
+   */
+  public boolean isCompression() {
+    return compression;
+  }
+
+  /**
+   * Whether to gzip request bodies of at least {@link #getCompressionThreshold()} bytes.
+   * Off by default, because the receiving module must accept gzip encoded requests.
+   */
+  public boolean isCompressRequests() {
+    return compressRequests;
+  }
+
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  @Override
+  public String toString() {
+    return "OkapiClientOptions(poolSize=" + poolSize + ", waitQueueSize=" + waitQueueSize
+      + ", keepAlive=" + keepAlive + ", keepAliveTimeout=" + keepAliveTimeout
+      + ", idleTimeout=" + idleTimeout + ", http2=" + http2
+      + ", http2MultiplexingLimit=" + http2MultiplexingLimit
+      + ", metricsLogInterval=" + metricsLogInterval + ", compression=" + compression
+      + ", compressRequests=" + compressRequests
+      + ", compressionThreshold=" + compressionThreshold + ")";
+  }
+
+  private static boolean booleanValue(UnaryOperator<String> lookup, String name,
+    boolean defaultValue) {
+
+    String value = lookup.apply(name);
+    if (value == null || value.isBlank()) {
+      return defaultValue;
+    }
+    return Boolean.parseBoolean(value.trim());
+  }
+}
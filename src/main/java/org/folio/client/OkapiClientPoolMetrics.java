@@ -0,0 +1,162 @@
+package org.folio.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.http.HttpConnection;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpContext;
+
+/**
+ * Utilization of the shared Okapi HTTP client pool. A request waits from the moment the
+ * client asks the pool for a connection (or HTTP/2 stream) until it gets one, so the wait
+ * time includes the time to open new connections.
+ * <p>
+ * The values are registered in the Micrometer registry as {@value #CONNECTIONS},
+ * {@value #IN_USE}, {@value #WAITING} and {@value #UTILIZATION} gauges, the
+ * {@value #WAIT} timer and the {@value #FAILURES} counter.
+ */
+public class OkapiClientPoolMetrics {
+  static final String CONNECTIONS = "mod_notify_okapi_client_connections";
+  static final String IN_USE = "mod_notify_okapi_client_requests_in_use";
+  static final String WAITING = "mod_notify_okapi_client_requests_waiting";
+  static final String UTILIZATION = "mod_notify_okapi_client_pool_utilization";
+  static final String WAIT = "mod_notify_okapi_client_pool_wait";
+  static final String FAILURES = "mod_notify_okapi_client_failed_before_send";
+  private static final String CREATED_AT = OkapiClientPoolMetrics.class.getName() + ".createdAt";
+  private static final String SENT = OkapiClientPoolMetrics.class.getName() + ".sent";
+  private static final String DONE = OkapiClientPoolMetrics.class.getName() + ".done";
+
+  private final int capacity;
+  private final AtomicInteger openConnections = new AtomicInteger();
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final AtomicInteger inUse = new AtomicInteger();
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+  private final AtomicLong maxWaitNanos = new AtomicLong();
+  private final Timer waitTimer;
+  private final Counter failureCounter;
+
+  public OkapiClientPoolMetrics(int capacity, MeterRegistry registry) {
+    this.capacity = capacity;
+    Gauge.builder(CONNECTIONS, openConnections, AtomicInteger::get)
+      .description("Open connections to Okapi")
+      .register(registry);
+    Gauge.builder(IN_USE, inUse, AtomicInteger::get)
+      .description("Requests to Okapi that got a connection and wait for the response")
+      .register(registry);
+    Gauge.builder(WAITING, waiting, AtomicInteger::get)
+      .description("Requests to Okapi waiting for a connection")
+      .register(registry);
+    if (capacity > 0) {
+      Gauge.builder(UTILIZATION, inUse, count -> (double) count.get() / capacity)
+        .description("Share of the connections or streams to Okapi in use")
+        .register(registry);
+    }
+    waitTimer = Timer.builder(WAIT)
+      .description("Time a request to Okapi waited for a connection")
+      .publishPercentiles(0.5, 0.95, 0.99)
+      .register(registry);
+    failureCounter = Counter.builder(FAILURES)
+      .description("Requests to Okapi that failed before they got a connection")
+      .register(registry);
+  }
+
+  void connectionOpened(HttpConnection connection) {
+    openConnections.incrementAndGet();
+    connection.closeHandler(v -> openConnections.decrementAndGet());
+  }
+
+  /**
+   * WebClient interceptor; must be registered on the shared client only once.
+   */
+  void intercept(HttpContext<?> context) {
+    switch (context.phase()) {
+      case CREATE_REQUEST -> {
+        if (context.get(CREATED_AT) == null) {
+          context.set(CREATED_AT, System.nanoTime());
+          waiting.incrementAndGet();
+        }
+      }
+      case SEND_REQUEST -> {
+        Long createdAt = context.get(CREATED_AT);
+        if (createdAt != null && context.get(SENT) == null) {
+          context.set(SENT, Boolean.TRUE);
+          waiting.decrementAndGet();
+          inUse.incrementAndGet();
+          long wait = System.nanoTime() - createdAt;
+          waitNanos.add(wait);
+          maxWaitNanos.accumulateAndGet(wait, Math::max);
+          waitTimer.record(wait, TimeUnit.NANOSECONDS);
+          requests.increment();
+        }
+      }
+      case DISPATCH_RESPONSE, FAILURE -> finished(context);
+      default -> {
+        // nothing to measure
+      }
+    }
+    context.next();
+  }
+
+  private void finished(HttpContext<?> context) {
+    if (context.get(CREATED_AT) == null || context.get(DONE) != null) {
+      return;
+    }
+    context.set(DONE, Boolean.TRUE);
+    if (context.get(SENT) == null) {
+      waiting.decrementAndGet();
+      failures.increment();
+      failureCounter.increment();
+    } else {
+      inUse.decrementAndGet();
+    }
+  }
+
+  public int getOpenConnections() {
+    return openConnections.get();
+  }
+
+  public int getWaiting() {
+    return waiting.get();
+  }
+
+  public int getInUse() {
+    return inUse.get();
+  }
+
+  public long getRequests() {
+    return requests.sum();
+  }
+
+  /**
+   * Returns the current values and resets the maximum wait time.
+   */
+  public JsonObject snapshot() {
+    long count = requests.sum();
+    JsonObject result = new JsonObject()
+      .put("openConnections", openConnections.get())
+      .put("inUse", inUse.get())
+      .put("waiting", waiting.get())
+      .put("requests", count)
+      .put("failedBeforeSend", failures.sum())
+      .put("avgWaitMs", count == 0 ? 0.0 : toMillis(waitNanos.sum()) / count)
+      .put("maxWaitMs", toMillis(maxWaitNanos.getAndSet(0)));
+    if (capacity > 0) {
+      result.put("capacity", capacity)
+        .put("utilization", (double) inUse.get() / capacity);
+    }
+    return result;
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+}
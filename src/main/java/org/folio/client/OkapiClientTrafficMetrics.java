@@ -0,0 +1,90 @@
+package org.folio.client;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Body sizes of the requests sent to and responses received from Okapi. Request bodies are
+ * counted before compression ("bytes") and as sent on the wire ("bytesOnWire"). Responses
+ * are decompressed by the HTTP client before the module sees them, so only their decoded
+ * size is known.
+ * <p>
+ * The values are registered in the Micrometer registry as the counters
+ * {@value #REQUEST_BODIES}, {@value #COMPRESSED_REQUESTS}, {@value #REQUEST_BYTES},
+ * {@value #REQUEST_BYTES_ON_WIRE}, {@value #RESPONSE_BODIES} and {@value #RESPONSE_BYTES}.
+ */
+public class OkapiClientTrafficMetrics {
+  static final String REQUEST_BODIES = "mod_notify_okapi_client_request_bodies";
+  static final String COMPRESSED_REQUESTS = "mod_notify_okapi_client_compressed_requests";
+  static final String REQUEST_BYTES = "mod_notify_okapi_client_request_body";
+  static final String REQUEST_BYTES_ON_WIRE = "mod_notify_okapi_client_request_body_on_wire";
+  static final String RESPONSE_BODIES = "mod_notify_okapi_client_response_bodies";
+  static final String RESPONSE_BYTES = "mod_notify_okapi_client_response_body";
+  private static final String BYTES = "bytes";
+
+  private final LongAdder requestBodies = new LongAdder();
+  private final LongAdder compressedRequests = new LongAdder();
+  private final LongAdder requestBytes = new LongAdder();
+  private final LongAdder requestBytesOnWire = new LongAdder();
+  private final LongAdder responseBodies = new LongAdder();
+  private final LongAdder responseBytes = new LongAdder();
+
+  public OkapiClientTrafficMetrics(MeterRegistry registry) {
+    register(registry, REQUEST_BODIES, requestBodies, null,
+      "Request bodies sent to Okapi");
+    register(registry, COMPRESSED_REQUESTS, compressedRequests, null,
+      "Request bodies sent to Okapi gzip compressed");
+    register(registry, REQUEST_BYTES, requestBytes, BYTES,
+      "Size of the request bodies sent to Okapi before compression");
+    register(registry, REQUEST_BYTES_ON_WIRE, requestBytesOnWire, BYTES,
+      "Size of the request bodies sent to Okapi as sent on the wire");
+    register(registry, RESPONSE_BODIES, responseBodies, null,
+      "Response bodies received from Okapi");
+    register(registry, RESPONSE_BYTES, responseBytes, BYTES,
+      "Size of the response bodies received from Okapi after decompression");
+  }
+
+  private static void register(MeterRegistry registry, String name, LongAdder adder,
+    String baseUnit, String description) {
+
+    FunctionCounter.builder(name, adder, LongAdder::sum)
+      .description(description)
+      .baseUnit(baseUnit)
+      .register(registry);
+  }
+
+  void requestSent(int bytes, int bytesOnWire) {
+    requestBodies.increment();
+    if (bytes != bytesOnWire) {
+      compressedRequests.increment();
+    }
+    requestBytes.add(bytes);
+    requestBytesOnWire.add(bytesOnWire);
+  }
+
+  void responseReceived(int bytes) {
+    responseBodies.increment();
+    responseBytes.add(bytes);
+  }
+
+  public long getRequestBytesOnWire() {
+    return requestBytesOnWire.sum();
+  }
+
+  public long getResponseBytes() {
+    return responseBytes.sum();
+  }
+
+  public JsonObject snapshot() {
+    return new JsonObject()
+      .put("requestBodies", requestBodies.sum())
+      .put("compressedRequests", compressedRequests.sum())
+      .put("requestBytes", requestBytes.sum())
+      .put("requestBytesOnWire", requestBytesOnWire.sum())
+      .put("responseBodies", responseBodies.sum())
+      .put("responseBytes", responseBytes.sum());
+  }
+}
@@ -0,0 +1,70 @@
+package org.folio.client;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.metrics.MetricsRegistry;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.impl.WebClientInternal;
+
+/**
+ * One {@link WebClient} per Vert.x instance for all calls to Okapi, configured by
+ * {@link OkapiClientOptions}. The pool and traffic metrics are registered in the
+ * {@link MetricsRegistry} and can also be logged periodically.
+ */
+public class OkapiWebClientFactory {
+  private static final Logger log = LogManager.getLogger(OkapiWebClientFactory.class);
+  private static final Map<Vertx, SharedClient> clients = new ConcurrentHashMap<>();
+
+  private OkapiWebClientFactory() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  public static WebClient getWebClient(Vertx vertx) {
+    return getSharedClient(vertx).webClient();
+  }
+
+  public static OkapiClientPoolMetrics getMetrics(Vertx vertx) {
+    SharedClient client = clients.get(vertx);
+    return client == null ? null : client.metrics();
+  }
+
+  public static OkapiClientTrafficMetrics getTrafficMetrics(Vertx vertx) {
+    SharedClient client = clients.get(vertx);
+    return client == null ? null : client.trafficMetrics();
+  }
+
+  static SharedClient getSharedClient(Vertx vertx) {
+    return clients.computeIfAbsent(vertx, v -> create(v, OkapiClientOptions.fromEnvironment()));
+  }
+
+  private static SharedClient create(Vertx vertx, OkapiClientOptions options) {
+    log.info("create:: Creating Okapi HTTP client with {}", options);
+    OkapiClientPoolMetrics metrics = new OkapiClientPoolMetrics(options.capacity(),
+      MetricsRegistry.get());
+    HttpClient httpClient = vertx.httpClientBuilder()
+      .with(options.webClientOptions())
+      .with(options.poolOptions())
+      .withConnectHandler(metrics::connectionOpened)
+      .build();
+    WebClient webClient = WebClient.wrap(httpClient, options.webClientOptions());
+    ((WebClientInternal) webClient).addInterceptor(metrics::intercept);
+
+    OkapiClientTrafficMetrics trafficMetrics = new OkapiClientTrafficMetrics(
+      MetricsRegistry.get());
+    if (options.getMetricsLogInterval() > 0) {
+      vertx.setPeriodic(options.getMetricsLogInterval() * 1000L,
+        id -> log.info("Okapi HTTP client pool: {}, traffic: {}", metrics.snapshot(),
+          trafficMetrics.snapshot()));
+    }
+    return new SharedClient(webClient, options, metrics, trafficMetrics);
+  }
+
+  record SharedClient(WebClient webClient, OkapiClientOptions options,
+    OkapiClientPoolMetrics metrics, OkapiClientTrafficMetrics trafficMetrics) { }
+}
@@ -0,0 +1,82 @@
+package org.folio.client;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+/**
+ * Deduplicates concurrent calls with the same key: while a call is in flight, further
+ * calls with the same key share its result instead of starting their own. Nothing is kept
+ * after the call completes, so this can be used alone or in front of a result cache to
+ * protect it from a burst of misses.
+ *
+ * <p>Each caller gets its own future, completed on the Vert.x context the caller was on,
+ * like the call would have been; the result itself is shared, so it must not be mutated by
+ * the callers.
+ */
+public class SingleFlight<K, V> {
+  private final Map<K, Future<V>> inFlight = new ConcurrentHashMap<>();
+  private final LongAdder calls = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+
+  public Future<V> execute(K key, Supplier<Future<V>> call) {
+    Promise<V> shared = Promise.promise();
+    Future<V> existing = inFlight.putIfAbsent(key, shared.future());
+    if (existing != null) {
+      coalesced.increment();
+      return onCallerContext(existing);
+    }
+    calls.increment();
+    Future<V> result;
+    try {
+      result = call.get();
+    } catch (Exception e) {
+      result = Future.failedFuture(e);
+    }
+    result.onComplete(ar -> {
+      inFlight.remove(key, shared.future());
+      shared.handle(ar);
+    });
+    return onCallerContext(shared.future());
+  }
+
+  /**
+   * A future of the caller completing with the shared one, on the caller's context if any.
+   */
+  private static <V> Future<V> onCallerContext(Future<V> shared) {
+    Context context = Vertx.currentContext();
+    Promise<V> promise = Promise.promise();
+    shared.onComplete(ar -> {
+      if (context == null || Vertx.currentContext() == context) {
+        promise.handle(ar);
+      } else {
+        context.runOnContext(v -> promise.handle(ar));
+      }
+    });
+    return promise.future();
+  }
+
+  /**
+   * Number of calls that were actually started.
+   */
+  public long getCalls() {
+    return calls.sum();
+  }
+
+  /**
+   * Number of calls that joined a call already in flight.
+   */
+  public long getCoalesced() {
+    return coalesced.sum();
+  }
+
+  public int getInFlight() {
+    return inFlight.size();
+  }
+}
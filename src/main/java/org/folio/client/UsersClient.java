@@ -0,0 +1,100 @@
+package org.folio.client;
+
+import static java.lang.Math.min;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toMap;
+import static javax.ws.rs.core.HttpHeaders.ACCEPT;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.folio.util.StringUtil.cqlEncode;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.util.StringUtil;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpResponse;
+
+public class UsersClient extends OkapiClient {
+  private static final Logger log = LogManager.getLogger(UsersClient.class);
+  static final int USERNAMES_PER_QUERY = 50;
+
+  public UsersClient(Vertx vertx, Map<String, String> okapiHeaders) {
+    super(vertx, okapiHeaders);
+  }
+
+  /**
+   * Looks up users by username. The raw response is returned because the caller
+   * distinguishes between "not found", "forbidden" and other failures.
+   */
+  public Future<HttpResponse<Buffer>> getUsersByUsername(String username) {
+    log.debug("getUsersByUsername:: parameters username: {}", username);
+    return send(getAbs("/users")
+        .addQueryParam("query", "username==" + cqlEncode(username == null ? "" : username))
+        .putHeader(ACCEPT, APPLICATION_JSON))
+      .onSuccess(r -> log.info("getUsersByUsername:: response status code: {}", r.statusCode()));
+  }
+
+  /**
+   * Resolves user names to user IDs with one {@code username==(a or b or ...)} query
+   * per {@value #USERNAMES_PER_QUERY} names. Like the query, the resulting map ignores
+   * case: it is keyed by {@link #usernameKey}. Names that do not exist are missing from it.
+   */
+  public Future<Map<String, String>> getUserIdsByUsernames(Collection<String> usernames) {
+    log.debug("getUserIdsByUsernames:: parameters usernames: {}", usernames::size);
+    // the names are sent as requested, once per key
+    List<String> distinctUsernames = List.copyOf(usernames.stream()
+      .collect(toMap(UsersClient::usernameKey, username -> username, (first, second) -> first,
+        LinkedHashMap::new))
+      .values());
+    List<Future<Map<String, String>>> chunks = new ArrayList<>();
+    for (int i = 0; i < distinctUsernames.size(); i += USERNAMES_PER_QUERY) {
+      chunks.add(getUserIdsChunk(distinctUsernames.subList(i,
+        min(i + USERNAMES_PER_QUERY, distinctUsernames.size()))));
+    }
+    return Future.all(chunks)
+      .map(results -> {
+        Map<String, String> userIds = new HashMap<>();
+        results.<Map<String, String>>list().forEach(userIds::putAll);
+        log.info("getUserIdsByUsernames:: resolved {} of {} usernames in {} queries",
+          userIds.size(), distinctUsernames.size(), chunks.size());
+        return userIds;
+      });
+  }
+
+  private Future<Map<String, String>> getUserIdsChunk(List<String> usernames) {
+    String query = usernames.stream()
+      .map(StringUtil::cqlEncode)
+      .collect(joining(" or ", "username==(", ")"));
+
+    return send(getAbs("/users")
+        .addQueryParam("query", query)
+        .addQueryParam("limit", String.valueOf(usernames.size()))
+        .putHeader(ACCEPT, APPLICATION_JSON))
+      .map(responseMapper(JsonObject.class))
+      .map(body -> body.getJsonArray("users", new JsonArray())
+        .stream()
+        .map(JsonObject.class::cast)
+        .filter(user -> user.getString("username") != null && user.getString("id") != null)
+        .collect(toMap(user -> usernameKey(user.getString("username")),
+          user -> user.getString("id"), (first, second) -> first)));
+  }
+
+  /**
+   * The key of the username in the map of {@link #getUserIdsByUsernames}.
+   */
+  public static String usernameKey(String username) {
+    return username.toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,76 @@
+package org.folio.jfr;
+
+import org.folio.rest.persist.cql.CQLWrapper;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Translating a CQL query into SQL. {@link CQLWrapper} translates lazily when the query is
+ * run, so while the event is recorded, the translation is done in the event and repeated by
+ * the query. Since that doubles the translation work, the event is disabled by default,
+ * also in the {@code default} and {@code profile} settings; enable it explicitly, e.g. with
+ * {@code jfr configure +org.folio.notify.CqlTranslation#enabled=true}, to look at slow
+ * translations.
+ */
+@Name("org.folio.notify.CqlTranslation")
+@Label("CQL Translation")
+@Category({ "FOLIO", "mod-notify" })
+@StackTrace(false)
+@Enabled(false)
+@Description("Translating a CQL query into SQL")
+public final class CqlTranslationEvent extends jdk.jfr.Event {
+  @Label("Endpoint")
+  String endpoint;
+
+  @Label("Tenant")
+  String tenant;
+
+  @Label("Query Length")
+  @DataAmount
+  long queryLength;
+
+  @Label("SQL Length")
+  @Description("Length of the SQL, -1 if the query is invalid")
+  @DataAmount
+  long sqlLength;
+
+  /**
+   * Begins the event; {@link #complete} ends and commits it.
+   */
+  public static CqlTranslationEvent start() {
+    CqlTranslationEvent event = new CqlTranslationEvent();
+    event.begin();
+    return event;
+  }
+
+  public void complete(CQLWrapper cql) {
+    if (!isEnabled()) {
+      return;
+    }
+    long sql = translate(cql);
+    end();
+    if (shouldCommit()) {
+      String query = cql.getQuery();
+      this.endpoint = JfrEvents.endpoint();
+      this.tenant = JfrEvents.tenant(null);
+      this.queryLength = query == null ? 0 : query.length();
+      this.sqlLength = sql;
+      commit();
+    }
+  }
+
+  private static long translate(CQLWrapper cql) {
+    try {
+      return cql.toString().length();
+    } catch (RuntimeException e) {
+      // the query reports the error
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package org.folio.jfr;
+
+import java.util.Map;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A database call, from handing it to the PostgresClient until its result arrives.
+ */
+@Name("org.folio.notify.DbCall")
+@Label("Database Call")
+@Category({ "FOLIO", "mod-notify" })
+@StackTrace(false)
+@Description("Call of the PostgresClient")
+public final class DbCallEvent extends jdk.jfr.Event {
+  @Label("Endpoint")
+  String endpoint;
+
+  @Label("Tenant")
+  String tenant;
+
+  @Label("Operation")
+  String operation;
+
+  @Label("Table")
+  String table;
+
+  @Label("Rows")
+  @Description("Rows returned or changed, -1 if the call failed")
+  int rows;
+
+  public static DbCallEvent start() {
+    DbCallEvent event = new DbCallEvent();
+    event.begin();
+    return event;
+  }
+
+  public void complete(Map<String, String> okapiHeaders, String operation, String table,
+    int rows) {
+
+    end();
+    if (shouldCommit()) {
+      this.endpoint = JfrEvents.endpoint();
+      this.tenant = JfrEvents.tenant(okapiHeaders);
+      this.operation = operation;
+      this.table = table;
+      this.rows = rows;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package org.folio.jfr;
+
+import java.util.Map;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A call of another module through Okapi, from sending the request until the response
+ * body has been received and decoded.
+ */
+@Name("org.folio.notify.HttpClient")
+@Label("Module Call")
+@Category({ "FOLIO", "mod-notify" })
+@StackTrace(false)
+@Description("HTTP request to another module through Okapi")
+public final class HttpClientEvent extends jdk.jfr.Event {
+  @Label("Endpoint")
+  String endpoint;
+
+  @Label("Tenant")
+  String tenant;
+
+  @Label("Method")
+  String method;
+
+  @Label("Path")
+  String path;
+
+  @Label("Status")
+  @Description("HTTP status of the response, 0 for a failure without response")
+  int status;
+
+  @Label("Request Size")
+  @Description("Size of the request body before compression")
+  @DataAmount
+  long requestSize;
+
+  @Label("Response Size")
+  @Description("Size of the response body after decompression")
+  @DataAmount
+  long responseSize;
+
+  public static HttpClientEvent start() {
+    HttpClientEvent event = new HttpClientEvent();
+    event.begin();
+    return event;
+  }
+
+  public void complete(Map<String, String> okapiHeaders, String method, String path,
+    int status, long requestSize, long responseSize) {
+
+    end();
+    if (shouldCommit()) {
+      this.endpoint = JfrEvents.endpoint();
+      this.tenant = JfrEvents.tenant(okapiHeaders);
+      this.method = method;
+      this.path = path;
+      this.status = status;
+      this.requestSize = requestSize;
+      this.responseSize = responseSize;
+      commit();
+    }
+  }
+}
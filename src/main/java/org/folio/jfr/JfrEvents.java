@@ -0,0 +1,54 @@
+package org.folio.jfr;
+
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
+
+import java.util.Map;
+
+import org.folio.okapi.common.logging.FolioLoggingContext;
+
+import io.vertx.core.Vertx;
+
+/**
+ * The request context of the JDK Flight Recorder events. The endpoint of a request is
+ * stored in the {@link FolioLoggingContext} of its Vert.x context, next to the tenant
+ * that RMB stores there, so that the events of the database and HTTP calls can be
+ * attributed to the endpoint that caused them.
+ */
+public final class JfrEvents {
+  static final String ENDPOINT = "endpoint";
+  private static final String TENANT_ID = FolioLoggingContext.TENANT_ID_LOGGING_VAR_NAME;
+  private static final FolioLoggingContext folioLoggingContext = new FolioLoggingContext();
+
+  private JfrEvents() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  /**
+   * Stores the endpoint in the context of the current request.
+   */
+  public static void setEndpoint(String endpoint) {
+    if (Vertx.currentContext() != null) {
+      FolioLoggingContext.put(ENDPOINT, endpoint);
+    }
+  }
+
+  static String endpoint() {
+    return lookup(ENDPOINT);
+  }
+
+  /**
+   * The tenant of the Okapi headers, or of the current request if there are none.
+   */
+  static String tenant(Map<String, String> okapiHeaders) {
+    String tenant = okapiHeaders == null ? null : okapiHeaders.get(TENANT);
+    return tenant == null ? lookup(TENANT_ID) : tenant;
+  }
+
+  private static String lookup(String key) {
+    if (Vertx.currentContext() == null) {
+      return null;
+    }
+    String value = folioLoggingContext.lookup(key);
+    return value == null || value.isEmpty() ? null : value;
+  }
+}
@@ -0,0 +1,61 @@
+package org.folio.jfr;
+
+import java.util.Map;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Serializing an object to JSON or deserializing it from JSON.
+ */
+@Name("org.folio.notify.Json")
+@Label("JSON Mapping")
+@Category({ "FOLIO", "mod-notify" })
+@StackTrace(false)
+@Description("JSON serialization or deserialization")
+public final class JsonEvent extends jdk.jfr.Event {
+  public static final String SERIALIZE = "serialize";
+  public static final String DESERIALIZE = "deserialize";
+
+  @Label("Endpoint")
+  String endpoint;
+
+  @Label("Tenant")
+  String tenant;
+
+  @Label("Operation")
+  @Description("serialize or deserialize")
+  String operation;
+
+  @Label("Type")
+  String type;
+
+  @Label("Size")
+  @Description("Size of the JSON")
+  @DataAmount
+  long size;
+
+  public static JsonEvent start() {
+    JsonEvent event = new JsonEvent();
+    event.begin();
+    return event;
+  }
+
+  public void complete(Map<String, String> okapiHeaders, String operation, Class<?> type,
+    long size) {
+
+    end();
+    if (shouldCommit()) {
+      this.endpoint = JfrEvents.endpoint();
+      this.tenant = JfrEvents.tenant(okapiHeaders);
+      this.operation = operation;
+      this.type = type == null ? null : type.getSimpleName();
+      this.size = size;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package org.folio.jfr;
+
+import java.util.Map;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An inbound request, from calling the endpoint until its response is handed to RMB.
+ */
+@Name("org.folio.notify.Request")
+@Label("Request")
+@Category({ "FOLIO", "mod-notify" })
+@StackTrace(false)
+@Description("Request to an endpoint of mod-notify")
+public final class RequestEvent extends jdk.jfr.Event {
+  @Label("Endpoint")
+  String endpoint;
+
+  @Label("Tenant")
+  String tenant;
+
+  @Label("Status")
+  @Description("HTTP status of the response, 0 for a failure without response")
+  int status;
+
+  @Label("Request Size")
+  @Description("Content-Length of the request body, -1 if unknown")
+  @DataAmount
+  long requestSize;
+
+  /**
+   * Begins the event of a request to the endpoint.
+   */
+  public static RequestEvent start(String endpoint) {
+    JfrEvents.setEndpoint(endpoint);
+    RequestEvent event = new RequestEvent();
+    event.endpoint = endpoint;
+    event.begin();
+    return event;
+  }
+
+  public void complete(Map<String, String> okapiHeaders, int status) {
+    end();
+    if (shouldCommit()) {
+      this.tenant = JfrEvents.tenant(okapiHeaders);
+      this.status = status;
+      this.requestSize = contentLength(okapiHeaders);
+      commit();
+    }
+  }
+
+  private static long contentLength(Map<String, String> headers) {
+    if (headers == null) {
+      return -1;
+    }
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      if ("content-length".equalsIgnoreCase(header.getKey())) {
+        try {
+          return Long.parseLong(header.getValue().trim());
+        } catch (NumberFormatException e) {
+          return -1;
+        }
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,169 @@
+package org.folio.metrics;
+
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.jfr.DbCallEvent;
+import org.folio.rest.persist.cql.CQLWrapper;
+import org.folio.rest.persist.interfaces.Results;
+import org.folio.util.Settings;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.sqlclient.RowSet;
+
+/**
+ * Latency of the database calls per operation, table, tenant and outcome, and the number
+ * of calls in flight per tenant ({@value #IN_FLIGHT}). Each call in flight uses a connection
+ * of the pool or, if more than {@code DB_MAXPOOLSIZE} are in flight, waits for one, so the
+ * gauge is not the pool occupancy.
+ * <p>
+ * Calls taking at least {@value #SLOW_QUERY_THRESHOLD} milliseconds (default
+ * {@value #DEFAULT_SLOW_QUERY_THRESHOLD_MS}, negative to disable) are logged as warning
+ * with their CQL query, the generated SQL and the row count. Each call is also recorded as
+ * JDK Flight Recorder {@link DbCallEvent}.
+ */
+public class DbMetrics {
+  public static final String SLOW_QUERY_THRESHOLD = "DB_SLOW_QUERY_THRESHOLD_MS";
+  static final long DEFAULT_SLOW_QUERY_THRESHOLD_MS = 500;
+  static final String QUERIES = "mod_notify_db_queries";
+  static final String IN_FLIGHT = "mod_notify_db_calls_in_flight";
+  private static final String UNKNOWN_TENANT = "unknown";
+  private static final Logger log = LogManager.getLogger(DbMetrics.class);
+  private static final DbMetrics instance = new DbMetrics(MetricsRegistry.get(),
+    Settings.fromEnvironment().longValue(SLOW_QUERY_THRESHOLD, DEFAULT_SLOW_QUERY_THRESHOLD_MS));
+
+  private final MeterRegistry registry;
+  private final long slowQueryThresholdNanos;
+  private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+  DbMetrics(MeterRegistry registry, long slowQueryThresholdMs) {
+    this.registry = registry;
+    this.slowQueryThresholdNanos = slowQueryThresholdMs < 0
+      ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMs);
+  }
+
+  public static DbMetrics getInstance() {
+    return instance;
+  }
+
+  /**
+   * Wraps the result handler of a database call, filtered by the CQL query if any.
+   */
+  public <T> Handler<AsyncResult<T>> timed(DbOperation operation, String table, CQLWrapper cql,
+    Map<String, String> okapiHeaders, Handler<AsyncResult<T>> handler) {
+
+    return timed(operation, table, () -> cql == null ? "no query"
+      : "cql: " + cql.getQuery() + ", sql: " + sql(cql), okapiHeaders, handler);
+  }
+
+  /**
+   * Wraps the result handler of a database call on the row with the ID.
+   */
+  public <T> Handler<AsyncResult<T>> timedById(DbOperation operation, String table, String id,
+    Map<String, String> okapiHeaders, Handler<AsyncResult<T>> handler) {
+
+    return timed(operation, table, () -> "id: " + id, okapiHeaders, handler);
+  }
+
+  private <T> Handler<AsyncResult<T>> timed(DbOperation operation, String table,
+    Supplier<String> criteria, Map<String, String> okapiHeaders,
+    Handler<AsyncResult<T>> handler) {
+
+    String tenant = tenant(okapiHeaders);
+    AtomicInteger tenantInFlight = inFlightCounter(tenant);
+    tenantInFlight.incrementAndGet();
+    DbCallEvent event = DbCallEvent.start();
+    long start = System.nanoTime();
+    return result -> {
+      long nanos = System.nanoTime() - start;
+      tenantInFlight.decrementAndGet();
+      event.complete(okapiHeaders, operation.name(), table,
+        result.succeeded() ? rowCount(result.result()) : -1);
+      timer(operation, table, tenant, result.succeeded()).record(nanos, TimeUnit.NANOSECONDS);
+      if (nanos >= slowQueryThresholdNanos) {
+        log.warn("timed:: Slow {} on {} of tenant {}: {} ms, {}, {}", () -> operation,
+          () -> table, () -> tenant, () -> TimeUnit.NANOSECONDS.toMillis(nanos),
+          () -> result.succeeded() ? rowCount(result.result()) + " rows" : "failed",
+          criteria::get);
+      }
+      handler.handle(result);
+    };
+  }
+
+  /**
+   * The number of rows a database call returned or changed.
+   */
+  static int rowCount(Object result) {
+    if (result == null) {
+      return 0;
+    }
+    if (result instanceof Results<?> results) {
+      return results.getResults() == null ? 0 : results.getResults().size();
+    }
+    if (result instanceof RowSet<?> rowSet) {
+      return rowSet.rowCount();
+    }
+    return 1;
+  }
+
+  private static String sql(CQLWrapper cql) {
+    try {
+      return cql.toString();
+    } catch (Exception e) {
+      return "not available (" + e.getMessage() + ")";
+    }
+  }
+
+  int inFlight(String tenant) {
+    return inFlightCounter(tenant).get();
+  }
+
+  Timer timer(DbOperation operation, String table, String tenant, boolean succeeded) {
+    Timer[] tableTimers = timers.computeIfAbsent(tenant + " " + table,
+      key -> new Timer[DbOperation.values().length * 2]);
+    int index = operation.ordinal() * 2 + (succeeded ? 0 : 1);
+    Timer timer = tableTimers[index];
+    if (timer == null) {
+      timer = Timer.builder(QUERIES)
+        .description("Duration of a database call")
+        .tag("operation", operation.name())
+        .tag("table", table)
+        .tag("tenant", tenant)
+        .tag("outcome", succeeded ? "success" : "failure")
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .publishPercentileHistogram()
+        .register(registry);
+      tableTimers[index] = timer;
+    }
+    return timer;
+  }
+
+  private AtomicInteger inFlightCounter(String tenant) {
+    return inFlight.computeIfAbsent(tenant, key -> {
+      AtomicInteger count = new AtomicInteger();
+      Gauge.builder(IN_FLIGHT, count, AtomicInteger::get)
+        .description("Database calls in flight, including those waiting for a pooled connection;"
+          + " not the number of connections in use")
+        .tag("tenant", key)
+        .register(registry);
+      return count;
+    });
+  }
+
+  private static String tenant(Map<String, String> okapiHeaders) {
+    String tenant = okapiHeaders == null ? null : okapiHeaders.get(TENANT);
+    return tenant == null ? UNKNOWN_TENANT : tenant;
+  }
+}
@@ -0,0 +1,11 @@
+package org.folio.metrics;
+
+/**
+ * The kinds of database calls, as SQL statement.
+ */
+public enum DbOperation {
+  SELECT,
+  INSERT,
+  UPDATE,
+  DELETE
+}
@@ -0,0 +1,95 @@
+package org.folio.metrics;
+
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.collections4.map.CaseInsensitiveMap;
+import org.folio.jfr.RequestEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+
+/**
+ * Request count and latency of the endpoints, per endpoint, tenant and HTTP status. The
+ * timers are looked up once per combination and then kept, so recording a request only
+ * reads the clock twice and updates the timer. Each request is also recorded as JDK Flight
+ * Recorder {@link RequestEvent}.
+ */
+public class EndpointMetrics {
+  static final String REQUESTS = "mod_notify_requests";
+  private static final int MAX_STATUS = 600;
+  private static final int FAILED = 0;
+  private static final String UNKNOWN_TENANT = "unknown";
+  private static final EndpointMetrics instance = new EndpointMetrics(MetricsRegistry.get());
+
+  private final MeterRegistry registry;
+  private final Map<String, Map<String, AtomicReferenceArray<Timer>>> timers =
+    new ConcurrentHashMap<>();
+
+  EndpointMetrics(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  public static EndpointMetrics getInstance() {
+    return instance;
+  }
+
+  /**
+   * Wraps the result handler of an endpoint so that the time until the response is
+   * handed over is recorded with the tenant and status of the response. A failed result
+   * is recorded with status 0.
+   */
+  public Handler<AsyncResult<Response>> timed(String endpoint, Map<String, String> okapiHeaders,
+    Handler<AsyncResult<Response>> asyncResultHandler) {
+
+    RequestEvent event = RequestEvent.start(endpoint);
+    long start = System.nanoTime();
+    String tenant = tenant(okapiHeaders);
+    return result -> {
+      int status = result.succeeded() && result.result() != null
+        ? result.result().getStatus() : FAILED;
+      timer(endpoint, tenant, status).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      event.complete(okapiHeaders, status);
+      asyncResultHandler.handle(result);
+    };
+  }
+
+  Timer timer(String endpoint, String tenant, int status) {
+    int index = status >= 0 && status < MAX_STATUS ? status : FAILED;
+    AtomicReferenceArray<Timer> byStatus = timers
+      .computeIfAbsent(endpoint, e -> new ConcurrentHashMap<>())
+      .computeIfAbsent(tenant, t -> new AtomicReferenceArray<>(MAX_STATUS));
+    Timer timer = byStatus.get(index);
+    if (timer == null) {
+      timer = Timer.builder(REQUESTS)
+        .description("Requests to the endpoints of mod-notify")
+        .tag("endpoint", endpoint)
+        .tag("tenant", tenant)
+        .tag("status", String.valueOf(index))
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .publishPercentileHistogram()
+        .register(registry);
+      byStatus.compareAndSet(index, null, timer);
+    }
+    return timer;
+  }
+
+  private static String tenant(Map<String, String> okapiHeaders) {
+    if (okapiHeaders == null) {
+      return UNKNOWN_TENANT;
+    }
+    String tenant = okapiHeaders.get(TENANT);
+    if (tenant == null) {
+      tenant = new CaseInsensitiveMap<>(okapiHeaders).get(TENANT);
+    }
+    return tenant == null ? UNKNOWN_TENANT : tenant;
+  }
+}
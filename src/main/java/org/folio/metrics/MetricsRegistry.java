@@ -0,0 +1,20 @@
+package org.folio.metrics;
+
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+
+/**
+ * The Prometheus registry holding all metrics of the module.
+ */
+public final class MetricsRegistry {
+  private static final PrometheusMeterRegistry registry =
+    new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+  private MetricsRegistry() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  public static PrometheusMeterRegistry get() {
+    return registry;
+  }
+}
@@ -0,0 +1,58 @@
+package org.folio.metrics;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+
+/**
+ * Serves the metrics in the Prometheus text format on {@code GET /metrics} of a separate
+ * port, so that they are scraped directly and not through Okapi.
+ */
+public class MetricsServer {
+  private static final Logger log = LogManager.getLogger(MetricsServer.class);
+  public static final String METRICS_PORT = "METRICS_PORT";
+  static final String PATH = "/metrics";
+  static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private MetricsServer() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  /**
+   * Starts the server if {@value #METRICS_PORT} is set as environment variable or system
+   * property.
+   */
+  public static Future<HttpServer> startIfConfigured(Vertx vertx) {
+    String port = System.getProperty(METRICS_PORT, System.getenv(METRICS_PORT));
+    if (port == null || port.isBlank()) {
+      log.info("startIfConfigured:: {} is not set, metrics are not exposed", METRICS_PORT);
+      return Future.succeededFuture();
+    }
+    try {
+      return start(vertx, Integer.parseInt(port.trim()), MetricsRegistry.get());
+    } catch (NumberFormatException e) {
+      log.warn("startIfConfigured:: Invalid {}: {}", METRICS_PORT, port);
+      return Future.succeededFuture();
+    }
+  }
+
+  static Future<HttpServer> start(Vertx vertx, int port, PrometheusMeterRegistry registry) {
+    return vertx.createHttpServer()
+      .requestHandler(request -> {
+        if (!PATH.equals(request.path())) {
+          request.response().setStatusCode(404).end();
+          return;
+        }
+        request.response()
+          .putHeader("Content-Type", CONTENT_TYPE)
+          .end(registry.scrape());
+      })
+      .listen(port)
+      .onSuccess(server -> log.info("start:: Serving metrics on port {}", server.actualPort()))
+      .onFailure(e -> log.warn("start:: Failed to start metrics server on port {}", port, e));
+  }
+}
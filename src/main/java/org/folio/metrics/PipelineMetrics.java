@@ -0,0 +1,83 @@
+package org.folio.metrics;
+
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Latency and failures of the {@link PipelineStage}s, per stage, downstream module and
+ * tenant. If {@value #SERVER_TIMING} is true, the stage durations of a request are also
+ * returned in its {@code Server-Timing} response header.
+ */
+public class PipelineMetrics {
+  public static final String SERVER_TIMING = "SERVER_TIMING";
+  static final String STAGE_DURATION = "mod_notify_pipeline_stage";
+  static final String STAGE_FAILURES = "mod_notify_pipeline_stage_failures";
+  private static final String UNKNOWN_TENANT = "unknown";
+  private static final PipelineMetrics instance = new PipelineMetrics(MetricsRegistry.get(),
+    Boolean.parseBoolean(System.getProperty(SERVER_TIMING, System.getenv(SERVER_TIMING))));
+
+  private final MeterRegistry registry;
+  private final boolean serverTiming;
+  private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+  PipelineMetrics(MeterRegistry registry, boolean serverTiming) {
+    this.registry = registry;
+    this.serverTiming = serverTiming;
+  }
+
+  public static PipelineMetrics getInstance() {
+    return instance;
+  }
+
+  /**
+   * Starts timing the stages of one request.
+   */
+  public PipelineTiming start(Map<String, String> okapiHeaders) {
+    String tenant = okapiHeaders == null ? null : okapiHeaders.get(TENANT);
+    return new PipelineTiming(this, tenant == null ? UNKNOWN_TENANT : tenant);
+  }
+
+  boolean isServerTiming() {
+    return serverTiming;
+  }
+
+  void record(PipelineStage stage, String tenant, long nanos, boolean succeeded) {
+    Meters tenantMeters = meters.computeIfAbsent(tenant, this::createMeters);
+    tenantMeters.timers[stage.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    if (!succeeded) {
+      tenantMeters.failures[stage.ordinal()].increment();
+    }
+  }
+
+  private Meters createMeters(String tenant) {
+    PipelineStage[] stages = PipelineStage.values();
+    Timer[] timers = new Timer[stages.length];
+    Counter[] failures = new Counter[stages.length];
+    for (PipelineStage stage : stages) {
+      timers[stage.ordinal()] = Timer.builder(STAGE_DURATION)
+        .description("Duration of a stage of delivering a notification")
+        .tag("stage", stage.getStageName())
+        .tag("downstream", stage.getDownstream())
+        .tag("tenant", tenant)
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .publishPercentileHistogram()
+        .register(registry);
+      failures[stage.ordinal()] = Counter.builder(STAGE_FAILURES)
+        .description("Failed stages of delivering a notification")
+        .tag("stage", stage.getStageName())
+        .tag("downstream", stage.getDownstream())
+        .tag("tenant", tenant)
+        .register(registry);
+    }
+    return new Meters(timers, failures);
+  }
+
+  private record Meters(Timer[] timers, Counter[] failures) { }
+}
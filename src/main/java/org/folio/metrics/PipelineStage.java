@@ -0,0 +1,28 @@
+package org.folio.metrics;
+
+/**
+ * The stages of delivering a notification, with the module that does the work.
+ */
+public enum PipelineStage {
+  SAVE("save", "postgres"),
+  GET_EVENT_CONFIG("getEventConfig", "mod-event-config"),
+  POST_TEMPLATE_REQUEST("postTemplateRequest", "mod-template-engine"),
+  BUILD_NOTIFY_SEND_REQUEST("buildNotifySendRequest", "mod-notify"),
+  POST_MESSAGE_DELIVERY("postMessageDelivery", "mod-sender");
+
+  private final String stageName;
+  private final String downstream;
+
+  PipelineStage(String stageName, String downstream) {
+    this.stageName = stageName;
+    this.downstream = downstream;
+  }
+
+  public String getStageName() {
+    return stageName;
+  }
+
+  public String getDownstream() {
+    return downstream;
+  }
+}
@@ -0,0 +1,123 @@
+package org.folio.metrics;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import javax.ws.rs.core.Response;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+/**
+ * Times the {@link PipelineStage}s of one request. Every call of a stage is recorded in
+ * {@link PipelineMetrics}; for the {@code Server-Timing} header, a stage that is called
+ * several times (e.g. one template request per template, in parallel) counts from the start
+ * of its first to the end of its last call. Not thread-safe: use it on the request's
+ * Vert.x context only.
+ */
+public class PipelineTiming {
+  static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+  private final PipelineMetrics metrics;
+  private final String tenant;
+  private final long[] firstStart = new long[PipelineStage.values().length];
+  private final long[] lastEnd = new long[PipelineStage.values().length];
+  private final boolean[] called = new boolean[PipelineStage.values().length];
+
+  PipelineTiming(PipelineMetrics metrics, String tenant) {
+    this.metrics = metrics;
+    this.tenant = tenant;
+  }
+
+  /**
+   * Runs an asynchronous stage and records its duration when the future completes.
+   */
+  public <T> Future<T> time(PipelineStage stage, Supplier<Future<T>> call) {
+    long start = System.nanoTime();
+    Future<T> future;
+    try {
+      future = call.get();
+    } catch (RuntimeException e) {
+      record(stage, start, false);
+      return Future.failedFuture(e);
+    }
+    return future.onComplete(ar -> record(stage, start, ar.succeeded()));
+  }
+
+  /**
+   * Runs a synchronous stage and records its duration.
+   */
+  public <T> T measure(PipelineStage stage, Supplier<T> call) {
+    long start = System.nanoTime();
+    boolean succeeded = false;
+    try {
+      T result = call.get();
+      succeeded = true;
+      return result;
+    } finally {
+      record(stage, start, succeeded);
+    }
+  }
+
+  /**
+   * Records a stage that started at {@code start} ({@link System#nanoTime()}) and ends now,
+   * for callback based APIs.
+   */
+  public void record(PipelineStage stage, long start, boolean succeeded) {
+    long end = System.nanoTime();
+    metrics.record(stage, tenant, end - start, succeeded);
+    int i = stage.ordinal();
+    if (!called[i] || start < firstStart[i]) {
+      firstStart[i] = start;
+    }
+    if (!called[i] || end > lastEnd[i]) {
+      lastEnd[i] = end;
+    }
+    called[i] = true;
+  }
+
+  /**
+   * The durations of the stages so far, e.g.
+   * {@code save;dur=3.2;desc="postgres", getEventConfig;dur=12.5;desc="mod-event-config"}.
+   */
+  public String serverTiming() {
+    StringBuilder header = new StringBuilder(128);
+    for (PipelineStage stage : PipelineStage.values()) {
+      int i = stage.ordinal();
+      if (!called[i]) {
+        continue;
+      }
+      if (!header.isEmpty()) {
+        header.append(", ");
+      }
+      header.append(stage.getStageName())
+        .append(";dur=")
+        .append(String.format(Locale.ROOT, "%.1f", (lastEnd[i] - firstStart[i]) / 1e6))
+        .append(";desc=\"").append(stage.getDownstream()).append('"');
+    }
+    return header.toString();
+  }
+
+  /**
+   * Wraps the result handler so that the response gets a {@code Server-Timing} header, if
+   * enabled in {@link PipelineMetrics}.
+   */
+  public Handler<AsyncResult<Response>> withServerTiming(
+    Handler<AsyncResult<Response>> asyncResultHandler) {
+
+    if (!metrics.isServerTiming()) {
+      return asyncResultHandler;
+    }
+    return result -> {
+      String header = serverTiming();
+      if (result.failed() || result.result() == null || header.isEmpty()) {
+        asyncResultHandler.handle(result);
+        return;
+      }
+      asyncResultHandler.handle(Future.succeededFuture(Response.fromResponse(result.result())
+        .header(SERVER_TIMING_HEADER, header)
+        .build()));
+    };
+  }
+}
@@ -0,0 +1,36 @@
+package org.folio.rest.impl;
+
+import java.util.function.Consumer;
+
+import org.folio.cache.NotificationCache;
+import org.folio.metrics.MetricsServer;
+import org.folio.rest.resource.interfaces.InitAPI;
+import org.folio.subscription.ChangeFeed;
+import org.folio.subscription.ChangeFeed.Change;
+import org.folio.subscription.NotificationSubscriptions;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+public class InitApiImpl implements InitAPI {
+  private static final Consumer<Change> WAKE_SUBSCRIPTIONS = change -> NotificationSubscriptions
+    .getInstance().changed(change.tenant(), change.recipientId());
+  private static final Consumer<Change> INVALIDATE_CACHE = change -> NotificationCache
+    .getInstance().invalidate(change.tenant(), change.recipientId());
+
+  @Override
+  public void init(Vertx vertx, Context context, Handler<AsyncResult<Boolean>> handler) {
+    // the change feed reconnects in the background until the database is available
+    ChangeFeed changeFeed = ChangeFeed.getInstance();
+    changeFeed.addListener(INVALIDATE_CACHE);
+    changeFeed.addListener(WAKE_SUBSCRIPTIONS);
+    changeFeed.start(vertx);
+    // a metrics server that cannot start must not keep the module from starting
+    MetricsServer.startIfConfigured(vertx)
+      .<Boolean>transform(ar -> Future.succeededFuture(true))
+      .onComplete(handler);
+  }
+}
@@ -1,51 +1,93 @@
 package org.folio.rest.impl;
 
 import static io.vertx.core.Future.succeededFuture;
+import static org.folio.tracing.Tracing.traced;
+import static org.folio.tracing.Tracing.tracedDb;
+import static org.folio.util.BinaryJson.accepted;
+import static org.folio.util.BinaryJson.encoding;
+import static org.folio.util.HeaderUtil.header;
 import static org.folio.util.LogUtil.asJson;
-import static org.folio.util.LogUtil.headersAsString;
 import static org.folio.util.LogUtil.loggingResponseHandler;
+import static org.folio.util.LogUtil.redactedHeaders;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import javax.ws.rs.BadRequestException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import io.vertx.core.Future;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.folio.cache.NotificationCache;
+import org.folio.cache.NotificationCache.Page;
+import org.folio.cache.NotificationCache.Stamp;
 import org.folio.client.NoticesClient;
+import org.folio.client.UsersClient;
 import org.folio.cql2pgjson.CQL2PgJSON;
 import org.folio.cql2pgjson.exception.FieldException;
+import org.folio.dbschema.ObjectMapperTool;
 import org.folio.helper.OkapiModulesClientHelper;
+import org.folio.jfr.CqlTranslationEvent;
+import org.folio.jfr.JsonEvent;
+import org.folio.metrics.DbMetrics;
+import org.folio.metrics.DbOperation;
+import org.folio.metrics.EndpointMetrics;
+import org.folio.metrics.PipelineMetrics;
+import org.folio.metrics.PipelineStage;
+import org.folio.metrics.PipelineTiming;
 import org.folio.rest.RestVerticle;
 import org.folio.rest.annotations.Validate;
 import org.folio.rest.jaxrs.model.Errors;
 import org.folio.rest.jaxrs.model.Message;
+import org.folio.rest.jaxrs.model.Metadata;
 import org.folio.rest.jaxrs.model.Notification;
+import org.folio.rest.jaxrs.model.NotifyChanges;
 import org.folio.rest.jaxrs.model.NotifyCollection;
+import org.folio.rest.jaxrs.model.NotifyUsernamesRequest;
 import org.folio.rest.jaxrs.resource.Notify;
 import org.folio.rest.persist.PgUtil;
 import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.persist.cql.CQLWrapper;
-import org.folio.rest.tools.client.HttpClientFactory;
-import org.folio.rest.tools.client.interfaces.HttpClientInterface;
+import org.folio.rest.persist.interfaces.Results;
 import org.folio.rest.tools.messages.MessageConsts;
 import org.folio.rest.tools.messages.Messages;
+import org.folio.rest.tools.utils.MetadataUtil;
 import org.folio.rest.tools.utils.TenantTool;
 import org.folio.rest.tools.utils.ValidationHelper;
-import org.folio.util.StringUtil;
+import org.folio.subscription.ChangeFeed;
+import org.folio.subscription.NotificationSubscriptions;
+import org.folio.subscription.NotificationSubscriptions.Subscription;
+import org.folio.util.DeltaToken;
+import org.folio.util.JsonCollection;
 import org.folio.util.UuidUtil;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
 import io.vertx.core.Handler;
-import io.vertx.core.json.Json;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
 
 // We have a few repeated strings, which SQ complains about.
 @java.lang.SuppressWarnings({"squid:S1192"})
@@ -55,12 +97,28 @@ public class NotificationsResourceImpl implements Notify {
   private static final String NOTIFY_TABLE = "notify_data";
   private static final String LOCATION_PREFIX = "/notify/";
   private static final int DAYS_TO_KEEP_SEEN_NOTIFICATIONS = 365;
+  private static final String TOMBSTONE_TABLE = "notify_tombstone";
+  // tombstones older than this are pruned by notify_tombstone.sql
+  private static final int TOMBSTONE_DAYS = 30;
+  private static final int SETTLE_SECONDS = 5;
+  public static final String LIST_RAW_JSON = "LIST_RAW_JSON";
+  private static final boolean LIST_RAW_JSON_ENABLED = !"false".equalsIgnoreCase(
+    System.getProperty(LIST_RAW_JSON, System.getenv(LIST_RAW_JSON)));
 
   private final OkapiModulesClientHelper okapiModulesClientHelper = new OkapiModulesClientHelper();
+  private final EndpointMetrics endpointMetrics = EndpointMetrics.getInstance();
+  private final PipelineMetrics pipelineMetrics = PipelineMetrics.getInstance();
+  private final DbMetrics dbMetrics = DbMetrics.getInstance();
+  private final NotificationSubscriptions subscriptions = NotificationSubscriptions.getInstance();
+  private final ChangeFeed changeFeed = ChangeFeed.getInstance();
+  private final NotificationCache notificationCache = NotificationCache.getInstance();
 
   private CQLWrapper getCQL(String query, int limit, int offset) throws FieldException {
     log.debug("getCQL:: parameters query: {}, limit: {}, offset: {}", query, limit, offset);
-    return new CQLWrapper(new CQL2PgJSON(NOTIFY_TABLE + ".jsonb"), query, limit, offset);
+    CqlTranslationEvent event = CqlTranslationEvent.start();
+    CQLWrapper cql = new CQLWrapper(new CQL2PgJSON(NOTIFY_TABLE + ".jsonb"), query, limit, offset);
+    event.complete(cql);
+    return cql;
   }
 
   /**
@@ -94,10 +152,14 @@ public class NotificationsResourceImpl implements Notify {
 
     log.debug("getNotify:: parameters query: {}, offset: {}, limit: {}, lang: {}, " +
         "okapiHeaders: {}", () -> query, () -> offset, () -> limit, () -> lang,
-      () -> headersAsString(okapiHeaders));
+      () -> redactedHeaders(okapiHeaders));
+
+    Handler<AsyncResult<Response>> timedHandler = encoding(accepted(okapiHeaders),
+      endpointMetrics.timed("getNotify", okapiHeaders,
+        traced("getNotify", okapiHeaders, asyncResultHandler)));
 
     getNotifyBoth(false, query, offset, limit, okapiHeaders,
-      asyncResultHandler, vertxContext);
+      timedHandler, vertxContext);
   }
 
   @Override
@@ -109,10 +171,400 @@ public class NotificationsResourceImpl implements Notify {
 
     log.debug("getNotifyUserSelf:: parameters query: {}, offset: {}, limit: {}, lang: {}, " +
         "okapiHeaders: {}", () -> query, () -> offset, () -> limit, () -> lang,
-      () -> headersAsString(okapiHeaders));
+      () -> redactedHeaders(okapiHeaders));
+
+    String mediaType = accepted(okapiHeaders);
+    Handler<AsyncResult<Response>> timedHandler = encoding(mediaType,
+      endpointMetrics.timed("getNotifyUserSelf", okapiHeaders,
+        traced("getNotifyUserSelf", okapiHeaders, asyncResultHandler)));
+
+    String userId = okapiHeaders.get(RestVerticle.OKAPI_USERID_HEADER);
+    if (userId == null) {
+      getNotifyBoth(true, query, offset, limit, okapiHeaders, timedHandler, vertxContext);
+      return;
+    }
+    String tenant = TenantTool.tenantId(okapiHeaders);
+    // only the raw JSON lists can be cached
+    String pageKey = listRawJson() ? notificationCache.pageKey(query, offset, limit) : null;
+    Page cached = notificationCache.get(tenant, userId, pageKey);
+    if (cached != null) {
+      log.info("getNotifyUserSelf:: Cache hit");
+      String etag = etag(cached.version(), query, offset, limit, mediaType);
+      if (!respondedNotModified(etag, okapiHeaders, timedHandler)) {
+        loggingResponseHandler("getNotifyUserSelf", timedHandler, log).handle(succeededFuture(
+          Response.ok(cached.body(), MediaType.APPLICATION_JSON_TYPE)
+            .header(HttpHeaders.ETAG, etag)
+            .build()));
+      }
+      return;
+    }
+    Stamp stamp = pageKey == null ? null : notificationCache.stamp(tenant, userId);
+    selfVersion(userId, okapiHeaders, vertxContext).onComplete(version -> {
+      if (version.failed()) {
+        log.warn("getNotifyUserSelf:: Failed to get version, responding without ETag",
+          version.cause());
+        getNotifyBoth(true, query, offset, limit, okapiHeaders, timedHandler, vertxContext);
+        return;
+      }
+      String etag = etag(version.result(), query, offset, limit, mediaType);
+      if (respondedNotModified(etag, okapiHeaders, timedHandler)) {
+        return;
+      }
+      getNotifyBoth(true, query, offset, limit, okapiHeaders, result -> {
+        if (result.succeeded() && result.result().getStatus() == 200) {
+          if (result.result().getEntity() instanceof String body) {
+            notificationCache.put(stamp, pageKey, version.result(), body);
+          }
+          timedHandler.handle(succeededFuture(Response.fromResponse(result.result())
+            .header(HttpHeaders.ETAG, etag)
+            .build()));
+        } else {
+          timedHandler.handle(result);
+        }
+      }, vertxContext);
+    });
+  }
+
+  /**
+   * Responds 304 if the If-None-Match header lists the ETag of the user's notifications.
+   */
+  private boolean respondedNotModified(String etag, Map<String, String> okapiHeaders,
+    Handler<AsyncResult<Response>> timedHandler) {
+
+    if (!matches(header(okapiHeaders, HttpHeaders.IF_NONE_MATCH), etag)) {
+      return false;
+    }
+    log.info("getNotifyUserSelf:: Not modified since {}", etag);
+    loggingResponseHandler("getNotifyUserSelf", timedHandler, log).handle(succeededFuture(
+      Response.notModified().header(HttpHeaders.ETAG, etag).build()));
+    return true;
+  }
+
+  /**
+   * The number of notifications of the recipient and their latest metadata.updatedDate.
+   * Every POST, PUT and DELETE changes one of them, so they version the recipient's
+   * notifications, and reading them is much cheaper than the query with its count.
+   */
+  Future<String> selfVersion(String userId, Map<String, String> okapiHeaders,
+    Context vertxContext) {
+
+    CQLWrapper cql;
+    String sql;
+    try {
+      cql = getCQL("recipientId==\"" + userId + "\"", -1, -1);
+      sql = "SELECT count(*), max(jsonb->'metadata'->>'updatedDate') FROM "
+        + PostgresClient.convertToPsqlStandard(TenantTool.tenantId(okapiHeaders)) + "."
+        + NOTIFY_TABLE + " " + cql;
+    } catch (Exception e) {
+      return Future.failedFuture(e);
+    }
+    Promise<RowSet<Row>> rows = Promise.promise();
+    getPostgresClient(vertxContext, okapiHeaders).select(sql)
+      .onComplete(dbCall(DbOperation.SELECT, cql, okapiHeaders, rows::handle));
+    return rows.future().map(rowSet -> {
+      Row row = rowSet.iterator().next();
+      return row.getLong(0) + "|" + row.getString(1);
+    });
+  }
 
-    getNotifyBoth(true, query, offset, limit,
-      okapiHeaders, asyncResultHandler, vertxContext);
+  /**
+   * Weak ETag of a page of the recipient's notifications in the media type (null for JSON).
+   */
+  static String etag(String version, String query, int offset, int limit, String mediaType) {
+    String page = version + "|" + query + "|" + offset + "|" + limit + "|" + mediaType;
+    return "W/\"" + UUID.nameUUIDFromBytes(page.getBytes(StandardCharsets.UTF_8)) + "\"";
+  }
+
+  /**
+   * Whether the If-None-Match header lists the ETag, compared weakly.
+   */
+  static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    String opaqueTag = etag.substring(2);
+    for (String tag : ifNoneMatch.split(",")) {
+      String trimmed = tag.trim();
+      if ("*".equals(trimmed) || opaqueTag.equals(trimmed.startsWith("W/")
+        ? trimmed.substring(2) : trimmed)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  @Validate
+  public void getNotifyUserSelfChanges(String version, int timeout,
+    Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler,
+    Context vertxContext) {
+
+    log.debug("getNotifyUserSelfChanges:: parameters version: {}, timeout: {}, " +
+        "okapiHeaders: {}", () -> version, () -> timeout, () -> redactedHeaders(okapiHeaders));
+
+    Handler<AsyncResult<Response>> loggingResultHandler = loggingResponseHandler(
+      "getNotifyUserSelfChanges", endpointMetrics.timed("getNotifyUserSelfChanges", okapiHeaders,
+        traced("getNotifyUserSelfChanges", okapiHeaders, asyncResultHandler)), log);
+
+    String userId = okapiHeaders.get(RestVerticle.OKAPI_USERID_HEADER);
+    if (userId == null) {
+      log.warn("getNotifyUserSelfChanges:: No user id, cannot wait for changes");
+      loggingResultHandler.handle(succeededFuture(
+        GetNotifyUserSelfChangesResponse.respond400WithTextPlain("No UserId")));
+      return;
+    }
+    Supplier<Future<String>> read = () -> changesVersion(userId, okapiHeaders, vertxContext);
+    read.get()
+      .compose(current -> current.equals(version) && timeout > 0
+        ? waitForChange(userId, timeout, read, version::equals, okapiHeaders, vertxContext)
+        : succeededFuture(current))
+      .onComplete(current -> {
+        if (current.failed()) {
+          log.warn("getNotifyUserSelfChanges:: Failed to get version", current.cause());
+          ValidationHelper.handleError(current.cause(), loggingResultHandler);
+        } else if (current.result().equals(version)) {
+          loggingResultHandler.handle(succeededFuture(
+            GetNotifyUserSelfChangesResponse.respond204()));
+        } else {
+          loggingResultHandler.handle(succeededFuture(
+            GetNotifyUserSelfChangesResponse.respond200WithTextPlain(current.result())));
+        }
+      });
+  }
+
+  @Override
+  @Validate
+  public void getNotifyUserSelfDelta(String since, int limit, int timeout,
+    Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler,
+    Context vertxContext) {
+
+    log.debug("getNotifyUserSelfDelta:: parameters since: {}, limit: {}, timeout: {}, " +
+        "okapiHeaders: {}", () -> since, () -> limit, () -> timeout,
+      () -> redactedHeaders(okapiHeaders));
+
+    Handler<AsyncResult<Response>> loggingResultHandler = loggingResponseHandler(
+      "getNotifyUserSelfDelta", endpointMetrics.timed("getNotifyUserSelfDelta", okapiHeaders,
+        traced("getNotifyUserSelfDelta", okapiHeaders, asyncResultHandler)), log);
+
+    String userId = okapiHeaders.get(RestVerticle.OKAPI_USERID_HEADER);
+    if (userId == null) {
+      log.warn("getNotifyUserSelfDelta:: No user id, cannot get changes");
+      loggingResultHandler.handle(succeededFuture(
+        GetNotifyUserSelfDeltaResponse.respond400WithTextPlain("No UserId")));
+      return;
+    }
+    DeltaToken token;
+    try {
+      token = DeltaToken.parse(since);
+    } catch (IllegalArgumentException e) {
+      log.warn("getNotifyUserSelfDelta:: Invalid token: {}", since, e);
+      loggingResultHandler.handle(succeededFuture(GetNotifyUserSelfDeltaResponse
+        .respond400WithTextPlain("Invalid since token: " + since)));
+      return;
+    }
+    if (token.isExpired(OffsetDateTime.now().minusDays(TOMBSTONE_DAYS))) {
+      log.info("getNotifyUserSelfDelta:: Token expired: {}", token);
+      loggingResultHandler.handle(succeededFuture(GetNotifyUserSelfDeltaResponse
+        .respond410WithTextPlain("Token expired, get all notifications with since=0")));
+      return;
+    }
+    // only waits while the changes read are none or all returned before
+    Supplier<Future<Delta>> read = () -> delta(userId, token, limit, okapiHeaders,
+      vertxContext);
+    Predicate<Delta> unchanged = delta -> !delta.isNew();
+    read.get()
+      .compose(delta -> unchanged.test(delta) && timeout > 0
+        ? waitForChange(userId, timeout, read, unchanged, okapiHeaders, vertxContext)
+        : succeededFuture(delta))
+      .onComplete(delta -> {
+        if (delta.failed()) {
+          log.warn("getNotifyUserSelfDelta:: Failed to get changes", delta.cause());
+          ValidationHelper.handleError(delta.cause(), loggingResultHandler);
+          return;
+        }
+        NotifyChanges changes = delta.result().changes();
+        log.info("getNotifyUserSelfDelta:: {} changed and {} deleted notifications",
+          () -> changes.getNotifications().size(), () -> changes.getDeletedIds().size());
+        loggingResultHandler.handle(succeededFuture(GetNotifyUserSelfDeltaResponse
+          .respond200WithApplicationJson(changes)));
+      });
+  }
+
+  /**
+   * Waits until the recipient's notifications change or the timeout passes, and returns
+   * what the read returns then. It reads again after subscribing, so that a change between
+   * the caller's read and the subscription is not missed.
+   */
+  private <T> Future<T> waitForChange(String userId, int timeout, Supplier<Future<T>> read,
+    Predicate<T> unchanged, Map<String, String> okapiHeaders, Context vertxContext) {
+
+    Subscription subscription = subscriptions.subscribe(vertxContext,
+      TenantTool.tenantId(okapiHeaders), userId, TimeUnit.SECONDS.toMillis(timeout));
+    return read.get()
+      .compose(current -> {
+        if (!unchanged.test(current)) {
+          subscription.cancel();
+          return succeededFuture(current);
+        }
+        return subscription.future().compose(changed -> Boolean.TRUE.equals(changed)
+          ? read.get() : succeededFuture(current));
+      })
+      .onFailure(e -> subscription.cancel());
+  }
+
+  /**
+   * The {@link #selfVersion} of the recipient's notifications as opaque token.
+   */
+  private Future<String> changesVersion(String userId, Map<String, String> okapiHeaders,
+    Context vertxContext) {
+
+    return selfVersion(userId, okapiHeaders, vertxContext).map(version ->
+      UUID.nameUUIDFromBytes(version.getBytes(StandardCharsets.UTF_8)).toString());
+  }
+
+  /**
+   * The changes read by {@link #delta}, and whether any of them has not been returned before.
+   */
+  private record Delta(NotifyChanges changes, boolean isNew) {
+  }
+
+  /**
+   * The notifications of the recipient created or updated since the token, oldest first and
+   * at most limit, the IDs of those deleted since, and the next token. The position of the
+   * next token stays {@value #SETTLE_SECONDS} seconds behind the database clock and the clock
+   * of the module instances that set {@code metadata.updatedDate}, so that changes committed
+   * late are not skipped; the changes since then are returned again by the next call, but are
+   * only new if they are after the returned marks of the token.
+   */
+  private Future<Delta> delta(String userId, DeltaToken since, int limit,
+    Map<String, String> okapiHeaders, Context vertxContext) {
+
+    DeltaToken settled = new DeltaToken(metadataDate(
+      new Date(System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(SETTLE_SECONDS))), "",
+      null);
+    CQLWrapper cql;
+    try {
+      cql = getCQL(deltaQuery(userId, since), limit, 0);
+    } catch (Exception e) {
+      return Future.failedFuture(e);
+    }
+    Promise<Results<Notification>> notifications = Promise.promise();
+    getPostgresClient(vertxContext, okapiHeaders)
+      .get(NOTIFY_TABLE, Notification.class, new String[]{"*"}, cql, false, false,
+        dbCall(DbOperation.SELECT, cql, okapiHeaders, notifications::handle));
+    return notifications.future()
+      .compose(results -> tombstones(userId, since, okapiHeaders, vertxContext)
+        .map(row -> {
+          List<Notification> changed = results.getResults();
+          DeltaToken lastPosition = null;
+          if (!changed.isEmpty()) {
+            Notification last = changed.get(changed.size() - 1);
+            lastPosition = new DeltaToken(metadataDate(last.getMetadata().getUpdatedDate()),
+              last.getId(), null);
+          }
+          DeltaToken next = settled;
+          if (changed.size() == limit) {
+            next = lastPosition.min(settled);
+            if (!next.isAfter(since)) { // more than limit changes within the settle time
+              next = lastPosition;
+            }
+          } else if (!next.isAfter(since)) {
+            next = since;
+          }
+          OffsetDateTime deletedDate = row.getOffsetDateTime(1);
+          if (since.deletedDate() != null && since.deletedDate().isAfter(deletedDate)) {
+            deletedDate = since.deletedDate();
+          }
+          OffsetDateTime lastDeletedDate = row.getOffsetDateTime(2);
+          boolean isNew = lastPosition != null && since.isNew(lastPosition)
+            || since.isNewDeletion(lastDeletedDate);
+          return new Delta(new NotifyChanges()
+            .withNotifications(changed)
+            .withDeletedIds(Arrays.asList(row.getArrayOfStrings(0)))
+            .withNextToken(since.next(next, deletedDate, lastPosition, lastDeletedDate)
+              .encode()), isNew);
+      }));
+  }
+
+  /**
+   * The CQL query of the recipient's notifications after the position of the token.
+   */
+  static String deltaQuery(String userId, DeltaToken since) {
+    String query = "recipientId==\"" + userId + "\"";
+    String date = since.updatedDate();
+    if (!date.isEmpty()) {
+      query += since.id().isEmpty()
+        ? " and metadata.updatedDate>=\"" + date + "\""
+        : " and (metadata.updatedDate>\"" + date + "\" or (metadata.updatedDate==\"" + date
+          + "\" and id>\"" + since.id() + "\"))";
+    }
+    return query + " sortBy metadata.updatedDate/sort.ascending id/sort.ascending";
+  }
+
+  /**
+   * One row with the IDs of the recipient's tombstones since the token, none for a token
+   * without deleted date, the database time {@value #SETTLE_SECONDS} seconds ago, and the
+   * deleted date of the last tombstone, null for none.
+   */
+  private Future<Row> tombstones(String userId, DeltaToken since,
+    Map<String, String> okapiHeaders, Context vertxContext) {
+
+    String table = PostgresClient.convertToPsqlStandard(TenantTool.tenantId(okapiHeaders))
+      + "." + TOMBSTONE_TABLE;
+    Promise<RowSet<Row>> rows = Promise.promise();
+    getPostgresClient(vertxContext, okapiHeaders)
+      .select("WITH t AS (SELECT id, deleted_date FROM " + table
+          + " WHERE recipient_id = lower($1) AND deleted_date > coalesce($2::timestamptz,"
+          + " 'infinity')) SELECT array(SELECT id::text FROM t ORDER BY deleted_date),"
+          + " now() - interval '" + SETTLE_SECONDS + " seconds',"
+          + " (SELECT max(deleted_date) FROM t)",
+        Tuple.of(userId, since.deletedDate()))
+      .onComplete(dbMetrics.timed(DbOperation.SELECT, TOMBSTONE_TABLE, null, okapiHeaders,
+        tracedDb(DbOperation.SELECT + " " + TOMBSTONE_TABLE, okapiHeaders, rows::handle)));
+    return rows.future().map(rowSet -> rowSet.iterator().next());
+  }
+
+  /**
+   * The date as RMB writes it into {@code metadata}.
+   */
+  static String metadataDate(Date date) {
+    return ObjectMapperTool.getMapper().valueToTree(new Metadata().withUpdatedDate(date))
+      .get("updatedDate").asText();
+  }
+
+  /**
+   * Drops the cached pages of the recipient and passes the change to the change feed, which
+   * dispatches it at once if it will not arrive through the database. If the recipient is
+   * not known, the pages of all recipients of the tenant are dropped.
+   */
+  private void publishChange(String operation, Map<String, String> okapiHeaders,
+    String recipientId) {
+
+    String tenant = TenantTool.tenantId(okapiHeaders);
+    if (recipientId == null) {
+      notificationCache.invalidate(tenant);
+      return;
+    }
+    String recipientKey = ChangeFeed.recipientKey(recipientId);
+    notificationCache.invalidate(tenant, recipientKey);
+    changeFeed.localChange(operation, tenant, recipientKey);
+  }
+
+  /**
+   * The recipient IDs in the first column of the rows returned by a write, null for a row
+   * without.
+   */
+  static List<String> recipientIds(RowSet<Row> rows) {
+    List<String> recipientIds = new ArrayList<>();
+    for (Row row : rows) {
+      recipientIds.add(row.getString(0));
+    }
+    return recipientIds;
+  }
+
+  private static String notifyTable(Map<String, String> okapiHeaders) {
+    return PostgresClient.convertToPsqlStandard(TenantTool.tenantId(okapiHeaders)) + "."
+      + NOTIFY_TABLE;
   }
 
   /**
@@ -129,7 +581,7 @@ public class NotificationsResourceImpl implements Notify {
 
     String queryParameter = query;
     log.debug("selfGetQuery:: parameters query: {}, okapiHeaders: {}", () -> queryParameter,
-      () -> headersAsString(okapiHeaders));
+      () -> redactedHeaders(okapiHeaders));
 
     Handler<AsyncResult<Response>> loggingResponseHandler =
       loggingResponseHandler("selfGetQuery", asyncResultHandler, log);
@@ -162,7 +614,7 @@ public class NotificationsResourceImpl implements Notify {
     String queryParameter = query;
     log.debug("getNotifyBoth:: parameters self: {}, query: {}, offset: {}, limit: {}, " +
         "okapiHeaders: {}", () -> self, () -> queryParameter, () -> offset, () -> limit,
-      () -> headersAsString(okapiHeaders));
+      () -> redactedHeaders(okapiHeaders));
 
     CQLWrapper cql = null;
     try {
@@ -179,10 +631,15 @@ public class NotificationsResourceImpl implements Notify {
       log.warn("getNotifyBoth:: Failed to create CQL query", e);
       ValidationHelper.handleError(e, asyncResultHandler);
     }
+    if (cql != null && listRawJson()) {
+      getNotifyRawJson(query, cql, offset, limit, okapiHeaders, asyncResultHandler,
+        vertxContext);
+      return;
+    }
     getPostgresClient(vertxContext, okapiHeaders)
       .get(NOTIFY_TABLE, Notification.class, new String[]{"*"}, cql,
         true /*get count too*/, false /* set id */,
-        reply -> {
+        dbCall(DbOperation.SELECT, cql, okapiHeaders, reply -> {
           if (reply.succeeded()) {
             log.info("getNotifyBoth:: Succeeded to get notifications");
             NotifyCollection notes = new NotifyCollection();
@@ -198,26 +655,116 @@ public class NotificationsResourceImpl implements Notify {
             log.warn("getNotifyBoth:: Failed to get notifications", reply.cause());
             ValidationHelper.handleError(reply.cause(), asyncResultHandler);
           }
-        });
+      }));
   }
 
-  HttpClientInterface getHttpClient(String okapiURL, String tenantId) {
-    log.debug("getHttpClient:: parameters okapiURL: {}, tenantId: {}", okapiURL, tenantId);
-    return HttpClientFactory.getHttpClient(okapiURL, tenantId);
+  /**
+   * Fast path of {@link #getNotifyBoth}: writes the jsonb text of the rows straight into the
+   * collection response, without mapping them to {@link Notification}s and serializing
+   * those again. Like RMB, totalRecords is exact if the page is not full, and estimated by
+   * the count_estimate function of the tenant schema otherwise.
+   */
+  @java.lang.SuppressWarnings({"squid:S00107"}) // 7 parameters
+  private void getNotifyRawJson(String query, CQLWrapper cql, int offset, int limit,
+    Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler,
+    Context vertxContext) {
+
+    PostgresClient postgresClient = getPostgresClient(vertxContext, okapiHeaders);
+    String schema = PostgresClient.convertToPsqlStandard(TenantTool.tenantId(okapiHeaders));
+    String table = schema + "." + NOTIFY_TABLE;
+    String sql;
+    try {
+      sql = "SELECT jsonb::text FROM " + table + " " + cql;
+    } catch (Exception e) { // CQLWrapper translates the query when it is used
+      log.warn("getNotifyRawJson:: Failed to translate CQL query", e);
+      ValidationHelper.handleError(e, asyncResultHandler);
+      return;
+    }
+    List<String> notifications = new ArrayList<>();
+    Promise<RowSet<Row>> rows = Promise.promise();
+    postgresClient.select(sql)
+      .onComplete(dbCall(DbOperation.SELECT, cql, okapiHeaders, rows::handle));
+    rows.future()
+      .compose(rowSet -> {
+        rowSet.forEach(row -> notifications.add(row.getString(0)));
+        int count = notifications.size();
+        if (count < limit && (count > 0 || offset == 0)) {
+          return succeededFuture(offset + count);
+        }
+        CQLWrapper countCql;
+        try {
+          countCql = getCQL(query, -1, -1);
+        } catch (FieldException e) {
+          return Future.<Integer>failedFuture(e);
+        }
+        Promise<RowSet<Row>> estimate = Promise.promise();
+        postgresClient.select("SELECT " + schema + ".count_estimate($1)",
+            Tuple.of("SELECT jsonb FROM " + table + " " + countCql))
+          .onComplete(dbCall(DbOperation.SELECT, countCql, okapiHeaders, estimate::handle));
+        return estimate.future()
+          .map(rowSet -> rowSet.iterator().next().getLong(0).intValue());
+      })
+      .onComplete(totalRecords -> {
+        if (totalRecords.succeeded()) {
+          log.info("getNotifyRawJson:: Succeeded to get {} notifications", notifications::size);
+          loggingResponseHandler("getNotifyBoth", asyncResultHandler, log).handle(
+            succeededFuture(Response.ok(JsonCollection.of("notifications", notifications,
+              totalRecords.result()), MediaType.APPLICATION_JSON_TYPE).build()));
+        } else {
+          log.warn("getNotifyRawJson:: Failed to get notifications", totalRecords.cause());
+          ValidationHelper.handleError(totalRecords.cause(), asyncResultHandler);
+        }
+      });
+  }
+
+  /**
+   * Whether the lists are written from the jsonb text of the rows, see
+   * {@value #LIST_RAW_JSON}.
+   */
+  boolean listRawJson() {
+    return LIST_RAW_JSON_ENABLED;
+  }
+
+  /**
+   * Times and traces a database call on {@value #NOTIFY_TABLE}, filtered by the CQL query
+   * if any, and logs it if slow.
+   */
+  private <T> Handler<AsyncResult<T>> dbCall(DbOperation operation, CQLWrapper cql,
+    Map<String, String> okapiHeaders, Handler<AsyncResult<T>> handler) {
+
+    return dbMetrics.timed(operation, NOTIFY_TABLE, cql, okapiHeaders,
+      tracedDb(operation + " " + NOTIFY_TABLE, okapiHeaders, handler));
+  }
+
+  /**
+   * Times and traces a database call on the {@value #NOTIFY_TABLE} row with the ID, and
+   * logs it if slow.
+   */
+  private <T> Handler<AsyncResult<T>> dbCallById(DbOperation operation, String id,
+    Map<String, String> okapiHeaders, Handler<AsyncResult<T>> handler) {
+
+    return dbMetrics.timedById(operation, NOTIFY_TABLE, id, okapiHeaders,
+      tracedDb(operation + " " + NOTIFY_TABLE, okapiHeaders, handler));
   }
 
   PostgresClient getPostgresClient(Context context, Map<String, String> okapiHeaders) {
     log.debug("getPostgresClient:: parameters okapiHeaders: {}",
-      () -> headersAsString(okapiHeaders));
+      () -> redactedHeaders(okapiHeaders));
     return PgUtil.postgresClient(context, okapiHeaders);
   }
 
   NoticesClient makeNoticesClient(Context context, Map<String, String> okapiHeaders) {
     log.debug("makeNoticesClient:: parameters okapiHeaders: {}",
-      () -> headersAsString(okapiHeaders));
+      () -> redactedHeaders(okapiHeaders));
     return new NoticesClient(context.owner(), okapiHeaders);
   }
 
+  UsersClient makeUsersClient(Context context, Map<String, String> okapiHeaders) {
+    log.debug("makeUsersClient:: parameters okapiHeaders: {}",
+      () -> redactedHeaders(okapiHeaders));
+    return new UsersClient(context.owner(), okapiHeaders);
+  }
+
   @Override
   @Validate
   public void postNotifyUsernameByUsername(String userName, String lang, Notification notification,
@@ -225,43 +772,44 @@ public class NotificationsResourceImpl implements Notify {
     Context vertxContext) {
 
     log.debug("postNotifyUsernameByUsername:: parameters lang: {}, okapiHeaders: {}",
-      () -> lang, () -> headersAsString(okapiHeaders));
-
-    String tenantId = TenantTool.calculateTenantId(
-      okapiHeaders.get(RestVerticle.OKAPI_HEADER_TENANT));
-    String okapiURL = okapiHeaders.get("X-Okapi-Url");
-    HttpClientInterface client = getHttpClient(okapiURL, tenantId);
-    String cql = userName == null ? "" : userName;
-    // mask special CQL characters: \ " * ? ^
-    cql.replace("\\", "\\\\").replace("\"", "\\\"").replace("*", "\\*").replace("?", "\\?").replace("^", "\\^");
-    cql = "username==\"" + cql + "\"";
-    String url = "/users?query=" + StringUtil.urlEncode(cql);
-    try {
-      log.debug("postNotifyUsernameByUsername:: Looking up user: {}", url);
-      client.request(url, okapiHeaders)
-        .whenComplete((resp, ex) -> handleLookupUserResponse(resp, notification, okapiHeaders,
-          asyncResultHandler, userName, vertxContext, lang));
-    } catch (Exception e) {
-      log.warn("postNotifyUsernameByUsername:: Failed to fetch users", e);
-      ValidationHelper.handleError(e, asyncResultHandler);
-    }
+      () -> lang, () -> redactedHeaders(okapiHeaders));
+
+    Handler<AsyncResult<Response>> timedHandler = endpointMetrics.timed(
+      "postNotifyUsernameByUsername", okapiHeaders,
+      traced("postNotifyUsernameByUsername", okapiHeaders, asyncResultHandler));
+
+    log.debug("postNotifyUsernameByUsername:: Looking up user: {}", userName);
+    makeUsersClient(vertxContext, okapiHeaders)
+      .getUsersByUsername(userName)
+      .onComplete(ar -> {
+        if (ar.succeeded()) {
+          handleLookupUserResponse(ar.result(), notification, okapiHeaders,
+            timedHandler, userName, vertxContext, lang);
+        } else {
+          log.warn("postNotifyUsernameByUsername:: Failed to fetch users", ar.cause());
+          ValidationHelper.handleError(ar.cause(), timedHandler);
+        }
+      });
   }
 
-  private void handleLookupUserResponse(org.folio.rest.tools.client.Response resp,
+  private void handleLookupUserResponse(HttpResponse<Buffer> resp,
     Notification notification, Map<String, String> okapiHeaders,
     Handler<AsyncResult<Response>> asyncResultHandler, String userName, Context vertxContext,
     String lang) {
 
     log.debug("handleLookupUserResponse:: parameters resp.code: {}, okapiHeaders: {}, lang: {}",
-      resp::getCode, () -> headersAsString(okapiHeaders), () -> lang);
+      resp::statusCode, () -> redactedHeaders(okapiHeaders), () -> lang);
 
     Handler<AsyncResult<Response>> loggingResultHandler = loggingResponseHandler(
       "handleLookupUserResponse", asyncResultHandler, log);
 
-    switch (resp.getCode()) {
+    switch (resp.statusCode()) {
       case 200:
         log.debug("handleLookupUserResponse:: Received user lookup response");
-        JsonObject userResp = resp.getBody();
+        JsonEvent jsonEvent = JsonEvent.start();
+        JsonObject userResp = resp.bodyAsJsonObject();
+        jsonEvent.complete(okapiHeaders, JsonEvent.DESERIALIZE, JsonObject.class,
+          resp.body() == null ? 0 : resp.body().length());
         if (userResp.getInteger("totalRecords", 0) > 0) {
           if (userResp.containsKey("users")
             && !userResp.getJsonArray("users").isEmpty()
@@ -270,7 +818,7 @@ public class NotificationsResourceImpl implements Notify {
             log.info("handleLookupUserResponse:: User lookup succeeded");
             String id = userResp.getJsonArray("users").getJsonObject(0).getString("id");
             notification.setRecipientId(id);
-            postNotify(lang, notification, okapiHeaders, loggingResultHandler, vertxContext);
+            saveNotification(notification, okapiHeaders, loggingResultHandler, vertxContext);
           } else {
             log.warn("handleLookupUserResponse:: User lookup failed. Bad response");
             loggingResultHandler.handle(succeededFuture(PostNotifyUsernameByUsernameResponse
@@ -288,10 +836,10 @@ public class NotificationsResourceImpl implements Notify {
         log.warn("handleLookupUserResponse:: Insufficient permissions (403). User lookup failed");
         loggingResultHandler.handle(succeededFuture(PostNotifyUsernameByUsernameResponse
           .respond400WithTextPlain("User lookup failed with 403. " + userName
-            + " " + Json.encode(resp.getError()))));
+            + " " + resp.bodyAsString())));
         break;
       default:
-        log.warn("handleLookupUserResponse:: User lookup failed with {} code", resp::getCode);
+        log.warn("handleLookupUserResponse:: User lookup failed with {} code", resp::statusCode);
         loggingResultHandler.handle(succeededFuture(PostNotifyUsernameByUsernameResponse
           .respond500WithTextPlain(internalErrorMsg(null, lang))));
         break;
@@ -304,10 +852,25 @@ public class NotificationsResourceImpl implements Notify {
     Handler<AsyncResult<Response>> asyncResultHandler, Context context) {
 
     log.debug("postNotify:: parameters lang: {}, okapiHeaders: {}",
-      () -> lang, () -> headersAsString(okapiHeaders));
+      () -> lang, () -> redactedHeaders(okapiHeaders));
+
+    Handler<AsyncResult<Response>> timedHandler = encoding(accepted(okapiHeaders),
+      endpointMetrics.timed("postNotify", okapiHeaders,
+        traced("postNotify", okapiHeaders, asyncResultHandler)));
+
+    saveNotification(entity, okapiHeaders, timedHandler, context);
+  }
+
+  /**
+   * Helper to store the notification and to deliver it if it has an event config, for the
+   * endpoints that post one notification; they time and trace the request themselves.
+   */
+  void saveNotification(Notification entity, Map<String, String> okapiHeaders,
+    Handler<AsyncResult<Response>> asyncResultHandler, Context context) {
 
+    PipelineTiming timing = pipelineMetrics.start(okapiHeaders);
     Handler<AsyncResult<Response>> loggingResultHandler = loggingResponseHandler(
-      "postNotify", asyncResultHandler, log);
+      "postNotify", timing.withServerTiming(asyncResultHandler), log);
 
     String recip = entity.getRecipientId();
     if (recip == null || recip.isEmpty()) {
@@ -325,10 +888,13 @@ public class NotificationsResourceImpl implements Notify {
     if (respond422IfIdIsNotValid(id, loggingResultHandler)) {
       return;
     }
+    long saveStart = System.nanoTime();
     getPostgresClient(context, okapiHeaders).save(NOTIFY_TABLE, id, entity,
-      reply -> {
+      dbCallById(DbOperation.INSERT, id, okapiHeaders, reply -> {
+        timing.record(PipelineStage.SAVE, saveStart, reply.succeeded());
         if (reply.succeeded()) {
           log.info("postNotify:: Notification saved");
+          publishChange(ChangeFeed.INSERT, okapiHeaders, recip);
           if (entity.getEventConfigName() == null) {
             log.info("postNotify:: Event config name is null, sending notification");
             String ret = reply.result();
@@ -339,21 +905,11 @@ public class NotificationsResourceImpl implements Notify {
           } else {
             NoticesClient client = makeNoticesClient(context, okapiHeaders);
 
-            client.getEventConfig(entity.getEventConfigName())
-              .compose(eventEntity -> Future.all(eventEntity.getTemplates().stream()
-                .map(template -> client.postTemplateRequest(
-                  okapiModulesClientHelper.buildTemplateProcessingRequest(template, entity))
-                  .map(result -> new Message()
-                    .withHeader(result.getResult().getHeader())
-                    .withBody(result.getResult().getBody())
-                    .withDeliveryChannel(template.getDeliveryChannel())
-                    .withOutputFormat(template.getOutputFormat())))
-                .toList()))
-              .map(results -> okapiModulesClientHelper.buildNotifySendRequest(results.list()
-                .stream()
-                .map(o -> (Message) o)
-                .toList(), entity))
-              .compose(client::postMessageDelivery)
+            buildMessages(client, entity, timing)
+              .map(messages -> timing.measure(PipelineStage.BUILD_NOTIFY_SEND_REQUEST,
+                () -> okapiModulesClientHelper.buildNotifySendRequest(messages, entity)))
+              .compose(request -> timing.time(PipelineStage.POST_MESSAGE_DELIVERY,
+                () -> client.postMessageDelivery(request)))
               .onComplete(event -> {
                 if (event.succeeded()) {
                   log.info("postNotify:: Notification sent");
@@ -373,9 +929,165 @@ public class NotificationsResourceImpl implements Notify {
           log.warn("postNotify:: Failed to save notification", reply.cause());
           ValidationHelper.handleError(reply.cause(), loggingResultHandler);
         }
+      }));
+  }
+
+  /**
+   * Helper to process the templates of the notification's event config into messages.
+   */
+  private Future<List<Message>> buildMessages(NoticesClient client, Notification entity,
+    PipelineTiming timing) {
+
+    return timing.time(PipelineStage.GET_EVENT_CONFIG,
+        () -> client.getEventConfig(entity.getEventConfigName()))
+      .compose(eventEntity -> Future.all(eventEntity.getTemplates().stream()
+        .map(template -> timing.time(PipelineStage.POST_TEMPLATE_REQUEST,
+            () -> client.postTemplateRequest(
+              okapiModulesClientHelper.buildTemplateProcessingRequest(template, entity)))
+          .map(result -> new Message()
+            .withHeader(result.getResult().getHeader())
+            .withBody(result.getResult().getBody())
+            .withDeliveryChannel(template.getDeliveryChannel())
+            .withOutputFormat(template.getOutputFormat())))
+        .toList()))
+      .map(results -> results.list()
+        .stream()
+        .map(o -> (Message) o)
+        .toList());
+  }
+
+  @Override
+  @Validate
+  public void postNotifyUsernames(String lang, NotifyUsernamesRequest entity,
+    Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler,
+    Context vertxContext) {
+
+    log.debug("postNotifyUsernames:: parameters lang: {}, usernames: {}, okapiHeaders: {}",
+      () -> lang, () -> asJson(entity.getUsernames()), () -> redactedHeaders(okapiHeaders));
+
+    Handler<AsyncResult<Response>> timedHandler = endpointMetrics.timed(
+      "postNotifyUsernames", okapiHeaders,
+      traced("postNotifyUsernames", okapiHeaders, asyncResultHandler));
+
+    PipelineTiming timing = pipelineMetrics.start(okapiHeaders);
+    Handler<AsyncResult<Response>> loggingResultHandler = loggingResponseHandler(
+      "postNotifyUsernames", timing.withServerTiming(timedHandler), log);
+
+    makeUsersClient(vertxContext, okapiHeaders)
+      .getUserIdsByUsernames(entity.getUsernames())
+      .onComplete(ar -> {
+        if (ar.failed()) {
+          log.warn("postNotifyUsernames:: User lookup failed", ar.cause());
+          loggingResultHandler.handle(succeededFuture(PostNotifyUsernamesResponse
+            .respond500WithTextPlain(internalErrorMsg(null, lang))));
+          return;
+        }
+        Map<String, String> userIds = ar.result();
+        List<String> unknownUsernames = entity.getUsernames().stream()
+          .filter(username -> !userIds.containsKey(UsersClient.usernameKey(username)))
+          .distinct()
+          .toList();
+        if (!unknownUsernames.isEmpty()) {
+          log.warn("postNotifyUsernames:: Can not find users {}", unknownUsernames);
+          loggingResultHandler.handle(succeededFuture(PostNotifyUsernamesResponse
+            .respond400WithTextPlain("User lookup failed. Can not find users "
+              + String.join(", ", unknownUsernames))));
+          return;
+        }
+        List<Notification> notifications;
+        try {
+          notifications = copyForRecipients(entity.getNotification(),
+            entity.getUsernames().stream()
+              .map(username -> userIds.get(UsersClient.usernameKey(username)))
+              .distinct()
+              .toList(),
+            okapiHeaders);
+        } catch (Exception e) {
+          log.warn("postNotifyUsernames:: Failed to prepare notifications", e);
+          ValidationHelper.handleError(e, loggingResultHandler);
+          return;
+        }
+        saveAndSendNotifications(notifications, okapiHeaders, loggingResultHandler, vertxContext,
+          timing);
       });
   }
 
+  /**
+   * Helper to make one copy of the notification for each recipient, with fresh ids.
+   */
+  private List<Notification> copyForRecipients(Notification notification,
+    List<String> recipientIds, Map<String, String> okapiHeaders)
+    throws ReflectiveOperationException {
+
+    MetadataUtil.populateMetadata(notification, okapiHeaders);
+    ObjectMapper mapper = ObjectMapperTool.getMapper();
+    return recipientIds.stream()
+      .map(recipientId -> mapper.convertValue(notification, Notification.class)
+        .withId(UUID.randomUUID().toString())
+        .withRecipientId(recipientId))
+      .toList();
+  }
+
+  /**
+   * Helper to store the notifications with one batch insert, and to deliver them
+   * if they have an event config. The templates are processed only once, since all
+   * copies share the same context.
+   */
+  private void saveAndSendNotifications(List<Notification> notifications,
+    Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler,
+    Context context, PipelineTiming timing) {
+
+    log.debug("saveAndSendNotifications:: parameters notifications: {}", notifications::size);
+
+    NotifyCollection collection = new NotifyCollection()
+      .withNotifications(notifications)
+      .withTotalRecords(notifications.size());
+    List<Object> batch = new ArrayList<>(notifications);
+    long saveStart = System.nanoTime();
+    getPostgresClient(context, okapiHeaders).saveBatch(NOTIFY_TABLE, batch,
+      dbCall(DbOperation.INSERT, null, okapiHeaders, reply -> {
+        timing.record(PipelineStage.SAVE, saveStart, reply.succeeded());
+        if (reply.failed()) {
+          log.warn("saveAndSendNotifications:: Failed to save notifications", reply.cause());
+          ValidationHelper.handleError(reply.cause(), asyncResultHandler);
+          return;
+        }
+        log.info("saveAndSendNotifications:: {} notifications saved", notifications.size());
+        notifications.forEach(notification -> publishChange(ChangeFeed.INSERT, okapiHeaders,
+          notification.getRecipientId()));
+        Notification first = notifications.get(0);
+        if (first.getEventConfigName() == null) {
+          asyncResultHandler.handle(succeededFuture(PostNotifyUsernamesResponse
+            .respond201WithApplicationJson(collection)));
+          return;
+        }
+        NoticesClient client = makeNoticesClient(context, okapiHeaders);
+        buildMessages(client, first, timing)
+          .compose(messages -> Future.all(notifications.stream()
+            .map(notification -> timing.measure(PipelineStage.BUILD_NOTIFY_SEND_REQUEST,
+              () -> okapiModulesClientHelper.buildNotifySendRequest(messages, notification)))
+            .map(request -> timing.time(PipelineStage.POST_MESSAGE_DELIVERY,
+              () -> client.postMessageDelivery(request)))
+            .toList()))
+          .onComplete(event -> {
+            if (event.succeeded()) {
+              log.info("saveAndSendNotifications:: Notifications sent");
+              asyncResultHandler.handle(succeededFuture(PostNotifyUsernamesResponse
+                .respond201WithApplicationJson(collection)));
+            } else if (event.cause().getClass() == BadRequestException.class) {
+              log.warn("saveAndSendNotifications:: Failed to send notifications (Bad request)",
+                event.cause());
+              asyncResultHandler.handle(succeededFuture(
+                PostNotifyUsernamesResponse.respond400WithTextPlain(event.cause().getMessage())));
+            } else {
+              log.warn("saveAndSendNotifications:: Failed to send notifications", event.cause());
+              asyncResultHandler.handle(succeededFuture(
+                PostNotifyUsernamesResponse.respond500WithTextPlain(event.cause())));
+            }
+          });
+      }));
+  }
+
   /**
    * Post to _self is not supported, but RMB builds this anyway.
    *
@@ -395,7 +1107,7 @@ public class NotificationsResourceImpl implements Notify {
     Handler<AsyncResult<Void>> asyncResultHandler, Context vertxContext) {
 
     log.debug("deleteAllOldNotifications:: parameters userId: {}, okapiHeaders: {}",
-      () -> userId, () -> headersAsString(okapiHeaders));
+      () -> userId, () -> redactedHeaders(okapiHeaders));
     String query;
     String selfQuery = "recipientId=\"" + userId + "\"" + " and seen=true";
     LocalDateTime now = LocalDateTime.now();
@@ -418,7 +1130,13 @@ public class NotificationsResourceImpl implements Notify {
       return;
     }
     getPostgresClient(vertxContext, okapiHeaders)
-      .delete(NOTIFY_TABLE, cql, reply -> asyncResultHandler.handle(succeededFuture()));
+      .delete(NOTIFY_TABLE, cql, dbCall(DbOperation.DELETE, cql, okapiHeaders, reply -> {
+        // only notifications of the user are purged
+        if (reply.succeeded() && reply.result().rowCount() > 0) {
+          publishChange(ChangeFeed.DELETE, okapiHeaders, userId);
+        }
+        asyncResultHandler.handle(succeededFuture());
+      }));
     // Ignore all errors, we will catch old notifies the next time
   }
 
@@ -426,7 +1144,7 @@ public class NotificationsResourceImpl implements Notify {
     Handler<AsyncResult<Response>> asyncResultHandler) {
 
     log.debug("selfDelQuery:: parameters olderThan: {}, okapiHeaders: {}", () -> olderThan,
-      () -> headersAsString(okapiHeaders));
+      () -> redactedHeaders(okapiHeaders));
 
     String userId = okapiHeaders.get(RestVerticle.OKAPI_USERID_HEADER);
     if (userId == null) {
@@ -454,10 +1172,14 @@ public class NotificationsResourceImpl implements Notify {
     Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
 
     log.debug("deleteNotifyUserSelf:: parameters olderThan: {}, lang: {}, okapiHeaders: {}",
-      () -> olderThan, () -> lang, () -> headersAsString(okapiHeaders));
+      () -> olderThan, () -> lang, () -> redactedHeaders(okapiHeaders));
+
+    Handler<AsyncResult<Response>> timedHandler = endpointMetrics.timed(
+      "deleteNotifyUserSelf", okapiHeaders,
+      traced("deleteNotifyUserSelf", okapiHeaders, asyncResultHandler));
 
     Handler<AsyncResult<Response>> loggingResultHandler = loggingResponseHandler(
-      "deleteNotifyUserSelf", asyncResultHandler, log);
+      "deleteNotifyUserSelf", timedHandler, log);
 
     String query = selfDelQuery(olderThan, okapiHeaders, loggingResultHandler);
     if (query == null) {
@@ -476,12 +1198,14 @@ public class NotificationsResourceImpl implements Notify {
     }
     getPostgresClient(vertxContext, okapiHeaders)
       .delete(NOTIFY_TABLE, cql,
-        reply -> {
+        dbCall(DbOperation.DELETE, cql, okapiHeaders, reply -> {
           if (reply.succeeded()) {
             log.info("deleteNotifyUserSelf:: Deleted self notifications");
             int rowCount = reply.result().rowCount();
             if (rowCount > 0) {
               log.info("deleteNotifyUserSelf:: Deleted {} notifications", rowCount);
+              publishChange(ChangeFeed.DELETE, okapiHeaders,
+                okapiHeaders.get(RestVerticle.OKAPI_USERID_HEADER));
               loggingResultHandler.handle(succeededFuture(
                 DeleteNotifyUserSelfResponse.respond204()));
             } else {
@@ -495,7 +1219,7 @@ public class NotificationsResourceImpl implements Notify {
             log.warn("deleteNotifyUserSelf:: Deleting self notifications failed", reply.cause());
             ValidationHelper.handleError(reply.cause(), loggingResultHandler);
           }
-        });
+      }));
   }
 
   @Override
@@ -504,31 +1228,36 @@ public class NotificationsResourceImpl implements Notify {
       Handler<AsyncResult<Response>> asyncResultHandler, Context context) {
 
     log.debug("getNotifyById:: parameters id: {}, lang: {}, okapiHeaders: {}", () -> id,
-      () -> lang, () -> headersAsString(okapiHeaders));
+      () -> lang, () -> redactedHeaders(okapiHeaders));
 
-    if (respond422IfIdIsNotValid(id, asyncResultHandler)) {
+    Handler<AsyncResult<Response>> timedHandler = encoding(accepted(okapiHeaders),
+      endpointMetrics.timed("getNotifyById", okapiHeaders,
+        traced("getNotifyById", okapiHeaders, asyncResultHandler)));
+
+    if (respond422IfIdIsNotValid(id, timedHandler)) {
       log.info("getNotifyById:: ID is not valid, result: null");
       return;
     }
 
     Handler<AsyncResult<Response>> loggingResultHandler = loggingResponseHandler(
-      "getNotifyById", asyncResultHandler, log);
+      "getNotifyById", timedHandler, log);
 
-    getPostgresClient(context, okapiHeaders).getById(NOTIFY_TABLE, id, Notification.class, reply -> {
-      if (reply.failed()) {
-        log.warn("getNotifyById:: Failed to get notification by ID: {}", id);
-        ValidationHelper.handleError(reply.cause(), loggingResultHandler);
-        return;
-      }
-      if (reply.result() == null) {
-        log.warn("getNotifyById:: No notification found by ID: {} ", id);
+    getPostgresClient(context, okapiHeaders).getById(NOTIFY_TABLE, id, Notification.class,
+      dbCallById(DbOperation.SELECT, id, okapiHeaders, reply -> {
+        if (reply.failed()) {
+          log.warn("getNotifyById:: Failed to get notification by ID: {}", id);
+          ValidationHelper.handleError(reply.cause(), loggingResultHandler);
+          return;
+        }
+        if (reply.result() == null) {
+          log.warn("getNotifyById:: No notification found by ID: {} ", id);
+          loggingResultHandler.handle(succeededFuture(
+            GetNotifyByIdResponse.respond404WithTextPlain(id)));
+          return;
+        }
         loggingResultHandler.handle(succeededFuture(
-          GetNotifyByIdResponse.respond404WithTextPlain(id)));
-        return;
-      }
-      loggingResultHandler.handle(succeededFuture(
-        GetNotifyByIdResponse.respond200WithApplicationJson(reply.result())));
-    });
+          GetNotifyByIdResponse.respond200WithApplicationJson(reply.result())));
+      }));
   }
 
   @Override
@@ -537,38 +1266,46 @@ public class NotificationsResourceImpl implements Notify {
     Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
 
     log.debug("deleteNotifyById:: parameters id: {}, lang: {}, okapiHeaders: {}", () -> id,
-      () -> lang, () -> headersAsString(okapiHeaders));
+      () -> lang, () -> redactedHeaders(okapiHeaders));
 
-    if (respond422IfIdIsNotValid(id, asyncResultHandler)) {
+    Handler<AsyncResult<Response>> timedHandler = endpointMetrics.timed(
+      "deleteNotifyById", okapiHeaders,
+      traced("deleteNotifyById", okapiHeaders, asyncResultHandler));
+
+    if (respond422IfIdIsNotValid(id, timedHandler)) {
       log.info("deleteNotifyById:: ID is not valid, result: null");
       return;
     }
 
     Handler<AsyncResult<Response>> loggingResultHandler = loggingResponseHandler(
-      "deleteNotifyById", asyncResultHandler, log);
+      "deleteNotifyById", timedHandler, log);
 
+    // the recipient is returned to drop its cached pages before responding
     getPostgresClient(vertxContext, okapiHeaders)
-      .delete(NOTIFY_TABLE, id,
-        reply -> {
-          if (reply.succeeded()) {
-            log.info("deleteNotifyById:: Deleted notification by ID: {}", id);
-            int rowCount = reply.result().rowCount();
-            if (rowCount == 1) {
-              log.info("deleteNotifyById:: Deleted exactly one notification");
-              loggingResultHandler.handle(succeededFuture(DeleteNotifyByIdResponse.respond204()));
-            } else {
-              String message = messages.getMessage(lang, MessageConsts.DeletedCountError, 1,
-                rowCount);
-              log.warn("deleteNotifyById:: Failed with message: {}", message);
-              loggingResultHandler.handle(succeededFuture(DeleteNotifyByIdResponse
-                .respond404WithTextPlain(message)));
-            }
+      .execute("DELETE FROM " + notifyTable(okapiHeaders) + " WHERE id = $1"
+        + " RETURNING jsonb->>'recipientId'", Tuple.of(UUID.fromString(id)))
+      .onComplete(dbCallById(DbOperation.DELETE, id, okapiHeaders, reply -> {
+        if (reply.succeeded()) {
+          log.info("deleteNotifyById:: Deleted notification by ID: {}", id);
+          int rowCount = reply.result().rowCount();
+          if (rowCount == 1) {
+            log.info("deleteNotifyById:: Deleted exactly one notification");
+            recipientIds(reply.result()).forEach(recipientId ->
+              publishChange(ChangeFeed.DELETE, okapiHeaders, recipientId));
+            loggingResultHandler.handle(succeededFuture(DeleteNotifyByIdResponse.respond204()));
           } else {
-            log.warn("deleteNotifyById:: Failed to delete notification by ID: {}", id,
-              reply.cause());
-            ValidationHelper.handleError(reply.cause(), loggingResultHandler);
+            String message = messages.getMessage(lang, MessageConsts.DeletedCountError, 1,
+              rowCount);
+            log.warn("deleteNotifyById:: Failed with message: {}", message);
+            loggingResultHandler.handle(succeededFuture(DeleteNotifyByIdResponse
+              .respond404WithTextPlain(message)));
           }
-        });
+        } else {
+          log.warn("deleteNotifyById:: Failed to delete notification by ID: {}", id,
+            reply.cause());
+          ValidationHelper.handleError(reply.cause(), loggingResultHandler);
+        }
+      }));
   }
 
   @Override
@@ -578,10 +1315,14 @@ public class NotificationsResourceImpl implements Notify {
     Context vertxContext) {
 
     log.debug("putNotifyById:: parameters id: {}, lang: {}, okapiHeaders: {}",
-      () -> id, () -> lang, () -> headersAsString(okapiHeaders));
+      () -> id, () -> lang, () -> redactedHeaders(okapiHeaders));
+
+    Handler<AsyncResult<Response>> timedHandler = endpointMetrics.timed(
+      "putNotifyById", okapiHeaders,
+      traced("putNotifyById", okapiHeaders, asyncResultHandler));
 
     Handler<AsyncResult<Response>> loggingResultHandler = loggingResponseHandler(
-      "putNotifyById", asyncResultHandler, log);
+      "putNotifyById", timedHandler, log);
 
     if (respond422IfIdIsNotValid(id, loggingResultHandler)) {
       log.info("putNotifyById:: ID is not valid, result: null");
@@ -606,28 +1347,44 @@ public class NotificationsResourceImpl implements Notify {
       return;
     }
     String userId = okapiHeaders.get(RestVerticle.OKAPI_USERID_HEADER);
+    JsonObject jsonb;
+    try {
+      jsonb = PostgresClient.pojo2JsonObject(entity);
+    } catch (Exception e) {
+      log.warn("putNotifyById:: Failed to serialize notification", e);
+      ValidationHelper.handleError(e, loggingResultHandler);
+      return;
+    }
+    // the self join returns the previous recipient, whose cached pages are dropped as well
+    String table = notifyTable(okapiHeaders);
     getPostgresClient(vertxContext, okapiHeaders)
-      .update(NOTIFY_TABLE, entity, id,
-        reply -> {
-          if (reply.succeeded()) {
-            log.info("putNotifyById:: Updated succeeded");
-            int rowCount = reply.result().rowCount();
-            if (rowCount == 0) {
-              log.info("putNotifyById:: 0 notification updated (notification not found)");
-              loggingResultHandler.handle(succeededFuture(PutNotifyByIdResponse
-                .respond404WithTextPlain(id)));
-            } else { // all ok
-              log.info("putNotifyById:: {} notification updated", rowCount);
-              deleteAllOldNotifications(userId, okapiHeaders,
-                dres -> loggingResultHandler.handle(succeededFuture(
-                  PutNotifyByIdResponse.respond204())),
-                 vertxContext);
-            }
-          } else {
-            log.warn("putNotifyById:: Update failed", reply.cause());
-            ValidationHelper.handleError(reply.cause(), loggingResultHandler);
+      .execute("UPDATE " + table + " n SET jsonb = $2 FROM " + table + " o"
+        + " WHERE n.id = $1 AND o.id = n.id RETURNING o.jsonb->>'recipientId'",
+        Tuple.of(UUID.fromString(id), jsonb))
+      .onComplete(dbCallById(DbOperation.UPDATE, id, okapiHeaders, reply -> {
+        if (reply.succeeded()) {
+          log.info("putNotifyById:: Updated succeeded");
+          int rowCount = reply.result().rowCount();
+          if (rowCount == 0) {
+            log.info("putNotifyById:: 0 notification updated (notification not found)");
+            loggingResultHandler.handle(succeededFuture(PutNotifyByIdResponse
+              .respond404WithTextPlain(id)));
+          } else { // all ok
+            log.info("putNotifyById:: {} notification updated", rowCount);
+            publishChange(ChangeFeed.UPDATE, okapiHeaders, recip);
+            recipientIds(reply.result()).stream()
+              .filter(previous -> !recip.equals(previous))
+              .forEach(previous -> publishChange(ChangeFeed.UPDATE, okapiHeaders, previous));
+            deleteAllOldNotifications(userId, okapiHeaders,
+              dres -> loggingResultHandler.handle(succeededFuture(
+                PutNotifyByIdResponse.respond204())),
+               vertxContext);
           }
-        });
+        } else {
+          log.warn("putNotifyById:: Update failed", reply.cause());
+          ValidationHelper.handleError(reply.cause(), loggingResultHandler);
+        }
+      }));
   }
 
   private boolean respond422IfIdIsNotValid(String id,
@@ -2,6 +2,7 @@ package org.folio.rest.impl;
 
 import static io.vertx.core.Future.succeededFuture;
 import static java.util.Collections.singletonList;
+import static org.folio.tracing.Tracing.traced;
 import static org.folio.util.LogUtil.loggingResponseHandler;
 
 import java.util.Map;
@@ -13,6 +14,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.client.NoticesClient;
 import org.folio.helper.OkapiModulesClientHelper;
+import org.folio.metrics.EndpointMetrics;
+import org.folio.metrics.PipelineMetrics;
+import org.folio.metrics.PipelineStage;
+import org.folio.metrics.PipelineTiming;
 import org.folio.rest.jaxrs.model.Error;
 import org.folio.rest.jaxrs.model.Errors;
 import org.folio.rest.jaxrs.model.PatronNoticeEntity;
@@ -29,6 +34,8 @@ public class PatronNoticeResourceImpl implements PatronNotice {
   private static final Logger log = LogManager.getLogger(PatronNoticeResourceImpl.class);
   private final Messages messages = Messages.getInstance();
   private final OkapiModulesClientHelper okapiModulesClientHelper = new OkapiModulesClientHelper();
+  private final EndpointMetrics endpointMetrics = EndpointMetrics.getInstance();
+  private final PipelineMetrics pipelineMetrics = PipelineMetrics.getInstance();
 
   @Override
   public void postPatronNotice(String lang, PatronNoticeEntity entity,
@@ -37,13 +44,21 @@ public class PatronNoticeResourceImpl implements PatronNotice {
 
     log.debug("postPatronNotice:: parameters lang: {}", () -> lang);
 
+    Handler<AsyncResult<Response>> timedHandler = endpointMetrics.timed(
+      "postPatronNotice", okapiHeaders,
+      traced("postPatronNotice", okapiHeaders, asyncResultHandler));
+
     NoticesClient client = makeNoticesClient(vertxContext, okapiHeaders);
+    PipelineTiming timing = pipelineMetrics.start(okapiHeaders);
     Handler<AsyncResult<Response>> loggingResultHandler = loggingResponseHandler(
-      "postPatronNotice", asyncResultHandler, log);
+      "postPatronNotice", timing.withServerTiming(timedHandler), log);
 
-    client.postTemplateRequest(getOkapiModulesClientHelper().buildTemplateProcessingRequest(entity))
-      .map(result -> getOkapiModulesClientHelper().buildNotifySendRequest(result, entity))
-      .compose(client::postMessageDelivery)
+    timing.time(PipelineStage.POST_TEMPLATE_REQUEST, () -> client.postTemplateRequest(
+        getOkapiModulesClientHelper().buildTemplateProcessingRequest(entity)))
+      .map(result -> timing.measure(PipelineStage.BUILD_NOTIFY_SEND_REQUEST,
+        () -> getOkapiModulesClientHelper().buildNotifySendRequest(result, entity)))
+      .compose(request -> timing.time(PipelineStage.POST_MESSAGE_DELIVERY,
+        () -> client.postMessageDelivery(request)))
       .onComplete(res -> {
         if (res.failed()) {
           Throwable cause = res.cause();
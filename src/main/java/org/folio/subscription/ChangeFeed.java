@@ -0,0 +1,201 @@
+package org.folio.subscription;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.util.Settings;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.pgclient.PgConnection;
+import io.vertx.sqlclient.SqlConnection;
+
+/**
+ * The changes of the notifications of all tenants, shared by all instances of the module
+ * through Postgres {@code LISTEN/NOTIFY}: a trigger on {@code notify_data}
+ * ({@code notify_data_changed.sql}) publishes each change on {@value #CHANNEL}, and each
+ * instance listens on one connection of the RMB pool. Changes arriving within
+ * {@value #COALESCE_MS} milliseconds (default {@value #DEFAULT_COALESCE_MS}) are dispatched
+ * to the listeners once per operation, tenant and recipient.
+ * <p>
+ * While the instance does not listen, e.g. until a lost connection has been replaced, the
+ * changes made by the instance itself are dispatched directly.
+ */
+public class ChangeFeed {
+  public static final String CHANNEL = "mod_notify_changes";
+  public static final String COALESCE_MS = "CHANGE_FEED_COALESCE_MS";
+  public static final String INSERT = "I";
+  public static final String UPDATE = "U";
+  public static final String DELETE = "D";
+  static final long DEFAULT_COALESCE_MS = 20;
+  static final long RECONNECT_DELAY_MS = 5000;
+  private static final Logger log = LogManager.getLogger(ChangeFeed.class);
+  private static final ChangeFeed instance = new ChangeFeed(
+    Settings.fromEnvironment().longValue(COALESCE_MS, DEFAULT_COALESCE_MS));
+
+  private final long coalesceMs;
+  private final Set<Consumer<Change>> listeners = new CopyOnWriteArraySet<>();
+  private final AtomicLong generation = new AtomicLong();
+  // only used on the context of the listening connection
+  private final Set<Change> pending = new LinkedHashSet<>();
+  private Vertx vertx;
+  private volatile SqlConnection connection;
+
+  /**
+   * A change of the notifications of a recipient; the operation is {@link #INSERT},
+   * {@link #UPDATE} or {@link #DELETE}.
+   */
+  public record Change(String operation, String tenant, String recipientId) {
+
+    public Change {
+      recipientId = recipientKey(recipientId);
+    }
+
+    /**
+     * The change in the payload {@code <operation>|<tenant>|<recipientId>}, null if the
+     * payload is malformed.
+     */
+    static Change parse(String payload) {
+      String[] parts = payload == null ? new String[0] : payload.split("\\|", 3);
+      if (parts.length < 3 || parts[1].isEmpty() || parts[2].isEmpty()) {
+        return null;
+      }
+      return new Change(parts[0], parts[1], parts[2]);
+    }
+  }
+
+  /**
+   * The recipient ID in lower case, as the trigger publishes it: like the
+   * {@code recipientId==} query, the caches and subscriptions of a recipient ignore case.
+   */
+  public static String recipientKey(String recipientId) {
+    return recipientId == null ? null : recipientId.toLowerCase(Locale.ROOT);
+  }
+
+  ChangeFeed(long coalesceMs) {
+    this.coalesceMs = coalesceMs;
+  }
+
+  public static ChangeFeed getInstance() {
+    return instance;
+  }
+
+  /**
+   * Starts listening with the Vert.x instance, unless it already does.
+   */
+  public synchronized void start(Vertx vertx) {
+    if (this.vertx == vertx) {
+      return;
+    }
+    this.vertx = vertx;
+    connection = null;
+    listen(vertx);
+  }
+
+  public void addListener(Consumer<Change> listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Whether the changes of all instances arrive through {@code LISTEN}.
+   */
+  public boolean isListening() {
+    return connection != null;
+  }
+
+  /**
+   * Counts the connections listened on, -1 while not listening. Changes may have been missed
+   * whenever it changes, so anything kept up to date by the feed is outdated then.
+   */
+  public long generation() {
+    return connection == null ? -1 : generation.get();
+  }
+
+  /**
+   * Called after the instance changed notifications of the recipient; dispatches the change
+   * if it will not arrive through {@code LISTEN}.
+   */
+  public void localChange(String operation, String tenant, String recipientId) {
+    if (!isListening() && recipientId != null) {
+      dispatch(new Change(operation, tenant, recipientId));
+    }
+  }
+
+  private void listen(Vertx vertx) {
+    Future.<Void>succeededFuture()
+      .compose(v -> PostgresClient.getInstance(vertx).getClient().getConnection())
+      .compose(conn -> {
+        PgConnection.cast(conn).notificationHandler(notification ->
+          received(vertx, notification.getPayload()));
+        return conn.query("LISTEN " + CHANNEL).execute()
+          .map(conn)
+          .onFailure(e -> conn.close());
+      })
+      .onSuccess(conn -> {
+        log.info("listen:: Listening on {}", CHANNEL);
+        conn.closeHandler(v -> {
+          log.warn("listen:: Connection listening on {} closed", CHANNEL);
+          connection = null;
+          reconnect(vertx);
+        });
+        generation.incrementAndGet();
+        connection = conn;
+      })
+      .onFailure(e -> {
+        log.warn("listen:: Failed to listen on {}, retrying in {} ms", CHANNEL,
+          RECONNECT_DELAY_MS, e);
+        reconnect(vertx);
+      });
+  }
+
+  private synchronized void reconnect(Vertx vertx) {
+    if (this.vertx == vertx) {
+      vertx.setTimer(RECONNECT_DELAY_MS, timerId -> listen(vertx));
+    }
+  }
+
+  /**
+   * Handles the payload of a notification on {@value #CHANNEL}.
+   */
+  void received(Vertx vertx, String payload) {
+    Change change = Change.parse(payload);
+    if (change == null) {
+      log.warn("received:: Ignoring malformed payload: {}", payload);
+      return;
+    }
+    if (coalesceMs <= 0) {
+      dispatch(change);
+      return;
+    }
+    if (pending.isEmpty()) {
+      vertx.setTimer(coalesceMs, timerId -> flush());
+    }
+    pending.add(change);
+  }
+
+  private void flush() {
+    List<Change> changes = new ArrayList<>(pending);
+    pending.clear();
+    log.debug("flush:: Dispatching {} changes", changes::size);
+    changes.forEach(this::dispatch);
+  }
+
+  private void dispatch(Change change) {
+    for (Consumer<Change> listener : listeners) {
+      try {
+        listener.accept(change);
+      } catch (RuntimeException e) {
+        log.warn("dispatch:: Listener failed on {}", change, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package org.folio.subscription;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+/**
+ * In-process registry of the requests waiting for a change of the notifications of a
+ * recipient. A waiting request costs one map entry and one timer; nothing runs on the event
+ * loop until the notifications change or the wait times out. Each subscription completes on
+ * the context it was made on.
+ */
+public class NotificationSubscriptions {
+  private static final Logger log = LogManager.getLogger(NotificationSubscriptions.class);
+  private static final NotificationSubscriptions instance = new NotificationSubscriptions();
+
+  private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+  public static NotificationSubscriptions getInstance() {
+    return instance;
+  }
+
+  /**
+   * Waits for a change of the recipient's notifications, for at most the timeout. The
+   * future of the subscription completes with true on a change, with false on timeout or
+   * cancellation.
+   */
+  public Subscription subscribe(Context context, String tenant, String recipientId,
+    long timeoutMs) {
+
+    Subscription subscription = new Subscription(key(tenant, recipientId), context);
+    subscriptions.compute(subscription.key, (key, waiting) -> {
+      Set<Subscription> set = waiting == null ? ConcurrentHashMap.newKeySet() : waiting;
+      set.add(subscription);
+      return set;
+    });
+    subscription.timerId = context.owner().setTimer(Math.max(1, timeoutMs),
+      timerId -> subscription.complete(false));
+    return subscription;
+  }
+
+  /**
+   * Completes all subscriptions to the recipient's notifications.
+   */
+  public void changed(String tenant, String recipientId) {
+    Set<Subscription> waiting = subscriptions.remove(key(tenant, recipientId));
+    if (waiting == null) {
+      return;
+    }
+    log.debug("changed:: Notifying {} subscriptions of recipient {}", waiting::size,
+      () -> recipientId);
+    for (Subscription subscription : waiting) {
+      subscription.context.runOnContext(v -> subscription.complete(true));
+    }
+  }
+
+  /**
+   * The number of subscriptions to the recipient's notifications.
+   */
+  public int waiting(String tenant, String recipientId) {
+    Set<Subscription> waiting = subscriptions.get(key(tenant, recipientId));
+    return waiting == null ? 0 : waiting.size();
+  }
+
+  private static String key(String tenant, String recipientId) {
+    return tenant + " " + ChangeFeed.recipientKey(recipientId);
+  }
+
+  public class Subscription {
+    private final String key;
+    private final Context context;
+    private final Promise<Boolean> promise = Promise.promise();
+    private long timerId;
+
+    private Subscription(String key, Context context) {
+      this.key = key;
+      this.context = context;
+    }
+
+    public Future<Boolean> future() {
+      return promise.future();
+    }
+
+    /**
+     * Stops waiting; the future completes with false if it has not completed yet.
+     */
+    public void cancel() {
+      complete(false);
+    }
+
+    private void complete(boolean changed) {
+      subscriptions.computeIfPresent(key, (k, waiting) -> {
+        waiting.remove(this);
+        return waiting.isEmpty() ? null : waiting;
+      });
+      context.owner().cancelTimer(timerId);
+      promise.tryComplete(changed);
+    }
+  }
+}
@@ -0,0 +1,253 @@
+package org.folio.tracing;
+
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
+import static org.folio.util.HeaderUtil.header;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.ws.rs.core.Response;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.okapi.common.logging.FolioLoggingContext;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import io.opentelemetry.sdk.autoconfigure.AutoConfiguredOpenTelemetrySdk;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+/**
+ * OpenTelemetry tracing of the endpoints, the database and the calls to other modules.
+ * <p>
+ * Spans are only exported if {@code OTEL_TRACES_EXPORTER} (or the system property
+ * {@code otel.traces.exporter}) is set to an exporter other than {@code none}; the SDK is
+ * then configured from the standard {@code OTEL_*} variables. Otherwise W3C trace context
+ * is still passed on from the caller to the called modules, without recording spans.
+ * <p>
+ * The Vert.x event loop does not carry the OpenTelemetry context from one callback to the
+ * next, so the server span of a request is stored as {@code traceparent} in the
+ * {@link FolioLoggingContext} of the request's Vert.x context, which the callbacks of its
+ * client and database calls run on. The request's Okapi headers are left as they are.
+ */
+public final class Tracing {
+  private static final Logger log = LogManager.getLogger(Tracing.class);
+  public static final String EXPORTER = "OTEL_TRACES_EXPORTER";
+  public static final String TRACEPARENT = "traceparent";
+  public static final String TRACESTATE = "tracestate";
+  private static final String INSTRUMENTATION_NAME = "org.folio.mod-notify";
+  static final AttributeKey<String> TENANT_ATTRIBUTE = AttributeKey.stringKey("folio.tenant");
+  static final AttributeKey<String> DB_SYSTEM_ATTRIBUTE = AttributeKey.stringKey("db.system");
+  public static final AttributeKey<Long> STATUS_ATTRIBUTE =
+    AttributeKey.longKey("http.response.status_code");
+
+  private static final TextMapGetter<Map<String, String>> headersGetter =
+    new TextMapGetter<>() {
+      @Override
+      public Iterable<String> keys(Map<String, String> carrier) {
+        return carrier.keySet();
+      }
+
+      @Override
+      public String get(Map<String, String> carrier, String key) {
+        return header(carrier, key);
+      }
+    };
+  private static final TextMapSetter<Map<String, String>> headersSetter = Map::put;
+  private static final FolioLoggingContext folioLoggingContext = new FolioLoggingContext();
+
+  private static volatile OpenTelemetry openTelemetry = create();
+  private static volatile Tracer tracer = openTelemetry.getTracer(INSTRUMENTATION_NAME);
+
+  private Tracing() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  private static OpenTelemetry create() {
+    String exporter = System.getProperty("otel.traces.exporter", System.getenv(EXPORTER));
+    if (exporter == null || exporter.isBlank() || "none".equalsIgnoreCase(exporter.trim())) {
+      log.info("create:: {} is not set, spans are not exported", EXPORTER);
+      return OpenTelemetry.propagating(
+        ContextPropagators.create(W3CTraceContextPropagator.getInstance()));
+    }
+    log.info("create:: Exporting spans with {}", exporter);
+    return AutoConfiguredOpenTelemetrySdk.initialize().getOpenTelemetrySdk();
+  }
+
+  /**
+   * Replaces the OpenTelemetry instance, e.g. with an SDK using an in-memory exporter in tests.
+   */
+  public static void set(OpenTelemetry instance) {
+    openTelemetry = instance;
+    tracer = instance.getTracer(INSTRUMENTATION_NAME);
+  }
+
+  public static OpenTelemetry get() {
+    return openTelemetry;
+  }
+
+  /**
+   * The trace context passed in the headers, or the root context.
+   */
+  public static Context extract(Map<String, String> headers) {
+    if (headers == null) {
+      return Context.root();
+    }
+    return openTelemetry.getPropagators().getTextMapPropagator()
+      .extract(Context.root(), headers, headersGetter);
+  }
+
+  /**
+   * The trace context headers ({@value #TRACEPARENT}, {@value #TRACESTATE}) found in the
+   * headers.
+   */
+  public static Map<String, String> extractedHeaders(Map<String, String> headers) {
+    Map<String, String> traceHeaders = new HashMap<>(4);
+    String traceparent = header(headers, TRACEPARENT);
+    if (traceparent != null) {
+      traceHeaders.put(TRACEPARENT, traceparent);
+      String tracestate = header(headers, TRACESTATE);
+      if (tracestate != null) {
+        traceHeaders.put(TRACESTATE, tracestate);
+      }
+    }
+    return traceHeaders;
+  }
+
+  /**
+   * The trace context headers of the current request: the server span stored in the Vert.x
+   * context by {@link #traced}, or else the trace context found in the Okapi headers.
+   */
+  public static Map<String, String> traceHeaders(Map<String, String> okapiHeaders) {
+    String traceparent = lookup(TRACEPARENT);
+    if (traceparent == null) {
+      return extractedHeaders(okapiHeaders);
+    }
+    Map<String, String> traceHeaders = new HashMap<>(4);
+    traceHeaders.put(TRACEPARENT, traceparent);
+    String tracestate = lookup(TRACESTATE);
+    if (tracestate != null) {
+      traceHeaders.put(TRACESTATE, tracestate);
+    }
+    return traceHeaders;
+  }
+
+  private static String lookup(String key) {
+    if (Vertx.currentContext() == null) {
+      return null;
+    }
+    String value = folioLoggingContext.lookup(key);
+    return value == null || value.isEmpty() ? null : value;
+  }
+
+  /**
+   * Stores the span in the current Vert.x context as parent of the spans started on it.
+   */
+  private static void store(Span span) {
+    if (Vertx.currentContext() == null) {
+      return;
+    }
+    Map<String, String> traceHeaders = new HashMap<>(4);
+    inject(span, traceHeaders);
+    FolioLoggingContext.put(TRACEPARENT, traceHeaders.getOrDefault(TRACEPARENT, ""));
+    FolioLoggingContext.put(TRACESTATE, traceHeaders.getOrDefault(TRACESTATE, ""));
+  }
+
+  /**
+   * Writes the trace context of the span into the headers.
+   */
+  public static void inject(Span span, Map<String, String> headers) {
+    openTelemetry.getPropagators().getTextMapPropagator()
+      .inject(Context.root().with(span), headers, headersSetter);
+  }
+
+  /**
+   * Starts a span whose parent is the server span of the current request, or else the trace
+   * context of the request's Okapi headers.
+   */
+  public static Span startSpan(String name, SpanKind kind, Map<String, String> okapiHeaders) {
+    return startSpan(name, kind, extract(traceHeaders(okapiHeaders)), okapiHeaders);
+  }
+
+  private static Span startSpan(String name, SpanKind kind, Context parent,
+    Map<String, String> okapiHeaders) {
+
+    Span span = tracer.spanBuilder(name)
+      .setParent(parent)
+      .setSpanKind(kind)
+      .startSpan();
+    String tenant = header(okapiHeaders, TENANT);
+    if (tenant != null) {
+      span.setAttribute(TENANT_ATTRIBUTE, tenant);
+    }
+    return span;
+  }
+
+  /**
+   * Ends the span, marking it as error if the result failed.
+   */
+  public static void end(Span span, AsyncResult<?> result) {
+    if (result.failed()) {
+      span.recordException(result.cause());
+      span.setStatus(StatusCode.ERROR);
+    }
+    span.end();
+  }
+
+  /**
+   * Starts the server span of an endpoint, child of the caller's span in the Okapi headers,
+   * and makes it the parent of all spans of the request by storing it in the request's
+   * Vert.x context. The returned handler ends the span with the response status.
+   */
+  public static Handler<AsyncResult<Response>> traced(String endpoint,
+    Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler) {
+
+    Span span;
+    try {
+      span = startSpan(endpoint, SpanKind.SERVER, extract(okapiHeaders), okapiHeaders);
+      store(span);
+    } catch (Exception e) {
+      log.warn("traced:: Failed to start span of {}", endpoint, e);
+      return asyncResultHandler;
+    }
+    return result -> {
+      if (result.succeeded() && result.result() != null) {
+        int status = result.result().getStatus();
+        span.setAttribute(STATUS_ATTRIBUTE, (long) status);
+        if (status >= 500) {
+          span.setStatus(StatusCode.ERROR);
+        }
+      }
+      end(span, result);
+      asyncResultHandler.handle(result);
+    };
+  }
+
+  /**
+   * Starts a client span of a database call, to be passed as its result handler; the
+   * span ends when the result arrives, before the handler is called.
+   *
+   * @param operation  the SQL operation and table, e.g. {@code SELECT notify_data}
+   */
+  public static <T> Handler<AsyncResult<T>> tracedDb(String operation,
+    Map<String, String> okapiHeaders, Handler<AsyncResult<T>> handler) {
+
+    Span span = startSpan(operation, SpanKind.CLIENT, okapiHeaders);
+    span.setAttribute(DB_SYSTEM_ATTRIBUTE, "postgresql");
+    return result -> {
+      end(span, result);
+      handler.handle(result);
+    };
+  }
+}
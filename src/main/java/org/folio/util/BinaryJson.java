@@ -0,0 +1,132 @@
+package org.folio.util;
+
+import static org.folio.util.HeaderUtil.header;
+
+import java.util.Locale;
+import java.util.Map;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.dbschema.ObjectMapperTool;
+import org.folio.rest.tools.utils.BinaryOutStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+/**
+ * CBOR and Smile encoding of the responses for clients that prefer them in their
+ * {@code Accept} header; JSON stays the default. Both are written with copies of the RMB
+ * object mapper, so they hold the same properties in the same representation as the JSON.
+ */
+public class BinaryJson {
+  public static final String CBOR = "application/cbor";
+  public static final String SMILE = "application/x-jackson-smile";
+  private static final String JSON = "application/json";
+  private static final Logger log = LogManager.getLogger(BinaryJson.class);
+  private static final ObjectMapper JSON_MAPPER = ObjectMapperTool.getMapper();
+  private static final ObjectMapper CBOR_MAPPER = JSON_MAPPER.copyWith(new CBORFactory());
+  private static final ObjectMapper SMILE_MAPPER = JSON_MAPPER.copyWith(new SmileFactory());
+
+  private BinaryJson() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  /**
+   * The binary media type with the highest quality in the {@code Accept} header, or null
+   * if JSON has at least the same quality or neither binary type is accepted.
+   */
+  public static String accepted(Map<String, String> okapiHeaders) {
+    String accept = header(okapiHeaders, HttpHeaders.ACCEPT);
+    if (accept == null) {
+      return null;
+    }
+    String best = null;
+    double bestQuality = 0;
+    double jsonQuality = 0;
+    for (String range : accept.split(",")) {
+      String[] parts = range.split(";");
+      String type = parts[0].trim().toLowerCase(Locale.ROOT);
+      double quality = quality(parts);
+      if (JSON.equals(type) || "application/*".equals(type) || "*/*".equals(type)) {
+        jsonQuality = Math.max(jsonQuality, quality);
+      } else if ((CBOR.equals(type) || SMILE.equals(type)) && quality > bestQuality) {
+        best = type;
+        bestQuality = quality;
+      }
+    }
+    return bestQuality > jsonQuality ? best : null;
+  }
+
+  /**
+   * Wraps a response handler to encode the entity of successful responses in the media
+   * type; returns the handler itself if the media type is null.
+   */
+  public static Handler<AsyncResult<Response>> encoding(String mediaType,
+    Handler<AsyncResult<Response>> handler) {
+
+    if (mediaType == null) {
+      return handler;
+    }
+    return result -> {
+      if (result.failed() || result.result().getEntity() == null
+        || result.result().getStatus() >= 300) {
+        handler.handle(result);
+        return;
+      }
+      try {
+        handler.handle(Future.succeededFuture(encode(result.result(), mediaType)));
+      } catch (Exception e) {
+        log.warn("encoding:: Failed to encode response as {}", mediaType, e);
+        handler.handle(Future.failedFuture(e));
+      }
+    };
+  }
+
+  /**
+   * The response with its entity, a POJO or JSON text, encoded in the binary media type.
+   */
+  static Response encode(Response response, String mediaType) throws Exception {
+    ObjectMapper mapper = mapper(mediaType);
+    Object entity = response.getEntity();
+    BinaryOutStream stream = new BinaryOutStream();
+    stream.setData(entity instanceof String json
+      ? mapper.writeValueAsBytes(JSON_MAPPER.readTree(json))
+      : mapper.writeValueAsBytes(entity));
+    return Response.fromResponse(response)
+      .entity(stream)
+      .type(mediaType)
+      .build();
+  }
+
+  /**
+   * The mapper that reads and writes the media type, JSON if it is null.
+   */
+  public static ObjectMapper mapper(String mediaType) {
+    if (CBOR.equals(mediaType)) {
+      return CBOR_MAPPER;
+    }
+    return SMILE.equals(mediaType) ? SMILE_MAPPER : JSON_MAPPER;
+  }
+
+  private static double quality(String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      String parameter = parts[i].trim();
+      if (parameter.startsWith("q=")) {
+        try {
+          return Double.parseDouble(parameter.substring(2));
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+}
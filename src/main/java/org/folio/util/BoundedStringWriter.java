@@ -0,0 +1,95 @@
+package org.folio.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Collects up to {@code maxLength} characters. The write that reaches the limit fails with
+ * {@link LimitReachedException}, so that a serializer writing into it stops early instead
+ * of producing output that would be cropped anyway; later writes (e.g. a flush on close)
+ * are ignored.
+ */
+class BoundedStringWriter extends Writer {
+  private final StringBuilder builder;
+  private final int maxLength;
+  private boolean limitReached;
+
+  BoundedStringWriter(int maxLength) {
+    this.builder = new StringBuilder(Math.min(maxLength, 256));
+    this.maxLength = maxLength;
+  }
+
+  @Override
+  public void write(char[] chars, int offset, int length) throws IOException {
+    append(chars, offset, length);
+  }
+
+  @Override
+  public void write(String str, int offset, int length) throws IOException {
+    if (limitReached) {
+      return;
+    }
+    int remaining = maxLength - builder.length();
+    builder.append(str, offset, offset + Math.min(length, remaining));
+    checkLimit(length > remaining);
+  }
+
+  @Override
+  public void write(int c) throws IOException {
+    if (limitReached) {
+      return;
+    }
+    checkLimit(builder.length() >= maxLength);
+    builder.append((char) c);
+  }
+
+  private void append(char[] chars, int offset, int length) throws IOException {
+    if (limitReached) {
+      return;
+    }
+    int remaining = maxLength - builder.length();
+    builder.append(chars, offset, Math.min(length, remaining));
+    checkLimit(length > remaining);
+  }
+
+  private void checkLimit(boolean exceeded) throws LimitReachedException {
+    if (exceeded) {
+      limitReached = true;
+      throw new LimitReachedException();
+    }
+  }
+
+  boolean isLimitReached() {
+    return limitReached;
+  }
+
+  @Override
+  public void flush() {
+    // nothing to flush
+  }
+
+  @Override
+  public void close() {
+    // nothing to close
+  }
+
+  @Override
+  public String toString() {
+    return builder.toString();
+  }
+
+  /**
+   * Thrown once when the limit is reached; without stack trace because it only
+   * signals the end of the output.
+   */
+  static final class LimitReachedException extends IOException {
+    private LimitReachedException() {
+      super("Output limit reached");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+}
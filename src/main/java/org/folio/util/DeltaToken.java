@@ -0,0 +1,139 @@
+package org.folio.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.regex.Pattern;
+
+/**
+ * Position in the changes of a user's notifications: all notifications before
+ * {@code metadata.updatedDate} and ID, and all tombstones up to the deleted date, have been
+ * returned. An empty ID is before all notifications updated at that date; a null deleted
+ * date means no tombstones are needed, as after a first call with {@value #INITIAL}.
+ * <p>
+ * The position stays behind recent changes, which may still be followed by changes committed
+ * late, so these are read again by the next call. The returned date and ID, and the returned
+ * deleted date, mark the newest notification and tombstone returned so far; what is read
+ * again up to these marks is not new.
+ */
+public record DeltaToken(String updatedDate, String id, OffsetDateTime deletedDate,
+  String returnedDate, String returnedId, OffsetDateTime returnedDeletedDate) {
+
+  public static final String INITIAL = "0";
+  private static final Pattern DATE = Pattern.compile("[0-9T:.+Z-]*");
+  private static final Pattern ID = Pattern.compile("|[0-9a-fA-F-]{36}");
+  private static final Comparator<DeltaToken> POSITION = Comparator
+    .comparing(DeltaToken::updatedDate)
+    .thenComparing(DeltaToken::id);
+
+  /**
+   * The position, with nothing returned beyond it.
+   */
+  public DeltaToken(String updatedDate, String id, OffsetDateTime deletedDate) {
+    this(updatedDate, id, deletedDate, updatedDate, id, deletedDate);
+  }
+
+  /**
+   * The token encoded by {@link #encode()}, or {@value #INITIAL} for the start.
+   *
+   * @throws IllegalArgumentException if the token is malformed
+   */
+  public static DeltaToken parse(String token) {
+    if (INITIAL.equals(token)) {
+      return new DeltaToken("", "", null);
+    }
+    String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+      .split("\\|", -1);
+    if (parts.length != 6 || !DATE.matcher(parts[0]).matches()
+      || !ID.matcher(parts[1]).matches() || !DATE.matcher(parts[3]).matches()
+      || !ID.matcher(parts[4]).matches()) {
+      throw new IllegalArgumentException("Malformed token: " + token);
+    }
+    try {
+      return new DeltaToken(parts[0], parts[1], date(parts[2]), parts[3], parts[4],
+        date(parts[5]));
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Malformed token: " + token, e);
+    }
+  }
+
+  private static OffsetDateTime date(String date) {
+    return date.isEmpty() ? null : OffsetDateTime.parse(date);
+  }
+
+  /**
+   * Whether tombstones since the deleted date may have been pruned.
+   */
+  public boolean isExpired(OffsetDateTime oldestTombstone) {
+    return deletedDate != null && deletedDate.isBefore(oldestTombstone);
+  }
+
+  /**
+   * The earlier of the notification positions of this and the other token.
+   */
+  public DeltaToken min(DeltaToken other) {
+    return POSITION.compare(this, other) <= 0 ? this : other;
+  }
+
+  /**
+   * Whether the notification position is after the one of the other token.
+   */
+  public boolean isAfter(DeltaToken other) {
+    return POSITION.compare(this, other) > 0;
+  }
+
+  /**
+   * Whether the notification at the position has not been returned yet.
+   */
+  public boolean isNew(DeltaToken position) {
+    return position.isAfter(new DeltaToken(returnedDate, returnedId, null));
+  }
+
+  /**
+   * Whether the tombstone deleted at the date has not been returned yet.
+   */
+  public boolean isNewDeletion(OffsetDateTime date) {
+    return date != null && (returnedDeletedDate == null || date.isAfter(returnedDeletedDate));
+  }
+
+  /**
+   * The next token at the position and deleted date, marking the notification at the last
+   * position and the tombstones up to the last deleted date as returned, in addition to
+   * those returned before; null for none returned now.
+   */
+  public DeltaToken next(DeltaToken position, OffsetDateTime nextDeletedDate,
+    DeltaToken lastPosition, OffsetDateTime lastDeletedDate) {
+
+    DeltaToken returned = new DeltaToken(returnedDate, returnedId, null);
+    if (position.isAfter(returned)) {
+      returned = position;
+    }
+    if (lastPosition != null && lastPosition.isAfter(returned)) {
+      returned = lastPosition;
+    }
+    OffsetDateTime returnedDeleted = latest(latest(returnedDeletedDate, nextDeletedDate),
+      lastDeletedDate);
+    return new DeltaToken(position.updatedDate(), position.id(), nextDeletedDate,
+      returned.updatedDate(), returned.id(), returnedDeleted);
+  }
+
+  private static OffsetDateTime latest(OffsetDateTime date, OffsetDateTime other) {
+    if (date == null || other != null && other.isAfter(date)) {
+      return other;
+    }
+    return date;
+  }
+
+  /**
+   * The opaque token to return to the client.
+   */
+  public String encode() {
+    String token = updatedDate + "|" + id + "|" + (deletedDate == null ? "" : deletedDate)
+      + "|" + returnedDate + "|" + returnedId + "|"
+      + (returnedDeletedDate == null ? "" : returnedDeletedDate);
+    return Base64.getUrlEncoder().withoutPadding()
+      .encodeToString(token.getBytes(StandardCharsets.UTF_8));
+  }
+}
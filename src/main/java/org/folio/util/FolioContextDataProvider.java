@@ -0,0 +1,79 @@
+package org.folio.util;
+
+import java.util.Map;
+
+import org.apache.logging.log4j.core.util.ContextDataProvider;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.apache.logging.log4j.util.StringMap;
+import org.folio.okapi.common.logging.FolioLoggingContext;
+
+import io.vertx.core.Vertx;
+
+/**
+ * Copies the {@link FolioLoggingContext} values of the current Vert.x context into the
+ * context data of each log event when the event is created. Asynchronous loggers format
+ * events on a background thread without Vert.x context, where the
+ * {@code $${FolioLoggingContext:...}} lookups are empty; {@code %X{requestId}} etc.
+ * read the captured values instead.
+ * <p>
+ * Only active with the asynchronous profile ({@value #ASYNC_CONFIGURATION} as log4j
+ * configuration file) or if the system property {@value #ENABLED} is {@code true}; the
+ * synchronous profiles use the lookups. The values are written to a map reused per thread,
+ * which log4j copies into the event, so no map is allocated per event.
+ */
+public class FolioContextDataProvider implements ContextDataProvider {
+  public static final String ENABLED = "folio.logging.contextData";
+  static final String ASYNC_CONFIGURATION = "log4j2-async.properties";
+  static final String[] KEYS = { "requestId", "tenantId", "userId", "moduleId" };
+  private static final StringMap EMPTY = frozen(new SortedArrayStringMap(0));
+  private final boolean enabled;
+  private final FolioLoggingContext folioLoggingContext = new FolioLoggingContext();
+  private final ThreadLocal<StringMap> contextData =
+    ThreadLocal.withInitial(() -> new SortedArrayStringMap(KEYS.length));
+
+  public FolioContextDataProvider() {
+    this(isEnabled(System.getProperty(ENABLED), System.getProperty("log4j2.configurationFile",
+      System.getProperty("log4j.configurationFile"))));
+  }
+
+  FolioContextDataProvider(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  static boolean isEnabled(String enabled, String configurationFile) {
+    if (enabled != null) {
+      return Boolean.parseBoolean(enabled.trim());
+    }
+    return configurationFile != null && configurationFile.trim().endsWith(ASYNC_CONFIGURATION);
+  }
+
+  @Override
+  public Map<String, String> supplyContextData() {
+    return supplyStringMap().toMap();
+  }
+
+  /**
+   * The values of the current Vert.x context, in a map that is only valid until the next
+   * call on the same thread.
+   */
+  @Override
+  public StringMap supplyStringMap() {
+    if (!enabled || Vertx.currentContext() == null) {
+      return EMPTY;
+    }
+    StringMap data = contextData.get();
+    data.clear();
+    for (String key : KEYS) {
+      String value = folioLoggingContext.lookup(key);
+      if (value != null && !value.isEmpty()) {
+        data.putValue(key, value);
+      }
+    }
+    return data;
+  }
+
+  private static StringMap frozen(StringMap map) {
+    map.freeze();
+    return map;
+  }
+}
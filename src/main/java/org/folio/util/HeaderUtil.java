@@ -0,0 +1,29 @@
+package org.folio.util;
+
+import java.util.Map;
+
+public class HeaderUtil {
+
+  private HeaderUtil() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  /**
+   * The value of the header, looked up case-insensitively, or null if it is missing.
+   */
+  public static String header(Map<String, String> headers, String name) {
+    if (headers == null) {
+      return null;
+    }
+    String value = headers.get(name);
+    if (value != null) {
+      return value;
+    }
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      if (name.equalsIgnoreCase(header.getKey())) {
+        return header.getValue();
+      }
+    }
+    return null;
+  }
+}
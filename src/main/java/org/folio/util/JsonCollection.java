@@ -0,0 +1,36 @@
+package org.folio.util;
+
+import java.util.List;
+
+/**
+ * Writes a collection response from the JSON text of its items without parsing them, in the
+ * layout RMB uses for serialized collections:
+ * {@code {"<name>" : [ item, ... ], "totalRecords" : n}}. The items must be valid JSON
+ * objects, e.g. the jsonb of rows as read from the database.
+ */
+public class JsonCollection {
+  private static final int ENVELOPE_SIZE = 64;
+
+  private JsonCollection() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  public static String of(String name, List<String> items, int totalRecords) {
+    int size = ENVELOPE_SIZE + name.length();
+    for (String item : items) {
+      size += item.length() + 2;
+    }
+    StringBuilder buffer = new StringBuilder(size)
+      .append("{\n  \"").append(name).append("\" : [ ");
+    for (int i = 0; i < items.size(); i++) {
+      if (i > 0) {
+        buffer.append(", ");
+      }
+      buffer.append(items.get(i));
+    }
+    return buffer.append(items.isEmpty() ? "],\n" : " ],\n")
+      .append("  \"totalRecords\" : ").append(totalRecords)
+      .append("\n}")
+      .toString();
+  }
+}
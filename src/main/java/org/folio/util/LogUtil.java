@@ -3,6 +3,7 @@ package org.folio.util;
 import static com.google.common.primitives.Ints.min;
 import static java.lang.String.format;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -10,13 +11,14 @@ import java.util.stream.Collectors;
 
 import javax.ws.rs.core.Response;
 
-import org.apache.commons.collections4.map.CaseInsensitiveMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.folio.dbschema.ObjectMapperTool;
 import org.folio.rest.jaxrs.model.PatronNoticeEntity;
-import org.folio.rest.persist.PostgresClient;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
@@ -30,6 +32,9 @@ public class LogUtil {
   public static final String R_LINE_SEPARATOR = "\\r";
   private static final int MAX_OBJECT_JSON_LENGTH = 10 * 1024;
   private static final int DEFAULT_NUM_OF_LIST_ELEMENTS_TO_LOG = 10;
+  private static final ObjectWriter JSON_WRITER = ObjectMapperTool.getMapper().writer();
+  private static final ResponseLogSettings responseLogSettings =
+    ResponseLogSettings.fromEnvironment();
 
   private LogUtil() {
     throw new IllegalStateException("Utility class");
@@ -58,7 +63,7 @@ public class LogUtil {
     }
 
     try {
-      return crop(PostgresClient.pojo2JsonObject(object).encode());
+      return toBoundedJson(object, MAX_OBJECT_JSON_LENGTH);
     } catch (JsonProcessingException jsonProcessingException) {
       log.warn("logAsJson:: Error while logging an object of type {}",
         object.getClass().getCanonicalName(), jsonProcessingException);
@@ -70,6 +75,23 @@ public class LogUtil {
     }
   }
 
+  /**
+   * Serializes the object, but stops as soon as {@code maxLength} characters have been
+   * written, so that large objects (e.g. notices with attachments) are not encoded in full
+   * just to be cropped.
+   */
+  static String toBoundedJson(Object object, int maxLength) throws IOException {
+    BoundedStringWriter writer = new BoundedStringWriter(maxLength);
+    try {
+      JSON_WRITER.writeValue(writer, object);
+    } catch (IOException e) {
+      if (!writer.isLimitReached()) {
+        throw e;
+      }
+    }
+    return writer.toString();
+  }
+
   public static String asJson(List<?> list) {
     return asJson(list, DEFAULT_NUM_OF_LIST_ELEMENTS_TO_LOG);
   }
@@ -99,15 +121,24 @@ public class LogUtil {
 
   public static String headersAsString(Map<String, String> okapiHeaders) {
     try {
-      Map<String, String> headersCopy= new CaseInsensitiveMap<>(okapiHeaders);
-      headersCopy.remove("x-okapi-token");
-      return headersCopy.toString();
+      return new OkapiHeadersMessage(okapiHeaders).getFormattedMessage();
     } catch (Exception ex) {
       log.warn("logOkapiHeaders:: Failed to log Okapi headers", ex);
       return null;
     }
   }
 
+  /**
+   * Okapi headers without the token as a log parameter, e.g.
+   * {@code log.debug("...: {}", () -> redactedHeaders(okapiHeaders))}. Unlike
+   * {@link #headersAsString} it is written directly into the log event, and unlike an
+   * {@link OkapiHeadersMessage} it is not turned into a string when returned by a
+   * {@code Supplier}.
+   */
+  public static StringBuilderFormattable redactedHeaders(Map<String, String> okapiHeaders) {
+    return buffer -> OkapiHeadersMessage.formatTo(okapiHeaders, buffer);
+  }
+
   public static String bodyAsString(HttpResponse<Buffer> response) {
     try {
       return Optional.ofNullable(response.bodyAsString())
@@ -123,18 +154,20 @@ public class LogUtil {
   public static Handler<AsyncResult<Response>> loggingResponseHandler(String methodName,
     Handler<AsyncResult<Response>> asyncResultHandler, Logger logger) {
 
+    return loggingResponseHandler(methodName, asyncResultHandler, logger, responseLogSettings);
+  }
+
+  static Handler<AsyncResult<Response>> loggingResponseHandler(String methodName,
+    Handler<AsyncResult<Response>> asyncResultHandler, Logger logger,
+    ResponseLogSettings settings) {
+
     try {
+      ResponseLogSettings.Endpoint endpoint = settings.forEndpoint(methodName);
       return responseAsyncResult -> {
-        Response response = responseAsyncResult.result();
-        Object entity = response.getEntity();
-        String template = "{}:: result: HTTP response (code: {}, body: {})";
-        if (entity instanceof String) {
-          if (log.isInfoEnabled()) {
-            logger.info(template, methodName, response.getStatus(), crop((String) entity));
-          }
-        } else {
-          logger.info(template, () -> methodName, response::getStatus,
-            () -> asJson(response.getEntity()));
+        try {
+          logResponse(methodName, responseAsyncResult, logger, endpoint, settings.getBodySize());
+        } catch (Exception ex) {
+          log.warn("loggingResponseHandler:: Failed to log an HTTP response", ex);
         }
         asyncResultHandler.handle(responseAsyncResult);
       };
@@ -145,6 +178,48 @@ public class LogUtil {
     }
   }
 
+  private static void logResponse(String methodName, AsyncResult<Response> responseAsyncResult,
+    Logger logger, ResponseLogSettings.Endpoint endpoint, int bodySize) {
+
+    if (responseAsyncResult.failed()) {
+      logger.warn("{}:: result: failed", methodName, responseAsyncResult.cause());
+      return;
+    }
+    Response response = responseAsyncResult.result();
+    String template = "{}:: result: HTTP response (code: {}, body: {})";
+    if (response.getStatus() >= 400) {
+      logger.info(template, () -> methodName, response::getStatus,
+        () -> responseBody(response.getEntity(), bodySize));
+      return;
+    }
+    if (!logger.isEnabled(endpoint.level()) || !endpoint.isSampled()) {
+      return;
+    }
+    if (logger.isDebugEnabled()) {
+      logger.log(endpoint.level(), template, () -> methodName, response::getStatus,
+        () -> responseBody(response.getEntity(), bodySize));
+    } else {
+      logger.log(endpoint.level(), "{}:: result: HTTP response (code: {})", methodName,
+        response.getStatus());
+    }
+  }
+
+  private static String responseBody(Object entity, int bodySize) {
+    if (entity == null || bodySize == 0) {
+      return null;
+    }
+    if (entity instanceof String string) {
+      return string.substring(0, min(string.length(), bodySize));
+    }
+    try {
+      return toBoundedJson(entity, bodySize);
+    } catch (Exception ex) {
+      log.warn("responseBody:: Failed to log a response entity of type {}",
+        entity.getClass().getCanonicalName(), ex);
+      return null;
+    }
+  }
+
   private static String crop(String str) {
     try {
       return str.substring(0, min(str.length(), MAX_OBJECT_JSON_LENGTH));
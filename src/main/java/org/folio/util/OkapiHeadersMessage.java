@@ -0,0 +1,84 @@
+package org.folio.util;
+
+import java.util.Map;
+
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+
+/**
+ * Okapi headers without the credentials, formatted as {@code {name=value, ...}}. The headers
+ * are written straight into the buffer of the log event, skipping the sensitive ones, without
+ * copying the map.
+ */
+public class OkapiHeadersMessage implements Message, StringBuilderFormattable {
+  private static final String[] SENSITIVE_HEADERS = { "x-okapi-token", "authorization", "cookie" };
+  private final transient Map<String, String> headers;
+
+  public OkapiHeadersMessage(Map<String, String> headers) {
+    this.headers = headers;
+  }
+
+  /**
+   * Writes the headers except the sensitive ones into the buffer.
+   */
+  public static void formatTo(Map<String, String> headers, StringBuilder buffer) {
+    if (headers == null) {
+      buffer.append("null");
+      return;
+    }
+    buffer.append('{');
+    boolean first = true;
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      if (isSensitive(header.getKey())) {
+        continue;
+      }
+      if (!first) {
+        buffer.append(", ");
+      }
+      buffer.append(header.getKey()).append('=').append(header.getValue());
+      first = false;
+    }
+    buffer.append('}');
+  }
+
+  static boolean isSensitive(String name) {
+    for (String sensitive : SENSITIVE_HEADERS) {
+      if (sensitive.equalsIgnoreCase(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void formatTo(StringBuilder buffer) {
+    formatTo(headers, buffer);
+  }
+
+  @Override
+  public String getFormattedMessage() {
+    StringBuilder buffer = new StringBuilder(256);
+    formatTo(buffer);
+    return buffer.toString();
+  }
+
+  @Override
+  public String getFormat() {
+    return null;
+  }
+
+  @Override
+  public Object[] getParameters() {
+    return null;
+  }
+
+  @Override
+  public Throwable getThrowable() {
+    return null;
+  }
+
+  @Override
+  public String toString() {
+    return getFormattedMessage();
+  }
+}
@@ -0,0 +1,107 @@
+package org.folio.util;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.UnaryOperator;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * How {@link LogUtil#loggingResponseHandler} logs the responses of the endpoints. Every value
+ * can be set with an environment variable or a system property of the same name, and be
+ * overridden for a single endpoint by appending its upper-cased method name, e.g.
+ * {@code RESPONSE_LOG_LEVEL_GETNOTIFY=DEBUG} or {@code RESPONSE_LOG_SAMPLE_RATE_POSTNOTIFY=0.1}.
+ * <p>
+ * Successful responses are logged at {@link #LEVEL} for a {@link #SAMPLE_RATE} share of the
+ * requests, and their body is only serialized if the logger is enabled for DEBUG.
+ * Error responses are always logged at INFO with their body. Bodies are cropped to
+ * {@link #BODY_SIZE} characters.
+ */
+public class ResponseLogSettings {
+  private static final Logger log = LogManager.getLogger(ResponseLogSettings.class);
+
+  public static final String LEVEL = "RESPONSE_LOG_LEVEL";
+  public static final String SAMPLE_RATE = "RESPONSE_LOG_SAMPLE_RATE";
+  public static final String BODY_SIZE = "RESPONSE_LOG_BODY_SIZE";
+  private static final int DEFAULT_BODY_SIZE = 10 * 1024;
+
+  private final UnaryOperator<String> lookup;
+  private final Settings settings;
+  private final Endpoint defaults;
+  private final int bodySize;
+  private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+  ResponseLogSettings(UnaryOperator<String> lookup) {
+    this.lookup = lookup;
+    this.settings = new Settings(lookup);
+    this.defaults = new Endpoint(levelValue(LEVEL, Level.INFO), sampleRateValue(SAMPLE_RATE, 1));
+    this.bodySize = Math.max(0, settings.intValue(BODY_SIZE, DEFAULT_BODY_SIZE));
+  }
+
+  /**
+   * Reads the settings from the environment, with system properties taking precedence.
+   */
+  public static ResponseLogSettings fromEnvironment() {
+    return new ResponseLogSettings(name -> System.getProperty(name, System.getenv(name)));
+  }
+
+  /**
+   * Settings of the endpoint implemented by the method, looked up once per method.
+   */
+  public Endpoint forEndpoint(String methodName) {
+    return endpoints.computeIfAbsent(methodName, name -> {
+      String suffix = "_" + name.toUpperCase(Locale.ROOT);
+      return new Endpoint(levelValue(LEVEL + suffix, defaults.level()),
+        sampleRateValue(SAMPLE_RATE + suffix, defaults.sampleRate()));
+    });
+  }
+
+  public int getBodySize() {
+    return bodySize;
+  }
+
+  private Level levelValue(String name, Level defaultValue) {
+    String value = lookup.apply(name);
+    if (value == null || value.isBlank()) {
+      return defaultValue;
+    }
+    Level level = Level.getLevel(value.trim().toUpperCase(Locale.ROOT));
+    if (level == null) {
+      log.warn("levelValue:: Ignoring invalid value {} of {}, using {}", value, name, defaultValue);
+      return defaultValue;
+    }
+    return level;
+  }
+
+  private double sampleRateValue(String name, double defaultValue) {
+    String value = lookup.apply(name);
+    if (value == null || value.isBlank()) {
+      return defaultValue;
+    }
+    try {
+      double rate = Double.parseDouble(value.trim());
+      if (rate >= 0 && rate <= 1) {
+        return rate;
+      }
+    } catch (NumberFormatException e) {
+      // logged below
+    }
+    log.warn("sampleRateValue:: Ignoring invalid value {} of {}, using {}", value, name,
+      defaultValue);
+    return defaultValue;
+  }
+
+  /**
+   * Level and sampling rate of the successful responses of one endpoint.
+   */
+  public record Endpoint(Level level, double sampleRate) {
+
+    boolean isSampled() {
+      return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+  }
+}
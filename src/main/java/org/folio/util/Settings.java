@@ -0,0 +1,54 @@
+package org.folio.util;
+
+import java.util.function.UnaryOperator;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Numeric settings of the module, looked up by name. Blank values fall back to the default,
+ * and so do invalid ones, with a warning.
+ */
+public class Settings {
+  private static final Logger log = LogManager.getLogger(Settings.class);
+
+  private final UnaryOperator<String> lookup;
+
+  public Settings(UnaryOperator<String> lookup) {
+    this.lookup = lookup;
+  }
+
+  /**
+   * Reads the settings from the environment, with system properties taking precedence.
+   */
+  public static Settings fromEnvironment() {
+    return new Settings(name -> System.getProperty(name, System.getenv(name)));
+  }
+
+  public int intValue(String name, int defaultValue) {
+    String value = lookup.apply(name);
+    if (value == null || value.isBlank()) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      log.warn("intValue:: Ignoring invalid value {} of {}, using {}", value, name, defaultValue);
+      return defaultValue;
+    }
+  }
+
+  public long longValue(String name, long defaultValue) {
+    String value = lookup.apply(name);
+    if (value == null || value.isBlank()) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      log.warn("longValue:: Ignoring invalid value {} of {}, using {}", value, name,
+        defaultValue);
+      return defaultValue;
+    }
+  }
+}
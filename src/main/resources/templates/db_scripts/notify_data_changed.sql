@@ -0,0 +1,27 @@
+-- Publishes every change of a notification on the channel mod_notify_changes, so that all
+-- instances of the module learn about it. The payload is <operation>|<tenant>|<recipientId>,
+-- operation being I (insert), U (update) or D (delete), with the recipient ID in lower case
+-- like ChangeFeed.recipientKey, since the recipientId== query ignores case. Postgres drops
+-- identical payloads of the same transaction, so a batch insert or a purge notifies each
+-- recipient only once.
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.notify_data_changed()
+RETURNS trigger AS $$
+BEGIN
+  IF TG_OP <> 'INSERT' THEN
+    PERFORM pg_notify('mod_notify_changes',
+      left(TG_OP, 1) || '|${myuniversity}|' || lower(coalesce(OLD.jsonb->>'recipientId', '')));
+  END IF;
+  IF TG_OP = 'INSERT'
+    OR (TG_OP = 'UPDATE' AND NEW.jsonb->>'recipientId' IS DISTINCT FROM OLD.jsonb->>'recipientId')
+  THEN
+    PERFORM pg_notify('mod_notify_changes',
+      left(TG_OP, 1) || '|${myuniversity}|' || lower(coalesce(NEW.jsonb->>'recipientId', '')));
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS notify_data_changed ON ${myuniversity}_${mymodule}.notify_data;
+CREATE TRIGGER notify_data_changed
+  AFTER INSERT OR UPDATE OR DELETE ON ${myuniversity}_${mymodule}.notify_data
+  FOR EACH ROW EXECUTE FUNCTION ${myuniversity}_${mymodule}.notify_data_changed();
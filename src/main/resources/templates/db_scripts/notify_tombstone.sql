@@ -0,0 +1,49 @@
+-- Tombstones of deleted notifications, for GET /notify/user/_self/delta?since=<token>.
+-- A notification moved to another recipient leaves a tombstone for the previous one; a
+-- notification inserted again removes its tombstone. Tombstones are kept for 30 days
+-- (TOMBSTONE_DAYS in NotificationsResourceImpl), older ones are pruned after each delete.
+CREATE TABLE IF NOT EXISTS ${myuniversity}_${mymodule}.notify_tombstone (
+  id uuid PRIMARY KEY,
+  recipient_id text NOT NULL,
+  deleted_date timestamptz NOT NULL DEFAULT now()
+);
+CREATE INDEX IF NOT EXISTS notify_tombstone_recipient_id_deleted_date_idx
+  ON ${myuniversity}_${mymodule}.notify_tombstone (recipient_id, deleted_date);
+CREATE INDEX IF NOT EXISTS notify_tombstone_deleted_date_idx
+  ON ${myuniversity}_${mymodule}.notify_tombstone (deleted_date);
+
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.notify_data_tombstone()
+RETURNS trigger AS $$
+BEGIN
+  IF TG_OP = 'DELETE'
+    OR (TG_OP = 'UPDATE' AND NEW.jsonb->>'recipientId' IS DISTINCT FROM OLD.jsonb->>'recipientId')
+  THEN
+    INSERT INTO ${myuniversity}_${mymodule}.notify_tombstone (id, recipient_id)
+      VALUES (OLD.id, lower(coalesce(OLD.jsonb->>'recipientId', '')))
+      ON CONFLICT (id) DO UPDATE
+        SET recipient_id = EXCLUDED.recipient_id, deleted_date = EXCLUDED.deleted_date;
+  ELSIF TG_OP = 'INSERT' THEN
+    DELETE FROM ${myuniversity}_${mymodule}.notify_tombstone WHERE id = NEW.id;
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.notify_tombstone_prune()
+RETURNS trigger AS $$
+BEGIN
+  DELETE FROM ${myuniversity}_${mymodule}.notify_tombstone
+    WHERE deleted_date < now() - interval '30 days';
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS notify_data_tombstone ON ${myuniversity}_${mymodule}.notify_data;
+CREATE TRIGGER notify_data_tombstone
+  AFTER INSERT OR UPDATE OR DELETE ON ${myuniversity}_${mymodule}.notify_data
+  FOR EACH ROW EXECUTE FUNCTION ${myuniversity}_${mymodule}.notify_data_tombstone();
+
+DROP TRIGGER IF EXISTS notify_tombstone_prune ON ${myuniversity}_${mymodule}.notify_data;
+CREATE TRIGGER notify_tombstone_prune
+  AFTER DELETE ON ${myuniversity}_${mymodule}.notify_data
+  FOR EACH STATEMENT EXECUTE FUNCTION ${myuniversity}_${mymodule}.notify_tombstone_prune();
@@ -0,0 +1,85 @@
+package org.folio.benchmark;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.okapi.common.logging.FolioLoggingContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+/**
+ * Load test of the synchronous (log4j2.properties) and the asynchronous
+ * (log4j2-async.properties) logging profile: concurrent requests are simulated by tasks
+ * on one Vert.x event loop that each log as many INFO lines as a {@code POST /notify}
+ * does. The sample time percentiles show how long a task waits for the event loop,
+ * including the time other tasks spend logging. Both profiles write to
+ * target/benchmark-logging.log instead of the console; each runs in its own fork
+ * because log4j is configured once per JVM. Under sustained overload the asynchronous
+ * profile drops INFO lines (see log4j2.component.properties) rather than slowing down.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+public class AsyncLoggingBenchmark {
+  private static final int LINES_PER_REQUEST = 20;
+
+  @Param({"benchmark/log4j2-sync.properties", "benchmark/log4j2-async.properties"})
+  public String configuration;
+
+  private Vertx vertx;
+  private Context context;
+  private Logger logger;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    System.setProperty("log4j.configurationFile", configuration);
+    if (configuration.endsWith("async.properties")) {
+      System.setProperty("log4j2.garbagefreeThreadContextMap", "true");
+    }
+    logger = LogManager.getLogger(AsyncLoggingBenchmark.class);
+    vertx = Vertx.vertx();
+    context = vertx.getOrCreateContext();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    vertx.close().toCompletionStage().toCompletableFuture().get();
+    LogManager.shutdown();
+  }
+
+  @Benchmark
+  public Object request() throws Exception {
+    CompletableFuture<Object> done = new CompletableFuture<>();
+    context.runOnContext(v -> {
+      FolioLoggingContext.put("requestId", "123456/notify");
+      FolioLoggingContext.put("tenantId", "diku");
+      for (int i = 0; i < LINES_PER_REQUEST; i++) {
+        logger.info("request:: processing step {} of notification {}", i,
+          "a049c22f-694b-41cf-a3b4-8eefd3685cdd");
+      }
+      done.complete(v);
+    });
+    return done.get();
+  }
+}
@@ -0,0 +1,69 @@
+package org.folio.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.folio.rest.jaxrs.model.Attachment;
+import org.folio.rest.jaxrs.model.Message;
+import org.folio.rest.jaxrs.model.Notification;
+import org.folio.rest.jaxrs.model.NotifyCollection;
+import org.folio.rest.jaxrs.model.NotifySendRequest;
+
+/**
+ * Test data of realistic size for the benchmarks: notifications with a sentence of text
+ * and a link, and patron notices with an HTML body and an optional PDF attachment.
+ */
+final class BenchmarkData {
+  static final String RECIPIENT_ID = "a049c22f-694b-41cf-a3b4-8eefd3685cdd";
+
+  private BenchmarkData() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  static Notification notification() {
+    return new Notification()
+      .withId(UUID.randomUUID().toString())
+      .withRecipientId(RECIPIENT_ID)
+      .withSenderId("e0ffd1b1-6d2a-4a5b-93f4-8e5f6b5f0c1a")
+      .withText("The item \"Introduction to algorithms\" you requested is now available "
+        + "for pickup at the circulation desk until 2026-11-02.")
+      .withLink("/inventory/view/3f9b4c1e-2b6a-4e0f-9d1c-7a8e5b6c4d2f")
+      .withEventConfigName("AVAILABLE_FOR_PICKUP")
+      .withLang("en")
+      .withSeen(false);
+  }
+
+  static NotifyCollection notifyCollection(int size) {
+    List<Notification> notifications = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      notifications.add(notification());
+    }
+    return new NotifyCollection()
+      .withNotifications(notifications)
+      .withTotalRecords(size);
+  }
+
+  static Message message(int attachmentSize) {
+    Message message = new Message()
+      .withDeliveryChannel("email")
+      .withHeader("Item available for pickup")
+      .withBody("<p>Dear Alex,</p><p>" + "The item you requested is now available. ".repeat(20)
+        + "</p>")
+      .withOutputFormat("text/html");
+    if (attachmentSize > 0) {
+      message.withAttachments(List.of(new Attachment()
+        .withContentType("application/pdf")
+        .withName("notice.pdf")
+        .withData("A".repeat(attachmentSize))));
+    }
+    return message;
+  }
+
+  static NotifySendRequest notifySendRequest(int attachmentSize) {
+    return new NotifySendRequest()
+      .withNotificationId(UUID.randomUUID().toString())
+      .withRecipientUserId(RECIPIENT_ID)
+      .withMessages(List.of(message(attachmentSize)));
+  }
+}
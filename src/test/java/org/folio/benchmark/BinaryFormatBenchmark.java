@@ -0,0 +1,61 @@
+package org.folio.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.folio.rest.jaxrs.model.NotifyCollection;
+import org.folio.util.BinaryJson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Encoding and decoding of a collection of {@link #size} notifications as returned by
+ * {@code GET /notify} in JSON, CBOR and Smile, with the mappers of {@link BinaryJson}. The
+ * payload size of each format is printed at the start of the trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BinaryFormatBenchmark {
+
+  @Param({"application/json", BinaryJson.CBOR, BinaryJson.SMILE})
+  public String mediaType;
+
+  @Param({"10", "1000"})
+  public int size;
+
+  private ObjectMapper mapper;
+  private NotifyCollection collection;
+  private byte[] encoded;
+
+  @Setup
+  public void setUp() throws Exception {
+    mapper = BinaryJson.mapper(mediaType);
+    collection = BenchmarkData.notifyCollection(size);
+    encoded = mapper.writeValueAsBytes(collection);
+    System.out.printf("%s, %d notifications: %d bytes%n", mediaType, size, encoded.length);
+  }
+
+  @Benchmark
+  public byte[] encodeNotifyCollection() throws Exception {
+    return mapper.writeValueAsBytes(collection);
+  }
+
+  @Benchmark
+  public NotifyCollection decodeNotifyCollection() throws Exception {
+    return mapper.readValue(encoded, NotifyCollection.class);
+  }
+}
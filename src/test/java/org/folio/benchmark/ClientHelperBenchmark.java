@@ -0,0 +1,96 @@
+package org.folio.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.helper.OkapiModulesClientHelper;
+import org.folio.rest.jaxrs.model.Context;
+import org.folio.rest.jaxrs.model.Message;
+import org.folio.rest.jaxrs.model.Notification;
+import org.folio.rest.jaxrs.model.NotifySendRequest;
+import org.folio.rest.jaxrs.model.PatronNoticeEntity;
+import org.folio.rest.jaxrs.model.Result;
+import org.folio.rest.jaxrs.model.Template;
+import org.folio.rest.jaxrs.model.TemplateProcessingRequest;
+import org.folio.rest.jaxrs.model.TemplateProcessingResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building the requests to mod-template-engine and mod-sender with
+ * {@link OkapiModulesClientHelper}, including its logging with the configuration of
+ * {@code log4j2-test.properties}, for messages with an attachment of {@link #attachmentSize}
+ * bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ClientHelperBenchmark {
+  private final OkapiModulesClientHelper helper = new OkapiModulesClientHelper();
+
+  @Param({"0", "1048576"})
+  public int attachmentSize;
+
+  private Notification notification;
+  private List<Message> messages;
+  private PatronNoticeEntity patronNotice;
+  private TemplateProcessingResult templateResult;
+  private Template template;
+
+  @Setup
+  public void setUp() {
+    notification = BenchmarkData.notification();
+    Message message = BenchmarkData.message(attachmentSize);
+    messages = List.of(message);
+    patronNotice = new PatronNoticeEntity()
+      .withRecipientId(BenchmarkData.RECIPIENT_ID)
+      .withTemplateId("d7de69f8-c5b4-4425-8ad1-c7511166ff63")
+      .withDeliveryChannel("email")
+      .withOutputFormat("text/html")
+      .withLang("en")
+      .withContext(new Context()
+        .withAdditionalProperty("user", "Alex")
+        .withAdditionalProperty("item", "Introduction to algorithms"));
+    templateResult = new TemplateProcessingResult()
+      .withResult(new Result()
+        .withHeader(message.getHeader())
+        .withBody(message.getBody())
+        .withAttachments(message.getAttachments()));
+    template = new Template()
+      .withTemplateId("d7de69f8-c5b4-4425-8ad1-c7511166ff63")
+      .withDeliveryChannel("email")
+      .withOutputFormat("text/html");
+  }
+
+  @Benchmark
+  public NotifySendRequest notifySendRequestForNotification() {
+    return helper.buildNotifySendRequest(messages, notification);
+  }
+
+  @Benchmark
+  public NotifySendRequest notifySendRequestForPatronNotice() {
+    return helper.buildNotifySendRequest(templateResult, patronNotice);
+  }
+
+  @Benchmark
+  public TemplateProcessingRequest templateRequestForNotification() {
+    return helper.buildTemplateProcessingRequest(template, notification);
+  }
+
+  @Benchmark
+  public TemplateProcessingRequest templateRequestForPatronNotice() {
+    return helper.buildTemplateProcessingRequest(patronNotice);
+  }
+}
@@ -0,0 +1,60 @@
+package org.folio.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.folio.cql2pgjson.CQL2PgJSON;
+import org.folio.rest.persist.cql.CQLWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Translation of typical CQL queries into the SQL where clause, as done by
+ * {@code NotificationsResourceImpl.getCQL} and the PostgresClient: {@link #getCql()} creates
+ * a new {@link CQL2PgJSON} per query like {@code getCQL}, {@link #sharedCql2PgJson()}
+ * reuses one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class CqlTranslationBenchmark {
+  private static final String FIELD = "notify_data.jsonb";
+
+  @Param({
+    "cql.allRecords=1",
+    "recipientId=\"a049c22f-694b-41cf-a3b4-8eefd3685cdd\" and seen=false"
+      + " sortby metadata.createdDate/sort.descending",
+    "recipientId=\"a049c22f-694b-41cf-a3b4-8eefd3685cdd\" and seen=true"
+      + " and (metadata.updatedDate<2026-10-01)",
+    "text=\"available pickup\" or link=\"/inventory*\""
+  })
+  public String query;
+
+  private CQL2PgJSON cql2PgJson;
+
+  @Setup
+  public void setUp() throws Exception {
+    cql2PgJson = new CQL2PgJSON(FIELD);
+  }
+
+  @Benchmark
+  public String getCql() throws Exception {
+    return new CQLWrapper(new CQL2PgJSON(FIELD), query, 10, 0).toString();
+  }
+
+  @Benchmark
+  public String sharedCql2PgJson() {
+    return new CQLWrapper(cql2PgJson, query, 10, 0).toString();
+  }
+}
@@ -0,0 +1,86 @@
+package org.folio.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.folio.dbschema.ObjectMapperTool;
+import org.folio.rest.jaxrs.model.Notification;
+import org.folio.rest.jaxrs.model.NotifyCollection;
+import org.folio.rest.jaxrs.model.NotifySendRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson (de)serialization with the RMB object mapper of a notification, of a collection
+ * of {@link #size} notifications as returned by {@code GET /notify}, and of the request
+ * to mod-sender with an attachment of {@link #size} KB (none if 0).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class JsonMappingBenchmark {
+  private final ObjectMapper mapper = ObjectMapperTool.getMapper();
+
+  @Param({"0", "10", "1000"})
+  public int size;
+
+  private Notification notification;
+  private byte[] notificationJson;
+  private NotifyCollection collection;
+  private byte[] collectionJson;
+  private NotifySendRequest sendRequest;
+  private byte[] sendRequestJson;
+
+  @Setup
+  public void setUp() throws Exception {
+    notification = BenchmarkData.notification();
+    notificationJson = mapper.writeValueAsBytes(notification);
+    collection = BenchmarkData.notifyCollection(size);
+    collectionJson = mapper.writeValueAsBytes(collection);
+    sendRequest = BenchmarkData.notifySendRequest(size * 1024);
+    sendRequestJson = mapper.writeValueAsBytes(sendRequest);
+  }
+
+  @Benchmark
+  public byte[] serializeNotification() throws Exception {
+    return mapper.writeValueAsBytes(notification);
+  }
+
+  @Benchmark
+  public Notification deserializeNotification() throws Exception {
+    return mapper.readValue(notificationJson, Notification.class);
+  }
+
+  @Benchmark
+  public byte[] serializeNotifyCollection() throws Exception {
+    return mapper.writeValueAsBytes(collection);
+  }
+
+  @Benchmark
+  public NotifyCollection deserializeNotifyCollection() throws Exception {
+    return mapper.readValue(collectionJson, NotifyCollection.class);
+  }
+
+  @Benchmark
+  public byte[] serializeNotifySendRequest() throws Exception {
+    return mapper.writeValueAsBytes(sendRequest);
+  }
+
+  @Benchmark
+  public NotifySendRequest deserializeNotifySendRequest() throws Exception {
+    return mapper.readValue(sendRequestJson, NotifySendRequest.class);
+  }
+}
@@ -0,0 +1,69 @@
+package org.folio.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.rest.jaxrs.model.Attachment;
+import org.folio.rest.jaxrs.model.Message;
+import org.folio.rest.jaxrs.model.NotifySendRequest;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.util.LogUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link LogUtil#asJson(Object)}, which stops serializing at the 10 KB log limit,
+ * with encoding the whole {@link NotifySendRequest} and cropping the result afterwards.
+ * The allocation per operation is reported as {@code gc.alloc.rate.norm}:
+ * {@code mvn verify -Pbenchmark -DskipTests -Dbenchmark.include=LogAsJson}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class LogAsJsonBenchmark {
+  private static final int MAX_LENGTH = 10 * 1024;
+
+  @Param({"1024", "1048576"})
+  public int attachmentSize;
+
+  private NotifySendRequest request;
+
+  @Setup
+  public void setUp() {
+    request = new NotifySendRequest()
+      .withNotificationId("e4e5a5a3-0d0c-4b6a-9a43-4f0ae2c3b6b1")
+      .withRecipientUserId("a049c22f-694b-41cf-a3b4-8eefd3685cdd")
+      .withMessages(List.of(new Message()
+        .withDeliveryChannel("email")
+        .withHeader("Hello message for Alex")
+        .withBody("Hello Alex")
+        .withOutputFormat("text/plain")
+        .withAttachments(List.of(new Attachment()
+          .withContentType("application/pdf")
+          .withName("notice.pdf")
+          .withData("A".repeat(attachmentSize))))));
+  }
+
+  @Benchmark
+  public String encodeAndCrop() throws Exception {
+    String json = PostgresClient.pojo2JsonObject(request).encode();
+    return json.substring(0, Math.min(json.length(), MAX_LENGTH));
+  }
+
+  @Benchmark
+  public String boundedAsJson() {
+    return LogUtil.asJson(request);
+  }
+}
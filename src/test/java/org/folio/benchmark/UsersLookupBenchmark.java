@@ -0,0 +1,122 @@
+package org.folio.benchmark;
+
+import static org.folio.okapi.common.XOkapiHeaders.REQUEST_ID;
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
+import static org.folio.okapi.common.XOkapiHeaders.TOKEN;
+import static org.folio.okapi.common.XOkapiHeaders.URL;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.folio.client.UsersClient;
+import org.folio.rest.tools.client.HttpClientFactory;
+import org.folio.rest.tools.client.interfaces.HttpClientInterface;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Compares the user lookup done by {@code POST /notify/_username/{username}} through a
+ * per-request RMB {@link HttpClientFactory} client with the pooled {@link UsersClient}.
+ * A local HTTP server stands in for mod-users and counts the TCP connections it accepts,
+ * which are printed after each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+public class UsersLookupBenchmark {
+  private static final String USERNAME = "mockuser9";
+  private static final String TENANT_ID = "diku";
+
+  private final AtomicInteger connections = new AtomicInteger();
+  private final AtomicInteger requests = new AtomicInteger();
+  private Vertx vertx;
+  private HttpServer server;
+  private String okapiUrl;
+  private Map<String, String> okapiHeaders;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    vertx = Vertx.vertx();
+    String usersResponse = new JsonObject()
+      .put("users", new JsonArray().add(new JsonObject()
+        .put("username", USERNAME)
+        .put("id", "99999999-9999-9999-9999-999999999999")))
+      .put("totalRecords", 1)
+      .encode();
+
+    server = vertx.createHttpServer()
+      .connectionHandler(conn -> connections.incrementAndGet())
+      .requestHandler(req -> {
+        requests.incrementAndGet();
+        req.response()
+          .putHeader("Content-Type", "application/json")
+          .end(usersResponse);
+      });
+    server.listen(0).toCompletionStage().toCompletableFuture().get();
+
+    okapiUrl = "http://localhost:" + server.actualPort();
+    okapiHeaders = Map.of(
+      URL, okapiUrl,
+      TENANT, TENANT_ID,
+      TOKEN, "token",
+      REQUEST_ID, "benchmark");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    vertx.close().toCompletionStage().toCompletableFuture().get();
+  }
+
+  @Setup(Level.Iteration)
+  public void resetCounters() {
+    connections.set(0);
+    requests.set(0);
+  }
+
+  @TearDown(Level.Iteration)
+  public void printCounters() {
+    System.out.printf("%n  connections opened: %d, requests served: %d%n",
+      connections.get(), requests.get());
+  }
+
+  @Benchmark
+  public Object rmbHttpClientPerRequest() throws Exception {
+    HttpClientInterface client = HttpClientFactory.getHttpClient(okapiUrl, TENANT_ID);
+    try {
+      return client.request("/users?query=username%3D%3D%22" + USERNAME + "%22", okapiHeaders)
+        .get();
+    } finally {
+      client.closeClient();
+    }
+  }
+
+  @Benchmark
+  public Object pooledUsersClient() throws Exception {
+    return new UsersClient(vertx, okapiHeaders)
+      .getUsersByUsername(USERNAME)
+      .toCompletionStage()
+      .toCompletableFuture()
+      .get();
+  }
+}
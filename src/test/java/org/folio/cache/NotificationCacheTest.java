@@ -0,0 +1,118 @@
+package org.folio.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.folio.cache.NotificationCache.Page;
+import org.folio.cache.NotificationCache.Stamp;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class NotificationCacheTest {
+  private static final String TENANT = "diku";
+  private static final String USER_1 = "11111111-1111-1111-1111-111111111111";
+  private static final String USER_2 = "22222222-2222-2222-2222-222222222222";
+  private static final String BODY = "{\n  \"notifications\" : [ ],\n  \"totalRecords\" : 0\n}";
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final AtomicLong generation = new AtomicLong(1);
+  private final NotificationCache cache = new NotificationCache(registry, 1, 10,
+    generation::get);
+
+  @Test
+  public void shouldCacheFirstPagesOfDefaultQueries() {
+    assertEquals("|10", cache.pageKey(null, 0, 10));
+    assertEquals("seen=false|5", cache.pageKey(" seen=false ", 0, 5));
+    assertNull(cache.pageKey(null, 10, 10));
+    assertNull(cache.pageKey(null, 0, 11));
+    assertNull(cache.pageKey(null, 0, 0));
+    assertNull(cache.pageKey("seen=true", 0, 10));
+    assertNull(new NotificationCache(registry, 0, 10, generation::get).pageKey(null, 0, 10));
+  }
+
+  @Test
+  public void shouldReturnPutPageUntilInvalidated() {
+    String pageKey = cache.pageKey(null, 0, 10);
+    assertNull(cache.get(TENANT, USER_1, pageKey));
+
+    cache.put(cache.stamp(TENANT, USER_1), pageKey, "0|null", BODY);
+    assertEquals(new Page("0|null", BODY), cache.get(TENANT, USER_1, pageKey));
+    assertEquals(NotificationCache.footprint(new Page("0|null", BODY)), cache.bytes(TENANT));
+
+    cache.invalidate(TENANT, USER_1);
+    assertNull(cache.get(TENANT, USER_1, pageKey));
+    assertEquals(0, cache.bytes(TENANT));
+
+    assertEquals(1, registry.get(NotificationCache.REQUESTS).tag("result", "hit").counter()
+      .count(), 0);
+    assertEquals(2, registry.get(NotificationCache.REQUESTS).tag("result", "miss").counter()
+      .count(), 0);
+    assertEquals(1 / 3.0, registry.get(NotificationCache.HIT_RATIO).gauge().value(), 0.001);
+  }
+
+  @Test
+  public void shouldNotPutPageReadBeforeChange() {
+    String pageKey = cache.pageKey(null, 0, 10);
+    Stamp stamp = cache.stamp(TENANT, USER_1);
+
+    cache.invalidate(TENANT, USER_1);
+    cache.put(stamp, pageKey, "0|null", BODY);
+
+    assertNull(cache.get(TENANT, USER_1, pageKey));
+  }
+
+  @Test
+  public void shouldKeyRecipientsIgnoringCase() {
+    String pageKey = cache.pageKey(null, 0, 10);
+    cache.put(cache.stamp(TENANT, "ABCDEF00-0000-4000-8000-000000000000"), pageKey, "0|null",
+      BODY);
+    assertEquals(new Page("0|null", BODY),
+      cache.get(TENANT, "abcdef00-0000-4000-8000-000000000000", pageKey));
+
+    cache.invalidate(TENANT, "abcdef00-0000-4000-8000-000000000000");
+
+    assertNull(cache.get(TENANT, "ABCDEF00-0000-4000-8000-000000000000", pageKey));
+  }
+
+  @Test
+  public void shouldDropPagesOfAllRecipientsOfTenant() {
+    String pageKey = cache.pageKey(null, 0, 10);
+    cache.put(cache.stamp(TENANT, USER_1), pageKey, "0|null", BODY);
+    Stamp stamp = cache.stamp(TENANT, USER_2);
+
+    cache.invalidate(TENANT);
+    cache.put(stamp, pageKey, "0|null", BODY);
+
+    assertNull(cache.get(TENANT, USER_1, pageKey));
+    assertNull(cache.get(TENANT, USER_2, pageKey));
+    assertEquals(0, cache.bytes(TENANT));
+  }
+
+  @Test
+  public void shouldDropPagesOfOtherGeneration() {
+    String pageKey = cache.pageKey(null, 0, 10);
+    cache.put(cache.stamp(TENANT, USER_1), pageKey, "0|null", BODY);
+
+    generation.set(-1); // not listening
+    assertNull(cache.get(TENANT, USER_1, pageKey));
+    assertNull(cache.stamp(TENANT, USER_1));
+
+    generation.set(2); // listening again, changes may have been missed
+    assertNull(cache.get(TENANT, USER_1, pageKey));
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedRecipient() {
+    String pageKey = cache.pageKey(null, 0, 10);
+    cache.put(cache.stamp(TENANT, USER_1), pageKey, "0|null", BODY);
+    cache.put(cache.stamp(TENANT, USER_2), pageKey, "0|null", BODY);
+
+    assertNull(cache.get(TENANT, USER_1, pageKey));
+    assertEquals(BODY, cache.get(TENANT, USER_2, pageKey).body());
+    assertEquals(1, registry.get(NotificationCache.SIZE).gauge().value(), 0);
+    assertEquals(NotificationCache.footprint(new Page("0|null", BODY)), cache.bytes(TENANT));
+  }
+}
@@ -0,0 +1,27 @@
+package org.folio.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import io.vertx.core.buffer.Buffer;
+
+public class HttpCompressionTest {
+
+  private static final Buffer BODY = Buffer.buffer("{\"text\":\"" + "Hello Alex ".repeat(200) + "\"}");
+
+  @Test
+  public void shouldGzip() throws Exception {
+    Buffer compressed = HttpCompression.gzip(BODY);
+
+    assertTrue(compressed.length() < BODY.length());
+    try (GZIPInputStream in = new GZIPInputStream(
+      new ByteArrayInputStream(compressed.getBytes()))) {
+      assertEquals(BODY, Buffer.buffer(in.readAllBytes()));
+    }
+  }
+}
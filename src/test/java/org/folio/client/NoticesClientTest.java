@@ -0,0 +1,88 @@
+package org.folio.client;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.folio.okapi.common.XOkapiHeaders.REQUEST_ID;
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
+import static org.folio.okapi.common.XOkapiHeaders.TOKEN;
+import static org.folio.okapi.common.XOkapiHeaders.URL;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.folio.rest.jaxrs.model.EventEntity;
+import org.folio.rest.jaxrs.model.EventEntityCollection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+
+@RunWith(VertxUnitRunner.class)
+public class NoticesClientTest {
+
+  @Rule
+  public WireMockRule mockServer = new WireMockRule(
+    WireMockConfiguration.wireMockConfig().dynamicPort());
+
+  private Vertx vertx;
+  private Map<String, String> okapiHeaders;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+    okapiHeaders = Map.of(
+      REQUEST_ID, "okapi-request-id",
+      TENANT, "okapi-tenant",
+      TOKEN, "okapi-token",
+      URL, "http://localhost:" + mockServer.port());
+    EventEntityCollection eventConfigs = new EventEntityCollection()
+      .withEventEntity(List.of(new EventEntity().withName("RESET_PASSWORD")))
+      .withTotalRecords(1);
+    mockServer.stubFor(WireMock.get(urlPathEqualTo("/eventConfig"))
+      .willReturn(okJson(JsonObject.mapFrom(eventConfigs).encode()).withFixedDelay(200)));
+  }
+
+  @After
+  public void tearDown(TestContext context) {
+    vertx.close().onComplete(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void shouldShareConcurrentEventConfigRequests(TestContext context) {
+    Future<EventEntity> first = new NoticesClient(vertx, okapiHeaders)
+      .getEventConfig("RESET_PASSWORD");
+    Future<EventEntity> second = new NoticesClient(vertx, okapiHeaders)
+      .getEventConfig("RESET_PASSWORD");
+
+    Future.all(first, second).onComplete(context.asyncAssertSuccess(v -> {
+      context.assertNotEquals(first.result(), null);
+      context.assertFalse(first.result() == second.result());
+      mockServer.verify(1, getRequestedFor(urlPathEqualTo("/eventConfig")));
+    }));
+  }
+
+  @Test
+  public void shouldNotShareRequestsOfDifferentTenants(TestContext context) {
+    Map<String, String> otherTenant = new HashMap<>(okapiHeaders);
+    otherTenant.put(TENANT, "other-tenant");
+
+    Future.all(
+        new NoticesClient(vertx, okapiHeaders).getEventConfig("RESET_PASSWORD"),
+        new NoticesClient(vertx, otherTenant).getEventConfig("RESET_PASSWORD"))
+      .onComplete(context.asyncAssertSuccess(v ->
+        mockServer.verify(2, getRequestedFor(urlPathEqualTo("/eventConfig")))));
+  }
+}
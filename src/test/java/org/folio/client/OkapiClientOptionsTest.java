@@ -0,0 +1,57 @@
+package org.folio.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.PoolOptions;
+
+public class OkapiClientOptionsTest {
+
+  @Test
+  public void shouldUseVertxDefaultsWhenNothingIsConfigured() {
+    OkapiClientOptions options = new OkapiClientOptions(name -> null);
+
+    assertEquals(PoolOptions.DEFAULT_MAX_POOL_SIZE, options.poolOptions().getHttp1MaxSize());
+    assertEquals(PoolOptions.DEFAULT_MAX_POOL_SIZE, options.capacity());
+    assertFalse(options.isHttp2());
+    assertTrue(options.webClientOptions().isKeepAlive());
+    assertEquals(HttpVersion.HTTP_1_1, options.webClientOptions().getProtocolVersion());
+    assertTrue(options.webClientOptions().isDecompressionSupported());
+  }
+
+  @Test
+  public void shouldReadConfiguredValues() {
+    Map<String, String> env = Map.of(
+      OkapiClientOptions.POOL_SIZE, "20",
+      OkapiClientOptions.WAIT_QUEUE_SIZE, "100",
+      OkapiClientOptions.KEEP_ALIVE_TIMEOUT, "30",
+      OkapiClientOptions.IDLE_TIMEOUT, "120",
+      OkapiClientOptions.HTTP2, "true",
+      OkapiClientOptions.HTTP2_MULTIPLEXING_LIMIT, "50",
+      OkapiClientOptions.COMPRESSION, "false");
+    OkapiClientOptions options = new OkapiClientOptions(env::get);
+
+    assertEquals(20, options.poolOptions().getHttp2MaxSize());
+    assertEquals(100, options.poolOptions().getMaxWaitQueueSize());
+    assertEquals(30, options.webClientOptions().getKeepAliveTimeout());
+    assertEquals(120, options.webClientOptions().getIdleTimeout());
+    assertEquals(HttpVersion.HTTP_2, options.webClientOptions().getProtocolVersion());
+    assertFalse(options.webClientOptions().isHttp2ClearTextUpgrade());
+    assertEquals(1000, options.capacity());
+    assertFalse(options.webClientOptions().isDecompressionSupported());
+  }
+
+  @Test
+  public void shouldIgnoreInvalidNumbers() {
+    OkapiClientOptions options = new OkapiClientOptions(
+      Map.of(OkapiClientOptions.POOL_SIZE, "many")::get);
+
+    assertEquals(PoolOptions.DEFAULT_MAX_POOL_SIZE, options.getPoolSize());
+  }
+}
@@ -0,0 +1,31 @@
+package org.folio.client;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class OkapiClientTrafficMetricsTest {
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final OkapiClientTrafficMetrics metrics = new OkapiClientTrafficMetrics(registry);
+
+  @Test
+  public void shouldRegisterCounters() {
+    metrics.requestSent(2000, 300);
+    metrics.requestSent(100, 100);
+    metrics.responseReceived(5000);
+
+    assertEquals(2, count(OkapiClientTrafficMetrics.REQUEST_BODIES), 0);
+    assertEquals(1, count(OkapiClientTrafficMetrics.COMPRESSED_REQUESTS), 0);
+    assertEquals(2100, count(OkapiClientTrafficMetrics.REQUEST_BYTES), 0);
+    assertEquals(400, count(OkapiClientTrafficMetrics.REQUEST_BYTES_ON_WIRE), 0);
+    assertEquals(1, count(OkapiClientTrafficMetrics.RESPONSE_BODIES), 0);
+    assertEquals(5000, count(OkapiClientTrafficMetrics.RESPONSE_BYTES), 0);
+    assertEquals(400, metrics.getRequestBytesOnWire());
+  }
+
+  private double count(String name) {
+    return registry.get(name).functionCounter().count();
+  }
+}
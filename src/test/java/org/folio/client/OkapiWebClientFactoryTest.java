@@ -0,0 +1,68 @@
+package org.folio.client;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+
+import org.folio.metrics.MetricsRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+
+@RunWith(VertxUnitRunner.class)
+public class OkapiWebClientFactoryTest {
+
+  @Rule
+  public WireMockRule mockServer = new WireMockRule(
+    WireMockConfiguration.wireMockConfig().dynamicPort());
+
+  private Vertx vertx;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void tearDown(TestContext context) {
+    vertx.close().onComplete(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void shouldShareOneClientPerVertx(TestContext context) {
+    context.assertTrue(OkapiWebClientFactory.getWebClient(vertx)
+      == OkapiWebClientFactory.getWebClient(vertx));
+  }
+
+  @Test
+  public void shouldCountPoolUsage(TestContext context) {
+    mockServer.stubFor(get("/ping").willReturn(ok()));
+
+    OkapiWebClientFactory.getWebClient(vertx)
+      .getAbs("http://localhost:" + mockServer.port() + "/ping")
+      .send()
+      .compose(r -> OkapiWebClientFactory.getWebClient(vertx)
+        .getAbs("http://localhost:" + mockServer.port() + "/ping")
+        .send())
+      .onComplete(context.asyncAssertSuccess(r -> {
+        OkapiClientPoolMetrics metrics = OkapiWebClientFactory.getMetrics(vertx);
+        context.assertEquals(2L, metrics.getRequests());
+        context.assertEquals(0, metrics.getInUse());
+        context.assertEquals(0, metrics.getWaiting());
+        context.assertEquals(1, metrics.getOpenConnections());
+        context.assertTrue(metrics.snapshot().containsKey("utilization"));
+        context.assertTrue(MetricsRegistry.get().get(OkapiClientPoolMetrics.WAIT).timer()
+          .count() >= 2);
+        context.assertEquals(0.0, MetricsRegistry.get().get(OkapiClientPoolMetrics.IN_USE)
+          .gauge().value());
+      }));
+  }
+}
@@ -0,0 +1,141 @@
+package org.folio.client;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+public class SingleFlightTest {
+
+  private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+  @Test
+  public void shouldShareCallInFlight() {
+    Promise<String> promise = Promise.promise();
+
+    Future<String> first = singleFlight.execute("key", promise::future);
+    Future<String> second = singleFlight.execute("key", () -> Future.succeededFuture("other"));
+    promise.complete("value");
+
+    assertEquals("value", first.result());
+    assertSame(first.result(), second.result());
+    assertEquals(1, singleFlight.getCalls());
+    assertEquals(1, singleFlight.getCoalesced());
+    assertEquals(0, singleFlight.getInFlight());
+  }
+
+  @Test
+  public void shouldCompleteEachCallerOnItsContext() throws Exception {
+    Vertx vertx = Vertx.vertx();
+    try {
+      Context first = newContext(vertx);
+      Context second = newContext(vertx);
+      Promise<String> promise = Promise.promise();
+      AtomicReference<Context> starter = new AtomicReference<>();
+      Map<Context, Thread> callerThreads = new ConcurrentHashMap<>();
+      Map<Context, Context> callbackContexts = new ConcurrentHashMap<>();
+      Map<Context, Thread> callbackThreads = new ConcurrentHashMap<>();
+      CountDownLatch started = new CountDownLatch(2);
+      CountDownLatch completed = new CountDownLatch(2);
+      for (Context context : List.of(first, second)) {
+        context.runOnContext(v -> {
+          callerThreads.put(context, Thread.currentThread());
+          singleFlight.execute("key", () -> {
+            starter.set(context);
+            return promise.future();
+          }).onComplete(ar -> {
+            callbackContexts.put(context, Vertx.currentContext());
+            callbackThreads.put(context, Thread.currentThread());
+            completed.countDown();
+          });
+          started.countDown();
+        });
+      }
+      assertTrue(started.await(5, SECONDS));
+      assertNotSame(callerThreads.get(first), callerThreads.get(second));
+      // the call started by one caller completes on the context of that caller
+      starter.get().runOnContext(v -> promise.complete("value"));
+      assertTrue(completed.await(5, SECONDS));
+
+      assertEquals(1, singleFlight.getCalls());
+      assertEquals(1, singleFlight.getCoalesced());
+      for (Context context : List.of(first, second)) {
+        assertSame(context, callbackContexts.get(context));
+        assertSame(callerThreads.get(context), callbackThreads.get(context));
+      }
+    } finally {
+      vertx.close().toCompletionStage().toCompletableFuture().get(5, SECONDS);
+    }
+  }
+
+  private static Context newContext(Vertx vertx) throws Exception {
+    CompletableFuture<Context> deployed = new CompletableFuture<>();
+    vertx.deployVerticle(new AbstractVerticle() {
+      @Override
+      public void start() {
+        deployed.complete(context);
+      }
+    });
+    return deployed.get(5, SECONDS);
+  }
+
+  @Test
+  public void shouldNotShareCallsWithDifferentKeys() {
+    Promise<String> promise = Promise.promise();
+
+    singleFlight.execute("a", promise::future);
+    Future<String> other = singleFlight.execute("b", () -> Future.succeededFuture("b"));
+
+    assertEquals("b", other.result());
+    assertEquals(2, singleFlight.getCalls());
+    assertEquals(1, singleFlight.getInFlight());
+  }
+
+  @Test
+  public void shouldStartNewCallAfterCompletion() {
+    singleFlight.execute("key", () -> Future.succeededFuture("first"));
+    Future<String> second = singleFlight.execute("key", () -> Future.succeededFuture("second"));
+
+    assertEquals("second", second.result());
+    assertEquals(2, singleFlight.getCalls());
+  }
+
+  @Test
+  public void shouldShareFailureAndForgetIt() {
+    Promise<String> promise = Promise.promise();
+
+    Future<String> first = singleFlight.execute("key", promise::future);
+    Future<String> second = singleFlight.execute("key", promise::future);
+    promise.fail("failed");
+
+    assertTrue(first.failed());
+    assertTrue(second.failed());
+    assertEquals(0, singleFlight.getInFlight());
+  }
+
+  @Test
+  public void shouldFailWhenCallThrows() {
+    Future<String> result = singleFlight.execute("key", () -> {
+      throw new IllegalStateException("boom");
+    });
+
+    assertTrue(result.failed());
+    assertEquals(0, singleFlight.getInFlight());
+  }
+}
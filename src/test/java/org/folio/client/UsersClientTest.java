@@ -0,0 +1,156 @@
+package org.folio.client;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.serverError;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.folio.client.UsersClient.USERNAMES_PER_QUERY;
+import static org.folio.okapi.common.XOkapiHeaders.REQUEST_ID;
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
+import static org.folio.okapi.common.XOkapiHeaders.TOKEN;
+import static org.folio.okapi.common.XOkapiHeaders.URL;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+
+@RunWith(VertxUnitRunner.class)
+public class UsersClientTest {
+
+  @Rule
+  public WireMockRule usersMockServer = new WireMockRule(
+    WireMockConfiguration.wireMockConfig().dynamicPort());
+
+  private Vertx vertx;
+  private UsersClient client;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+    client = new UsersClient(vertx, Map.of(
+      REQUEST_ID, "okapi-request-id",
+      TENANT, "okapi-tenant",
+      TOKEN, "okapi-token",
+      URL, "http://localhost:" + usersMockServer.port()));
+  }
+
+  @After
+  public void tearDown(TestContext context) {
+    vertx.close().onComplete(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void shouldResolveUsernamesWithOneQueryPerChunk(TestContext context) {
+    List<String> usernames = IntStream.range(0, USERNAMES_PER_QUERY * 2 + 1)
+      .mapToObj(i -> "user" + i)
+      .toList();
+    JsonArray users = new JsonArray();
+    usernames.forEach(username -> users.add(new JsonObject()
+      .put("username", username)
+      .put("id", "id-" + username)));
+    usersMockServer.stubFor(get(urlPathEqualTo("/users"))
+      .willReturn(okJson(new JsonObject().put("users", users).encode())));
+
+    List<String> withDuplicates = new ArrayList<>(usernames);
+    withDuplicates.add("user0");
+
+    client.getUserIdsByUsernames(withDuplicates)
+      .onComplete(context.asyncAssertSuccess(userIds -> {
+        context.assertEquals(usernames.size(), userIds.size());
+        context.assertEquals("id-user7", userIds.get("user7"));
+        usersMockServer.verify(3, getRequestedFor(urlPathEqualTo("/users")));
+        usersMockServer.verify(1, getRequestedFor(urlPathEqualTo("/users"))
+          .withQueryParam("query", equalTo("username==(\"user100\")"))
+          .withQueryParam("limit", equalTo("1")));
+      }));
+  }
+
+  @Test
+  public void shouldOmitUnknownUsernames(TestContext context) {
+    usersMockServer.stubFor(get(urlPathEqualTo("/users"))
+      .withQueryParam("query", equalTo("username==(\"known\" or \"unknown\")"))
+      .willReturn(okJson(new JsonObject()
+        .put("users", new JsonArray().add(new JsonObject()
+          .put("username", "known")
+          .put("id", "id-known")))
+        .put("totalRecords", 1)
+        .encode())));
+
+    client.getUserIdsByUsernames(List.of("known", "unknown"))
+      .onComplete(context.asyncAssertSuccess(userIds ->
+        context.assertEquals(Map.of("known", "id-known"), userIds)));
+  }
+
+  @Test
+  public void shouldMatchUsernamesIgnoringCase(TestContext context) {
+    usersMockServer.stubFor(get(urlPathEqualTo("/users"))
+      .withQueryParam("query", equalTo("username==(\"JDoe\")"))
+      .willReturn(okJson(new JsonObject()
+        .put("users", new JsonArray().add(new JsonObject()
+          .put("username", "jdoe")
+          .put("id", "id-jdoe")))
+        .put("totalRecords", 1)
+        .encode())));
+
+    client.getUserIdsByUsernames(List.of("JDoe", "jdoe"))
+      .onComplete(context.asyncAssertSuccess(userIds -> {
+        context.assertEquals(Map.of("jdoe", "id-jdoe"), userIds);
+        context.assertEquals("id-jdoe", userIds.get(UsersClient.usernameKey("JDoe")));
+      }));
+  }
+
+  @Test
+  public void shouldFailWhenUserLookupFails(TestContext context) {
+    usersMockServer.stubFor(get(urlPathEqualTo("/users"))
+      .willReturn(serverError()));
+
+    client.getUserIdsByUsernames(List.of("known"))
+      .onComplete(context.asyncAssertFailure());
+  }
+
+  @Test
+  public void shouldDecodeGzipResponse(TestContext context) {
+    String users = new JsonObject().put("users", new JsonArray().add(new JsonObject()
+      .put("username", "jdoe")
+      .put("id", "id-jdoe"))).encode();
+    usersMockServer.stubFor(get(urlPathEqualTo("/users"))
+      .withHeader("Accept-Encoding", containing("gzip"))
+      .willReturn(aResponse()
+        .withHeader("Content-Type", "application/json")
+        .withHeader("Content-Encoding", "gzip")
+        .withBody(HttpCompression.gzip(Buffer.buffer(users)).getBytes())));
+
+    OkapiClientTrafficMetrics traffic = OkapiWebClientFactory.getTrafficMetrics(vertx);
+    long bytes = traffic.getResponseBytes();
+
+    client.getUsersByUsername("jdoe")
+      .onComplete(context.asyncAssertSuccess(response -> {
+        context.assertEquals(200, response.statusCode());
+        context.assertNull(response.getHeader("Content-Encoding"));
+        context.assertEquals("id-jdoe", response.bodyAsJsonObject()
+          .getJsonArray("users").getJsonObject(0).getString("id"));
+        context.assertEquals(bytes + users.length(), traffic.getResponseBytes());
+      }));
+  }
+}
@@ -0,0 +1,112 @@
+package org.folio.jfr;
+
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.folio.cql2pgjson.CQL2PgJSON;
+import org.folio.rest.persist.cql.CQLWrapper;
+import org.junit.Test;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class JfrEventsTest {
+
+  @Test
+  public void shouldRecordEventsWithTenantAndSize() throws IOException {
+    Map<String, String> okapiHeaders = Map.of(TENANT, "diku", "Content-Length", "1234");
+
+    List<RecordedEvent> events = record(() -> {
+      RequestEvent.start("postNotify").complete(okapiHeaders, 201);
+      DbCallEvent.start().complete(okapiHeaders, "INSERT", "notify_data", 1);
+      HttpClientEvent.start().complete(okapiHeaders, "POST", "/message-delivery", 204, 512, 0);
+      JsonEvent.start().complete(okapiHeaders, JsonEvent.SERIALIZE, String.class, 42);
+    });
+
+    assertEquals(4, events.size());
+    RecordedEvent request = event(events, "org.folio.notify.Request");
+    assertEquals("postNotify", request.getString("endpoint"));
+    assertEquals("diku", request.getString("tenant"));
+    assertEquals(201, request.getInt("status"));
+    assertEquals(1234, request.getLong("requestSize"));
+    RecordedEvent dbCall = event(events, "org.folio.notify.DbCall");
+    assertEquals("INSERT", dbCall.getString("operation"));
+    assertEquals(1, dbCall.getInt("rows"));
+    RecordedEvent httpClient = event(events, "org.folio.notify.HttpClient");
+    assertEquals("/message-delivery", httpClient.getString("path"));
+    assertEquals(512, httpClient.getLong("requestSize"));
+    RecordedEvent json = event(events, "org.folio.notify.Json");
+    assertEquals("String", json.getString("type"));
+    assertEquals(42, json.getLong("size"));
+  }
+
+  @Test
+  public void shouldRecordTranslationWithoutVertxContext() throws Exception {
+    CQLWrapper cql = new CQLWrapper(new CQL2PgJSON("notify_data.jsonb"), "seen=false", 10, 0);
+    List<RecordedEvent> events = record(() -> CqlTranslationEvent.start().complete(cql));
+
+    assertEquals(1, events.size());
+    assertEquals(10, events.get(0).getLong("queryLength"));
+    assertEquals(cql.toString().length(), events.get(0).getLong("sqlLength"));
+    assertNull(events.get(0).getString("tenant"));
+    assertNull(events.get(0).getString("endpoint"));
+  }
+
+  @Test
+  public void shouldNotTranslateInProfileRecording() throws Exception {
+    CQLWrapper cql = new CQLWrapper(new CQL2PgJSON("notify_data.jsonb"), "seen=false", 10, 0);
+    Path file = Files.createTempFile("mod-notify", ".jfr");
+    try (Recording recording = new Recording(Configuration.getConfiguration("profile"))) {
+      recording.start();
+      CqlTranslationEvent.start().complete(cql);
+      recording.stop();
+      recording.dump(file);
+      assertTrue(RecordingFile.readAllEvents(file).stream()
+        .noneMatch(event -> event.getEventType().getName()
+          .equals("org.folio.notify.CqlTranslation")));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  public void shouldNotFailWithoutContentLength() throws IOException {
+    List<RecordedEvent> events = record(() ->
+      RequestEvent.start("getNotify").complete(Map.of("content-length", "x"), 0));
+
+    assertEquals(-1, events.get(0).getLong("requestSize"));
+  }
+
+  private static List<RecordedEvent> record(Runnable runnable) throws IOException {
+    Path file = Files.createTempFile("mod-notify", ".jfr");
+    try (Recording recording = new Recording()) {
+      for (String name : List.of("Request", "CqlTranslation", "DbCall", "HttpClient", "Json")) {
+        recording.enable("org.folio.notify." + name);
+      }
+      recording.start();
+      runnable.run();
+      recording.stop();
+      recording.dump(file);
+      return RecordingFile.readAllEvents(file);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private static RecordedEvent event(List<RecordedEvent> events, String name) {
+    return events.stream()
+      .filter(event -> event.getEventType().getName().equals(name))
+      .findFirst()
+      .orElseThrow();
+  }
+}
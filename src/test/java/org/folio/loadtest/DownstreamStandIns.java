@@ -0,0 +1,133 @@
+package org.folio.loadtest;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.folio.rest.jaxrs.model.EventEntity;
+import org.folio.rest.jaxrs.model.EventEntityCollection;
+import org.folio.rest.jaxrs.model.Meta;
+import org.folio.rest.jaxrs.model.Result;
+import org.folio.rest.jaxrs.model.Template;
+import org.folio.rest.jaxrs.model.TemplateProcessingResult;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * WireMock stand-ins for the modules that mod-notify calls: mod-event-config,
+ * mod-template-engine, mod-sender and mod-users. Each answers after a log-normally
+ * distributed delay around its median latency, and replaces a share of its responses
+ * with a 500 error.
+ */
+class DownstreamStandIns {
+  static final String EVENT_CONFIG_NAME = "LOAD_TEST_EVENT";
+  static final String TEMPLATE_ID = "d7de69f8-c5b4-4425-8ad1-c7511166ff63";
+  static final String RECIPIENT_ID = "a049c22f-694b-41cf-a3b4-8eefd3685cdd";
+  static final String USERNAME = "loadtestuser";
+  private static final double LATENCY_SIGMA = 0.25;
+  private static final int CONTAINER_THREADS = 200;
+
+  private final WireMockServer server;
+
+  DownstreamStandIns(LoadTestSettings settings) {
+    server = new WireMockServer(wireMockConfig()
+      .dynamicPort()
+      .containerThreads(CONTAINER_THREADS)
+      .disableRequestJournal()
+      .extensions(new FailureInjector(settings.errorRates())));
+    server.start();
+
+    stub(settings, "eventConfig", get(urlPathEqualTo("/eventConfig")),
+      okJson(JsonObject.mapFrom(new EventEntityCollection()
+        .withEventEntity(List.of(new EventEntity()
+          .withName(EVENT_CONFIG_NAME)
+          .withTemplates(List.of(new Template()
+            .withTemplateId(TEMPLATE_ID)
+            .withDeliveryChannel("email")
+            .withOutputFormat("text/plain")))))
+        .withTotalRecords(1)).encode()));
+    stub(settings, "template-request", post(urlPathEqualTo("/template-request")),
+      okJson(JsonObject.mapFrom(new TemplateProcessingResult()
+        .withTemplateId(TEMPLATE_ID)
+        .withResult(new Result()
+          .withHeader("Item available for pickup")
+          .withBody("The item you requested is now available for pickup."))
+        .withMeta(new Meta().withOutputFormat("text/plain"))).encode()));
+    stub(settings, "message-delivery", post(urlPathEqualTo("/message-delivery")),
+      aResponse().withStatus(204));
+    stub(settings, "users", get(urlPathEqualTo("/users")),
+      okJson(new JsonObject()
+        .put("users", new JsonArray().add(new JsonObject()
+          .put("id", RECIPIENT_ID)
+          .put("username", USERNAME)))
+        .put("totalRecords", 1)
+        .encode()));
+  }
+
+  private void stub(LoadTestSettings settings, String standIn, MappingBuilder request,
+    ResponseDefinitionBuilder response) {
+
+    int latencyMs = settings.latencyMs().get(standIn);
+    if (latencyMs > 0) {
+      response.withLogNormalRandomDelay(latencyMs, LATENCY_SIGMA);
+    }
+    server.stubFor(request.willReturn(response));
+  }
+
+  String getUrl() {
+    return "http://localhost:" + server.port();
+  }
+
+  void stop() {
+    server.stop();
+  }
+
+  /**
+   * Replaces the response of a stand-in by a 500 error with the configured probability.
+   */
+  static class FailureInjector implements ResponseDefinitionTransformerV2 {
+    private final Map<String, Double> errorRates;
+
+    FailureInjector(Map<String, Double> errorRates) {
+      this.errorRates = errorRates;
+    }
+
+    @Override
+    public ResponseDefinition transform(ServeEvent serveEvent) {
+      ResponseDefinition response = serveEvent.getResponseDefinition();
+      String path = serveEvent.getRequest().getUrl();
+      for (Map.Entry<String, Double> errorRate : errorRates.entrySet()) {
+        if (path.startsWith("/" + errorRate.getKey())) {
+          if (ThreadLocalRandom.current().nextDouble() < errorRate.getValue()) {
+            return ResponseDefinitionBuilder.like(response).but()
+              .withStatus(500)
+              .withBody("Injected failure")
+              .build();
+          }
+          break;
+        }
+      }
+      return response;
+    }
+
+    @Override
+    public String getName() {
+      return "failure-injector";
+    }
+  }
+}
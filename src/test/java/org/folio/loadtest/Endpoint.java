@@ -0,0 +1,52 @@
+package org.folio.loadtest;
+
+import java.util.Arrays;
+
+import io.vertx.core.http.HttpMethod;
+
+/**
+ * The endpoints driven by the load test, with the status of a successful response.
+ */
+enum Endpoint {
+  NOTIFY("notify", HttpMethod.POST, "/notify", 201),
+  PATRON_NOTICE("patron-notice", HttpMethod.POST, "/patron-notice", 200),
+  USERNAME("username", HttpMethod.POST, "/notify/_username/" + DownstreamStandIns.USERNAME, 201),
+  GET_NOTIFY("get-notify", HttpMethod.GET, "/notify?limit=10&query=recipientId%3D%3D"
+    + DownstreamStandIns.RECIPIENT_ID + "%20sortby%20metadata.createdDate%2Fsort.descending",
+    200);
+
+  private final String endpointName;
+  private final HttpMethod method;
+  private final String path;
+  private final int expectedStatus;
+
+  Endpoint(String endpointName, HttpMethod method, String path, int expectedStatus) {
+    this.endpointName = endpointName;
+    this.method = method;
+    this.path = path;
+    this.expectedStatus = expectedStatus;
+  }
+
+  static Endpoint of(String endpointName) {
+    return Arrays.stream(values())
+      .filter(endpoint -> endpoint.endpointName.equals(endpointName))
+      .findFirst()
+      .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint: " + endpointName));
+  }
+
+  String getEndpointName() {
+    return endpointName;
+  }
+
+  HttpMethod getMethod() {
+    return method;
+  }
+
+  String getPath() {
+    return path;
+  }
+
+  int getExpectedStatus() {
+    return expectedStatus;
+  }
+}
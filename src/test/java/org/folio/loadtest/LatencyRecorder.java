@@ -0,0 +1,95 @@
+package org.folio.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Latencies and outcomes of the measured requests. Only used on the event loop of the
+ * load generator, so it is not thread-safe.
+ */
+class LatencyRecorder {
+  private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+  private final long[] latencies;
+  private final Map<String, Integer> failures = new TreeMap<>();
+  private int completed;
+
+  LatencyRecorder(int capacity) {
+    latencies = new long[capacity];
+  }
+
+  /**
+   * Records a successful request, with the latency from its intended start, so that a
+   * stalled server is not hidden by requests that were started late.
+   */
+  void succeeded(long latencyNanos) {
+    latencies[completed++] = latencyNanos;
+  }
+
+  void failed(String reason) {
+    failures.merge(reason, 1, Integer::sum);
+  }
+
+  int getSucceeded() {
+    return completed;
+  }
+
+  int getFailed() {
+    return failures.values().stream().mapToInt(Integer::intValue).sum();
+  }
+
+  /**
+   * The result with throughput and latency percentiles in milliseconds.
+   */
+  JsonObject toJson(LoadTestSettings settings, int sent, double elapsedSeconds) {
+    JsonObject mix = new JsonObject();
+    settings.mix().forEach((endpoint, weight) -> mix.put(endpoint.getEndpointName(), weight));
+    return new JsonObject()
+      .put("mix", mix)
+      .put("rate", settings.rate())
+      .put("durationSeconds", settings.durationSeconds())
+      .put("sent", sent)
+      .put("succeeded", completed)
+      .put("failed", getFailed())
+      .put("failures", failuresJson())
+      .put("throughput", completed / elapsedSeconds)
+      .put("latencyMs", latencyJson());
+  }
+
+  /**
+   * The latency percentiles and maximum in milliseconds.
+   */
+  JsonObject latencyJson() {
+    long[] sorted = Arrays.copyOf(latencies, completed);
+    Arrays.sort(sorted);
+    JsonObject latency = new JsonObject();
+    for (double percentile : PERCENTILES) {
+      latency.put("p" + String.valueOf(percentile).replace(".0", ""),
+        millis(percentile(sorted, percentile)));
+    }
+    latency.put("max", millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+    return latency;
+  }
+
+  JsonObject failuresJson() {
+    JsonObject failureCounts = new JsonObject();
+    failures.forEach(failureCounts::put);
+    return failureCounts;
+  }
+
+  private static long percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+  }
+
+  private static double millis(long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+}
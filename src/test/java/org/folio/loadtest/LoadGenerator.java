@@ -0,0 +1,137 @@
+package org.folio.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.okapi.common.XOkapiHeaders;
+
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+
+/**
+ * Open-model load: requests are started at the configured rate, independent of how fast
+ * earlier requests complete, and each latency is measured from the time the request
+ * was due. The endpoints are chosen round-robin according to their weights.
+ */
+class LoadGenerator {
+  private static final int MAX_POOL_SIZE = 1000;
+
+  private final Vertx vertx;
+  private final WebClient client;
+  private final LoadTestSettings settings;
+  private final String moduleUrl;
+  private final MultiMap headers;
+  private final List<Endpoint> schedule = new ArrayList<>();
+
+  LoadGenerator(Vertx vertx, LoadTestSettings settings, String moduleUrl,
+    Map<String, String> okapiHeaders) {
+
+    this.vertx = vertx;
+    this.settings = settings;
+    this.moduleUrl = moduleUrl;
+    this.client = WebClient.create(vertx, new WebClientOptions()
+      .setMaxPoolSize(MAX_POOL_SIZE)
+      .setKeepAlive(true));
+    this.headers = MultiMap.caseInsensitiveMultiMap().addAll(okapiHeaders);
+    settings.mix().forEach((endpoint, weight) -> {
+      for (int i = 0; i < weight; i++) {
+        schedule.add(endpoint);
+      }
+    });
+  }
+
+  /**
+   * Runs the load for the seconds, recording only if a recorder is given, and completes
+   * when all started requests have completed.
+   */
+  Future<Integer> run(int seconds, LatencyRecorder recorder) {
+    long total = (long) settings.rate() * seconds;
+    if (total <= 0) {
+      return Future.succeededFuture(0);
+    }
+    Promise<Integer> done = Promise.promise();
+    long start = System.nanoTime();
+    double nanosPerRequest = TimeUnit.SECONDS.toNanos(1) / (double) settings.rate();
+    int[] sent = { 0 };
+    int[] completed = { 0 };
+    vertx.setPeriodic(1, timerId -> {
+      long due = Math.min(total, (long) ((System.nanoTime() - start) / nanosPerRequest) + 1);
+      while (sent[0] < due) {
+        long intendedStart = start + (long) (sent[0] * nanosPerRequest);
+        Endpoint endpoint = schedule.get(sent[0] % schedule.size());
+        sent[0]++;
+        send(endpoint).onComplete(ar -> {
+          if (recorder != null) {
+            if (ar.succeeded() && ar.result() == endpoint.getExpectedStatus()) {
+              recorder.succeeded(System.nanoTime() - intendedStart);
+            } else {
+              recorder.failed(endpoint.getEndpointName() + " "
+                + (ar.succeeded() ? ar.result() : ar.cause().getClass().getSimpleName()));
+            }
+          }
+          completed[0]++;
+          if (completed[0] == total) {
+            done.complete(sent[0]);
+          }
+        });
+      }
+      if (sent[0] == total) {
+        vertx.cancelTimer(timerId);
+      }
+    });
+    return done.future();
+  }
+
+  private Future<Integer> send(Endpoint endpoint) {
+    HttpRequest<Buffer> request = client.requestAbs(endpoint.getMethod(),
+        moduleUrl + endpoint.getPath())
+      .putHeaders(headers);
+    JsonObject body = body(endpoint);
+    return (body == null ? request.send() : request.sendJsonObject(body))
+      .map(response -> response.statusCode());
+  }
+
+  private static JsonObject body(Endpoint endpoint) {
+    return switch (endpoint) {
+      case NOTIFY -> new JsonObject()
+        .put("id", UUID.randomUUID().toString())
+        .put("recipientId", DownstreamStandIns.RECIPIENT_ID)
+        .put("eventConfigName", DownstreamStandIns.EVENT_CONFIG_NAME)
+        .put("lang", "en")
+        .put("text", "");
+      case PATRON_NOTICE -> new JsonObject()
+        .put("recipientId", DownstreamStandIns.RECIPIENT_ID)
+        .put("templateId", DownstreamStandIns.TEMPLATE_ID)
+        .put("deliveryChannel", "email")
+        .put("outputFormat", "text/plain")
+        .put("lang", "en")
+        .put("context", new JsonObject().put("user", new JsonObject().put("name", "Alex")));
+      case USERNAME -> new JsonObject()
+        .put("text", "Your item has been returned")
+        .put("link", "items/23456");
+      case GET_NOTIFY -> null;
+    };
+  }
+
+  void close() {
+    client.close();
+  }
+
+  static Map<String, String> okapiHeaders(String tenant, String okapiUrl) {
+    return Map.of(
+      XOkapiHeaders.TENANT, tenant,
+      XOkapiHeaders.TOKEN, "token_stub",
+      XOkapiHeaders.URL, okapiUrl,
+      XOkapiHeaders.USER_ID, "2205005b-ca51-4a04-87fd-938eefa8f6de");
+  }
+}
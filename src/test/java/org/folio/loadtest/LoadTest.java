@@ -0,0 +1,68 @@
+package org.folio.loadtest;
+
+import static org.folio.loadtest.ModuleUnderTest.await;
+
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.RestVerticle;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Measures how many requests per second one instance of mod-notify handles. Boots
+ * {@link RestVerticle} with the Postgres test container and {@link DownstreamStandIns}
+ * for the called modules, drives open-model load with {@link LoadGenerator}, and writes
+ * throughput and latency percentiles to the console and as JSON to
+ * {@code loadtest.result}. See {@link LoadTestSettings} for the settings:
+ * {@code mvn verify -Ploadtest -DskipTests -Dloadtest.rate=200}
+ */
+public class LoadTest {
+  private static final Logger log = LogManager.getLogger(LoadTest.class);
+  private static final String TENANT = "loadtest";
+
+  public static void main(String[] args) throws Exception {
+    LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+    DownstreamStandIns standIns = new DownstreamStandIns(settings);
+    Vertx loadVertx = Vertx.vertx();
+    ModuleUnderTest module = null;
+    int exitCode = 0;
+    try {
+      Map<String, String> okapiHeaders = LoadGenerator.okapiHeaders(TENANT, standIns.getUrl());
+      module = ModuleUnderTest.start(okapiHeaders);
+
+      LoadGenerator generator = new LoadGenerator(loadVertx, settings, module.getUrl(),
+        okapiHeaders);
+      log.info("main:: Warming up for {} s at {} requests/s", settings.warmupSeconds(),
+        settings.rate());
+      await(generator.run(settings.warmupSeconds(), null));
+      log.info("main:: Measuring for {} s at {} requests/s", settings.durationSeconds(),
+        settings.rate());
+      LatencyRecorder recorder = new LatencyRecorder(settings.rate() * settings.durationSeconds());
+      long start = System.nanoTime();
+      int sent = await(generator.run(settings.durationSeconds(), recorder));
+      double elapsedSeconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+      generator.close();
+
+      JsonObject result = recorder.toJson(settings, sent, elapsedSeconds);
+      Files.createDirectories(settings.result().toAbsolutePath().getParent());
+      Files.writeString(settings.result(), result.encodePrettily());
+      System.out.println(result.encodePrettily());
+      log.info("main:: Result written to {}", settings.result());
+    } catch (Exception e) {
+      log.error("main:: Load test failed", e);
+      exitCode = 1;
+    } finally {
+      loadVertx.close();
+      if (module != null) {
+        module.stop();
+      }
+      standIns.stop();
+    }
+    System.exit(exitCode);
+  }
+}
@@ -0,0 +1,93 @@
+package org.folio.loadtest;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Settings of a load test run, read from system properties:
+ *
+ * <ul>
+ * <li>{@code loadtest.rate}: requests per second, started at this rate whether or not
+ * earlier requests have completed (open model), default 100</li>
+ * <li>{@code loadtest.duration}: seconds of measurement, default 60</li>
+ * <li>{@code loadtest.warmup}: seconds of load before measuring, default 20</li>
+ * <li>{@code loadtest.mix}: weights of the endpoints, default
+ * {@code notify=1,patron-notice=1,username=0}; {@code get-notify} lists the notifications of
+ * the recipient</li>
+ * <li>{@code loadtest.latencyMs}: median latency of the stand-ins in milliseconds,
+ * default 20; {@code loadtest.latencyMs.<stand-in>} overrides it for one stand-in</li>
+ * <li>{@code loadtest.errorRate}: share (0 to 1) of stand-in responses replaced by a
+ * 500 error, default 0; {@code loadtest.errorRate.<stand-in>} overrides it</li>
+ * <li>{@code loadtest.result}: file of the JSON result, default
+ * {@code target/loadtest-result.json}</li>
+ * </ul>
+ *
+ * The stand-ins are {@code eventConfig}, {@code template-request},
+ * {@code message-delivery} and {@code users}.
+ */
+record LoadTestSettings(int rate, int durationSeconds, int warmupSeconds,
+  Map<Endpoint, Integer> mix, Map<String, Integer> latencyMs, Map<String, Double> errorRates,
+  Path result) {
+
+  static final String[] STAND_INS = { "eventConfig", "template-request", "message-delivery",
+    "users" };
+
+  static LoadTestSettings fromSystemProperties() {
+    return of(System::getProperty);
+  }
+
+  static LoadTestSettings of(UnaryOperator<String> properties) {
+    Map<String, Integer> latencyMs = new LinkedHashMap<>();
+    Map<String, Double> errorRates = new LinkedHashMap<>();
+    int defaultLatency = intValue(properties, "loadtest.latencyMs", 20);
+    double defaultErrorRate = doubleValue(properties, "loadtest.errorRate", 0);
+    for (String standIn : STAND_INS) {
+      latencyMs.put(standIn, intValue(properties, "loadtest.latencyMs." + standIn,
+        defaultLatency));
+      errorRates.put(standIn, doubleValue(properties, "loadtest.errorRate." + standIn,
+        defaultErrorRate));
+    }
+    String result = properties.apply("loadtest.result");
+    return new LoadTestSettings(
+      intValue(properties, "loadtest.rate", 100),
+      intValue(properties, "loadtest.duration", 60),
+      intValue(properties, "loadtest.warmup", 20),
+      mix(value(properties, "loadtest.mix", "notify=1,patron-notice=1,username=0")),
+      latencyMs, errorRates,
+      Path.of(result == null || result.isBlank() ? "target/loadtest-result.json" : result));
+  }
+
+  static Map<Endpoint, Integer> mix(String value) {
+    Map<Endpoint, Integer> mix = new LinkedHashMap<>();
+    for (String entry : value.split(",")) {
+      String[] nameAndWeight = entry.trim().split("=", 2);
+      int weight = nameAndWeight.length == 2 ? Integer.parseInt(nameAndWeight[1].trim()) : 1;
+      if (weight > 0) {
+        mix.put(Endpoint.of(nameAndWeight[0].trim()), weight);
+      }
+    }
+    if (mix.isEmpty()) {
+      throw new IllegalArgumentException("loadtest.mix selects no endpoint: " + value);
+    }
+    return mix;
+  }
+
+  private static String value(UnaryOperator<String> properties, String name,
+    String defaultValue) {
+
+    String value = properties.apply(name);
+    return value == null || value.isBlank() ? defaultValue : value.trim();
+  }
+
+  private static int intValue(UnaryOperator<String> properties, String name, int defaultValue) {
+    return Integer.parseInt(value(properties, name, String.valueOf(defaultValue)));
+  }
+
+  private static double doubleValue(UnaryOperator<String> properties, String name,
+    double defaultValue) {
+
+    return Double.parseDouble(value(properties, name, String.valueOf(defaultValue)));
+  }
+}
@@ -0,0 +1,46 @@
+package org.folio.loadtest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class LoadTestSettingsTest {
+
+  @Test
+  public void shouldUseDefaults() {
+    LoadTestSettings settings = LoadTestSettings.of(name -> null);
+
+    assertEquals(100, settings.rate());
+    assertEquals(Map.of(Endpoint.NOTIFY, 1, Endpoint.PATRON_NOTICE, 1), settings.mix());
+    assertEquals(20, (int) settings.latencyMs().get("users"));
+    assertEquals(0, settings.errorRates().get("message-delivery"), 0);
+    assertEquals(Path.of("target/loadtest-result.json"), settings.result());
+  }
+
+  @Test
+  public void shouldOverrideLatencyAndErrorRatePerStandIn() {
+    Map<String, String> properties = Map.of(
+      "loadtest.latencyMs", "50",
+      "loadtest.latencyMs.template-request", "300",
+      "loadtest.errorRate.message-delivery", "0.05");
+
+    LoadTestSettings settings = LoadTestSettings.of(properties::get);
+
+    assertEquals(300, (int) settings.latencyMs().get("template-request"));
+    assertEquals(50, (int) settings.latencyMs().get("eventConfig"));
+    assertEquals(0.05, settings.errorRates().get("message-delivery"), 0);
+    assertEquals(0, settings.errorRates().get("users"), 0);
+  }
+
+  @Test
+  public void shouldParseMix() {
+    assertEquals(Map.of(Endpoint.NOTIFY, 3, Endpoint.USERNAME, 1),
+      LoadTestSettings.mix("notify=3, username, patron-notice=0"));
+    assertThrows(IllegalArgumentException.class, () -> LoadTestSettings.mix("notify=0"));
+    assertThrows(IllegalArgumentException.class, () -> LoadTestSettings.mix("unknown=1"));
+  }
+}
@@ -0,0 +1,96 @@
+package org.folio.loadtest;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.postgres.testing.PostgresTesterContainer;
+import org.folio.rest.RestVerticle;
+import org.folio.rest.impl.PomUtils;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.tools.utils.NetworkUtils;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.WebClient;
+
+/**
+ * mod-notify started with {@link RestVerticle} on its own Vert.x instance, with the
+ * Postgres test container and the module enabled for a tenant.
+ */
+class ModuleUnderTest {
+  private static final int TENANT_INIT_WAIT_MS = 60000;
+
+  private final Vertx vertx = Vertx.vertx();
+  private final String url;
+
+  private ModuleUnderTest(int port) {
+    this.url = "http://localhost:" + port;
+  }
+
+  /**
+   * Starts the Postgres test container and the module, and enables the module for the
+   * tenant of the Okapi headers.
+   */
+  static ModuleUnderTest start(Map<String, String> okapiHeaders) throws Exception {
+    PostgresClient.setPostgresTester(new PostgresTesterContainer());
+    ModuleUnderTest module = new ModuleUnderTest(NetworkUtils.nextFreePort());
+    await(module.vertx.deployVerticle(RestVerticle.class.getName(), new DeploymentOptions()
+      .setConfig(new JsonObject().put("http.port", module.port()))));
+    await(module.initTenant(okapiHeaders));
+    return module;
+  }
+
+  String getUrl() {
+    return url;
+  }
+
+  Vertx getVertx() {
+    return vertx;
+  }
+
+  private int port() {
+    return Integer.parseInt(url.substring(url.lastIndexOf(':') + 1));
+  }
+
+  /**
+   * Enables the module for the tenant and waits until the tenant job has finished.
+   */
+  private Future<Void> initTenant(Map<String, String> okapiHeaders) {
+    WebClient client = WebClient.create(vertx);
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap().addAll(okapiHeaders);
+    return client.postAbs(url + "/_/tenant")
+      .putHeaders(headers)
+      .sendJsonObject(new JsonObject().put("module_to", PomUtils.getModuleId()))
+      .compose(response -> {
+        if (response.statusCode() != 201) {
+          return Future.failedFuture("POST /_/tenant: " + response.statusCode() + " "
+            + response.bodyAsString());
+        }
+        String jobId = response.bodyAsJsonObject().getString("id");
+        return client.getAbs(url + "/_/tenant/" + jobId)
+          .putHeaders(headers)
+          .addQueryParam("wait", String.valueOf(TENANT_INIT_WAIT_MS))
+          .send();
+      })
+      .compose(response -> {
+        JsonObject job = response.bodyAsJsonObject();
+        if (response.statusCode() != 200 || job.getString("error") != null) {
+          return Future.failedFuture("Tenant job failed: " + response.bodyAsString());
+        }
+        return Future.<Void>succeededFuture();
+      })
+      .onComplete(ar -> client.close());
+  }
+
+  void stop() throws Exception {
+    vertx.close().toCompletionStage().toCompletableFuture().get(1, TimeUnit.MINUTES);
+    PostgresClient.stopPostgresTester();
+  }
+
+  static <T> T await(Future<T> future) throws Exception {
+    return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.MINUTES);
+  }
+}
@@ -0,0 +1,73 @@
+package org.folio.loadtest;
+
+import java.nio.file.Path;
+import java.util.function.UnaryOperator;
+
+/**
+ * Settings of a soak test run, read from system properties:
+ *
+ * <ul>
+ * <li>{@code soak.rows}: synthetic notifications loaded before the first round, default
+ * 2000000</li>
+ * <li>{@code soak.recipients}: users the notifications are spread across, default 20000</li>
+ * <li>{@code soak.maxAgeDays}: the notifications were last updated up to this many days
+ * ago, evenly spread, default 730</li>
+ * <li>{@code soak.seenRatio}: share (0 to 1) of the notifications already seen, default
+ * 0.7</li>
+ * <li>{@code soak.rounds}: measurement rounds, default 10</li>
+ * <li>{@code soak.requestsPerRound}: users per round that list their unseen notifications
+ * and mark one as seen, default 2000</li>
+ * <li>{@code soak.deleteEvery}: every n-th of these users also deletes their seen
+ * notifications with {@code DELETE /notify/user/_self}, default 10</li>
+ * <li>{@code soak.concurrency}: requests in flight, default 16</li>
+ * <li>{@code soak.churn}: notifications of random age inserted before each round,
+ * default 100000</li>
+ * <li>{@code soak.result}: file of the JSON result, default
+ * {@code target/soak-result.json}</li>
+ * </ul>
+ */
+record SoakSettings(int rows, int recipients, int maxAgeDays, double seenRatio, int rounds,
+  int requestsPerRound, int deleteEvery, int concurrency, int churn, Path result) {
+
+  static SoakSettings fromSystemProperties() {
+    return of(System::getProperty);
+  }
+
+  static SoakSettings of(UnaryOperator<String> properties) {
+    String result = properties.apply("soak.result");
+    SoakSettings settings = new SoakSettings(
+      intValue(properties, "soak.rows", 2_000_000),
+      intValue(properties, "soak.recipients", 20_000),
+      intValue(properties, "soak.maxAgeDays", 730),
+      doubleValue(properties, "soak.seenRatio", 0.7),
+      intValue(properties, "soak.rounds", 10),
+      intValue(properties, "soak.requestsPerRound", 2000),
+      intValue(properties, "soak.deleteEvery", 10),
+      intValue(properties, "soak.concurrency", 16),
+      intValue(properties, "soak.churn", 100_000),
+      Path.of(result == null || result.isBlank() ? "target/soak-result.json" : result));
+    if (settings.recipients() <= 0 || settings.rounds() <= 0 || settings.concurrency() <= 0
+      || settings.deleteEvery() <= 0) {
+      throw new IllegalArgumentException("soak.recipients, soak.rounds, soak.concurrency and "
+        + "soak.deleteEvery must be positive: " + settings);
+    }
+    return settings;
+  }
+
+  private static String value(UnaryOperator<String> properties, String name,
+    String defaultValue) {
+
+    String value = properties.apply(name);
+    return value == null || value.isBlank() ? defaultValue : value.trim();
+  }
+
+  private static int intValue(UnaryOperator<String> properties, String name, int defaultValue) {
+    return Integer.parseInt(value(properties, name, String.valueOf(defaultValue)));
+  }
+
+  private static double doubleValue(UnaryOperator<String> properties, String name,
+    double defaultValue) {
+
+    return Double.parseDouble(value(properties, name, String.valueOf(defaultValue)));
+  }
+}
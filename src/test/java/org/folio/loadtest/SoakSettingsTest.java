@@ -0,0 +1,66 @@
+package org.folio.loadtest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+public class SoakSettingsTest {
+
+  @Test
+  public void shouldUseDefaults() {
+    SoakSettings settings = SoakSettings.of(name -> null);
+
+    assertEquals(2_000_000, settings.rows());
+    assertEquals(20_000, settings.recipients());
+    assertEquals(0.7, settings.seenRatio(), 0);
+    assertEquals(10, settings.rounds());
+    assertEquals(Path.of("target/soak-result.json"), settings.result());
+  }
+
+  @Test
+  public void shouldOverrideSettings() {
+    Map<String, String> properties = Map.of(
+      "soak.rows", "10000000",
+      "soak.churn", " 0 ",
+      "soak.result", "target/soak.json");
+
+    SoakSettings settings = SoakSettings.of(properties::get);
+
+    assertEquals(10_000_000, settings.rows());
+    assertEquals(0, settings.churn());
+    assertEquals(Path.of("target/soak.json"), settings.result());
+  }
+
+  @Test
+  public void shouldRejectNonPositiveRoundsAndConcurrency() {
+    assertThrows(IllegalArgumentException.class,
+      () -> SoakSettings.of(Map.of("soak.rounds", "0")::get));
+    assertThrows(IllegalArgumentException.class,
+      () -> SoakSettings.of(Map.of("soak.concurrency", "-1")::get));
+  }
+
+  @Test
+  public void shouldComputeDriftFromFirstToLastRound() {
+    JsonObject first = round(10, 40, 1000);
+    JsonObject last = round(15, 100, 1500);
+
+    JsonObject drift = SoakTest.drift(first, last);
+
+    assertEquals(1.5, drift.getJsonObject("listSelf").getDouble("p50"), 1e-9);
+    assertEquals(2.5, drift.getJsonObject("listSelf").getDouble("p99"), 1e-9);
+    assertEquals(1.5, drift.getDouble("totalBytes"), 1e-9);
+  }
+
+  private static JsonObject round(double p50, double p99, long totalBytes) {
+    return new JsonObject()
+      .put("latencyMs", new JsonObject()
+        .put("listSelf", new JsonObject().put("p50", p50).put("p99", p99)))
+      .put("table", new JsonObject().put("totalBytes", totalBytes));
+  }
+}
@@ -0,0 +1,358 @@
+package org.folio.loadtest;
+
+import static org.folio.loadtest.ModuleUnderTest.await;
+
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.okapi.common.XOkapiHeaders;
+import org.folio.rest.persist.PostgresClient;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+import io.vertx.sqlclient.Row;
+
+/**
+ * Soak test of the notification queries and the retention on a large {@code notify_data}
+ * table. Bulk-loads synthetic notifications spread across recipients and ages, then runs
+ * rounds in which random recipients list their unseen notifications
+ * ({@code GET /notify/user/_self}), mark one as seen ({@code PUT /notify/{id}}, which purges
+ * their seen notifications older than a year) and sometimes delete their old seen
+ * notifications ({@code DELETE /notify/user/_self}). New notifications are inserted before
+ * each round. Per round, the latency percentiles of each operation, the live and dead rows,
+ * the number of seen notifications due for purging and the size of the table and of each
+ * index are written as JSON to {@code soak.result}, together with the drift of the
+ * latencies from the first to the last round. See {@link SoakSettings} for the settings:
+ * {@code mvn verify -Psoak -DskipTests -Dsoak.rows=10000000}
+ */
+public class SoakTest {
+  private static final Logger log = LogManager.getLogger(SoakTest.class);
+  private static final String TENANT = "soaktest";
+  private static final String TABLE = "notify_data";
+  private static final String LIST_SELF = "listSelf";
+  private static final String MARK_SEEN = "markSeen";
+  private static final String DELETE_SELF = "deleteSelf";
+  private static final int BATCH_SIZE = 50_000;
+  private static final int LIST_LIMIT = 10;
+  /** As DAYS_TO_KEEP_SEEN_NOTIFICATIONS of NotificationsResourceImpl. */
+  private static final int DAYS_TO_KEEP_SEEN_NOTIFICATIONS = 365;
+  private static final String TIMESTAMP_FORMAT = "YYYY-MM-DD\"T\"HH24:MI:SS.MS\"+00:00\"";
+
+  private final SoakSettings settings;
+  private final Vertx vertx;
+  private final PostgresClient postgresClient;
+  private final String schema;
+  private final WebClient client;
+  private final String moduleUrl;
+  private final Map<String, String> okapiHeaders;
+  private final Random random = new Random(42);
+  private List<String> recipients;
+  private int loaded;
+
+  SoakTest(SoakSettings settings, Vertx vertx, String moduleUrl,
+    Map<String, String> okapiHeaders) {
+
+    this.settings = settings;
+    this.vertx = vertx;
+    this.postgresClient = PostgresClient.getInstance(vertx, TENANT);
+    this.schema = PostgresClient.convertToPsqlStandard(TENANT);
+    this.moduleUrl = moduleUrl;
+    this.okapiHeaders = okapiHeaders;
+    this.client = WebClient.create(vertx, new WebClientOptions()
+      .setMaxPoolSize(settings.concurrency())
+      .setKeepAlive(true));
+  }
+
+  public static void main(String[] args) throws Exception {
+    SoakSettings settings = SoakSettings.fromSystemProperties();
+    // none of the measured endpoints calls another module
+    Map<String, String> okapiHeaders = LoadGenerator.okapiHeaders(TENANT,
+      "http://localhost:9130");
+    ModuleUnderTest module = null;
+    int exitCode = 0;
+    try {
+      module = ModuleUnderTest.start(okapiHeaders);
+      JsonObject result = new SoakTest(settings, module.getVertx(), module.getUrl(),
+        okapiHeaders).run();
+      Files.createDirectories(settings.result().toAbsolutePath().getParent());
+      Files.writeString(settings.result(), result.encodePrettily());
+      System.out.println(result.getJsonObject("drift").encodePrettily());
+      log.info("main:: Result written to {}", settings.result());
+    } catch (Exception e) {
+      log.error("main:: Soak test failed", e);
+      exitCode = 1;
+    } finally {
+      if (module != null) {
+        module.stop();
+      }
+    }
+    System.exit(exitCode);
+  }
+
+  JsonObject run() throws Exception {
+    recipients = new ArrayList<>();
+    await(postgresClient.select("SELECT md5('recipient' || r)::uuid"
+      + " FROM generate_series(0, " + (settings.recipients() - 1) + ") AS r"))
+      .forEach(row -> recipients.add(row.getUUID(0).toString()));
+    long start = System.nanoTime();
+    insert(settings.rows());
+    log.info("run:: Loaded {} notifications of {} recipients in {} s", settings.rows(),
+      settings.recipients(), TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+
+    JsonArray rounds = new JsonArray();
+    for (int round = 1; round <= settings.rounds(); round++) {
+      if (round > 1) {
+        insert(settings.churn());
+      }
+      JsonObject result = round(round);
+      log.info("run:: {}", result::encode);
+      rounds.add(result);
+    }
+    return new JsonObject()
+      .put("settings", settingsJson())
+      .put("rounds", rounds)
+      .put("drift", drift(rounds.getJsonObject(0), rounds.getJsonObject(rounds.size() - 1)));
+  }
+
+  /**
+   * Inserts synthetic notifications in batches, each one of a recipient chosen round-robin,
+   * seen with the configured probability and last updated at a random time within
+   * {@code soak.maxAgeDays}.
+   */
+  private void insert(int count) throws Exception {
+    int end = loaded + count;
+    while (loaded < end) {
+      int from = loaded + 1;
+      int to = Math.min(end, loaded + BATCH_SIZE);
+      await(postgresClient.execute("INSERT INTO " + table() + " (id, jsonb)"
+        + " SELECT id, jsonb_build_object('id', id, 'recipientId', recipient_id,"
+        + " 'text', 'Synthetic notification ' || i, 'link', 'items/' || i, 'seen', seen,"
+        + " 'metadata', jsonb_build_object('createdDate', updated, 'updatedDate', updated,"
+        + " 'createdByUserId', recipient_id, 'updatedByUserId', recipient_id))"
+        + " FROM (SELECT i, md5('notification' || i)::uuid AS id,"
+        + " md5('recipient' || (i % " + settings.recipients() + "))::uuid AS recipient_id,"
+        + " random() < " + settings.seenRatio() + " AS seen,"
+        + " to_char((now() - random() * interval '1 day' * " + settings.maxAgeDays() + ")"
+        + " AT TIME ZONE 'UTC', '" + TIMESTAMP_FORMAT + "') AS updated"
+        + " FROM generate_series(" + from + ", " + to + ") AS i) AS generated"));
+      loaded = to;
+    }
+    await(postgresClient.execute("ANALYZE " + table()));
+  }
+
+  private JsonObject round(int round) throws Exception {
+    Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+    for (String operation : List.of(LIST_SELF, MARK_SEEN, DELETE_SELF)) {
+      recorders.put(operation, new LatencyRecorder(settings.requestsPerRound()));
+    }
+    long start = System.nanoTime();
+    await(visitAll(recorders));
+    double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+
+    JsonObject latency = new JsonObject();
+    JsonObject failures = new JsonObject();
+    recorders.forEach((operation, recorder) -> {
+      latency.put(operation, recorder.latencyJson().put("count", recorder.getSucceeded()));
+      failures.put(operation, recorder.failuresJson());
+    });
+    return new JsonObject()
+      .put("round", round)
+      .put("rowsInserted", loaded)
+      .put("seconds", seconds)
+      .put("latencyMs", latency)
+      .put("failures", failures)
+      .put("table", await(tableStats()));
+  }
+
+  /**
+   * Visits {@code soak.requestsPerRound} random recipients with {@code soak.concurrency}
+   * visits in flight. All callbacks run on one event loop, so the recorders need no
+   * synchronization.
+   */
+  private Future<Void> visitAll(Map<String, LatencyRecorder> recorders) {
+    Promise<Void> done = Promise.promise();
+    Context context = vertx.getOrCreateContext();
+    context.runOnContext(v -> {
+      int[] next = { 0 };
+      List<Future<Void>> workers = new ArrayList<>();
+      for (int i = 0; i < settings.concurrency(); i++) {
+        workers.add(worker(next, recorders));
+      }
+      Future.all(workers).<Void>mapEmpty().onComplete(done);
+    });
+    return done.future();
+  }
+
+  private Future<Void> worker(int[] next, Map<String, LatencyRecorder> recorders) {
+    int visit = next[0]++;
+    if (visit >= settings.requestsPerRound()) {
+      return Future.succeededFuture();
+    }
+    return visit(visit, recorders)
+      .transform(ar -> worker(next, recorders));
+  }
+
+  /**
+   * Lists the unseen notifications of a random recipient, marks the first one as seen and,
+   * on every {@code soak.deleteEvery}-th visit, deletes the recipient's seen notifications
+   * older than half of {@code soak.maxAgeDays}.
+   */
+  private Future<Void> visit(int visit, Map<String, LatencyRecorder> recorders) {
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap()
+      .addAll(okapiHeaders)
+      .set(XOkapiHeaders.USER_ID, recipients.get(random.nextInt(recipients.size())));
+    return measure(recorders.get(LIST_SELF), 200, () -> client
+        .getAbs(moduleUrl + "/notify/user/_self")
+        .putHeaders(headers)
+        .addQueryParam("query", "seen=false")
+        .addQueryParam("limit", String.valueOf(LIST_LIMIT))
+        .send())
+      .compose(response -> {
+        JsonArray notifications = response.bodyAsJsonObject().getJsonArray("notifications");
+        if (notifications.isEmpty()) {
+          return Future.succeededFuture();
+        }
+        JsonObject notification = notifications.getJsonObject(0).put("seen", true);
+        return measure(recorders.get(MARK_SEEN), 204, () -> client
+          .putAbs(moduleUrl + "/notify/" + notification.getString("id"))
+          .putHeaders(headers)
+          .sendJsonObject(notification));
+      })
+      .compose(response -> {
+        if (visit % settings.deleteEvery() != 0) {
+          return Future.succeededFuture();
+        }
+        String olderThan = LocalDate.now().minusDays(settings.maxAgeDays() / 2L).toString();
+        // 404 if the recipient has no such notifications
+        return measure(recorders.get(DELETE_SELF), 204, () -> client
+          .deleteAbs(moduleUrl + "/notify/user/_self")
+          .putHeaders(headers)
+          .addQueryParam("olderThan", olderThan)
+          .send(), 404);
+      })
+      .<Void>mapEmpty()
+      .otherwiseEmpty();
+  }
+
+  private static Future<HttpResponse<Buffer>> measure(LatencyRecorder recorder,
+    int expectedStatus, Supplier<Future<HttpResponse<Buffer>>> request) {
+
+    return measure(recorder, expectedStatus, request, expectedStatus);
+  }
+
+  private static Future<HttpResponse<Buffer>> measure(LatencyRecorder recorder,
+    int expectedStatus, Supplier<Future<HttpResponse<Buffer>>> request, int otherStatus) {
+
+    long start = System.nanoTime();
+    return request.get().compose(response -> {
+      int status = response.statusCode();
+      if (status == expectedStatus || status == otherStatus) {
+        recorder.succeeded(System.nanoTime() - start);
+        return Future.succeededFuture(response);
+      }
+      recorder.failed(String.valueOf(status));
+      return Future.failedFuture(status + " " + response.bodyAsString());
+    }, e -> {
+      recorder.failed(e.getClass().getSimpleName());
+      return Future.failedFuture(e);
+    });
+  }
+
+  /**
+   * Live and dead rows, seen notifications due for purging, vacuum counts and the size of
+   * the table and of each index.
+   */
+  private Future<JsonObject> tableStats() {
+    String purgeBefore = LocalDate.now().minusDays(DAYS_TO_KEEP_SEEN_NOTIFICATIONS).toString();
+    String relation = "schemaname = '" + schema + "' AND relname = '" + TABLE + "'";
+    JsonObject stats = new JsonObject();
+    return postgresClient.select("SELECT n_live_tup, n_dead_tup, autovacuum_count,"
+        + " autoanalyze_count, pg_relation_size(relid), pg_total_relation_size(relid)"
+        + " FROM pg_stat_user_tables WHERE " + relation)
+      .compose(rowSet -> {
+        Row row = rowSet.iterator().next();
+        long live = row.getLong(0);
+        long dead = row.getLong(1);
+        stats.put("liveRows", live)
+          .put("deadRows", dead)
+          .put("deadRatio", live + dead == 0 ? 0 : dead / (double) (live + dead))
+          .put("autovacuumCount", row.getLong(2))
+          .put("autoanalyzeCount", row.getLong(3))
+          .put("tableBytes", row.getLong(4))
+          .put("totalBytes", row.getLong(5));
+        return postgresClient.select("SELECT indexrelname, pg_relation_size(indexrelid)"
+          + " FROM pg_stat_user_indexes WHERE " + relation + " ORDER BY indexrelname");
+      })
+      .compose(rowSet -> {
+        JsonObject indexes = new JsonObject();
+        rowSet.forEach(row -> indexes.put(row.getString(0), row.getLong(1)));
+        stats.put("indexBytes", indexes);
+        return postgresClient.select("SELECT count(*) FROM " + table()
+          + " WHERE jsonb->>'seen' = 'true'"
+          + " AND jsonb->'metadata'->>'updatedDate' < '" + purgeBefore + "'");
+      })
+      .map(rowSet -> stats.put("seenDueForPurge", rowSet.iterator().next().getLong(0)));
+  }
+
+  /**
+   * Ratio of the last to the first round of the latency percentiles per operation and of
+   * the table size. The first round runs on a cold cache, so a ratio below 1 is expected
+   * for short runs.
+   */
+  static JsonObject drift(JsonObject first, JsonObject last) {
+    JsonObject drift = new JsonObject();
+    JsonObject firstLatency = first.getJsonObject("latencyMs");
+    JsonObject lastLatency = last.getJsonObject("latencyMs");
+    for (String operation : firstLatency.fieldNames()) {
+      JsonObject percentiles = new JsonObject();
+      for (String percentile : List.of("p50", "p99")) {
+        percentiles.put(percentile, ratio(
+          firstLatency.getJsonObject(operation).getDouble(percentile),
+          lastLatency.getJsonObject(operation).getDouble(percentile)));
+      }
+      drift.put(operation, percentiles);
+    }
+    return drift.put("totalBytes", ratio(
+      first.getJsonObject("table").getLong("totalBytes").doubleValue(),
+      last.getJsonObject("table").getLong("totalBytes").doubleValue()));
+  }
+
+  private static double ratio(double first, double last) {
+    return first == 0 ? 0 : last / first;
+  }
+
+  private JsonObject settingsJson() {
+    return new JsonObject()
+      .put("rows", settings.rows())
+      .put("recipients", settings.recipients())
+      .put("maxAgeDays", settings.maxAgeDays())
+      .put("seenRatio", settings.seenRatio())
+      .put("rounds", settings.rounds())
+      .put("requestsPerRound", settings.requestsPerRound())
+      .put("deleteEvery", settings.deleteEvery())
+      .put("concurrency", settings.concurrency())
+      .put("churn", settings.churn());
+  }
+
+  private String table() {
+    return schema + "." + TABLE;
+  }
+}
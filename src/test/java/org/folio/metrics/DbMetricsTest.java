@@ -0,0 +1,74 @@
+package org.folio.metrics;
+
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.folio.rest.persist.interfaces.Results;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+public class DbMetricsTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  public void shouldRecordCallsPerOperationTenantAndOutcome() {
+    DbMetrics dbMetrics = new DbMetrics(registry, 0);
+    Map<String, String> okapiHeaders = Map.of(TENANT, "diku");
+
+    dbMetrics.<String>timedById(DbOperation.INSERT, "notify_data", "1", okapiHeaders,
+      reply -> { }).handle(Future.succeededFuture("1"));
+    dbMetrics.<String>timedById(DbOperation.INSERT, "notify_data", "2", okapiHeaders,
+      reply -> { }).handle(Future.failedFuture("duplicate key"));
+    dbMetrics.<String>timed(DbOperation.SELECT, "notify_data", null, Map.of(),
+      reply -> { }).handle(Future.succeededFuture());
+
+    assertEquals(1, registry.get(DbMetrics.QUERIES)
+      .tags("operation", "INSERT", "table", "notify_data", "tenant", "diku", "outcome", "success")
+      .timer()
+      .count());
+    assertEquals(1, registry.get(DbMetrics.QUERIES)
+      .tags("operation", "INSERT", "table", "notify_data", "tenant", "diku", "outcome", "failure")
+      .timer()
+      .count());
+    assertEquals(1, registry.get(DbMetrics.QUERIES)
+      .tags("operation", "SELECT", "tenant", "unknown")
+      .timer()
+      .count());
+  }
+
+  @Test
+  public void shouldCountCallsInFlight() {
+    DbMetrics dbMetrics = new DbMetrics(registry, -1);
+    Map<String, String> okapiHeaders = Map.of(TENANT, "diku");
+
+    Handler<AsyncResult<String>> first = dbMetrics.timedById(DbOperation.SELECT, "notify_data",
+      "1", okapiHeaders, reply -> { });
+    Handler<AsyncResult<String>> second = dbMetrics.timedById(DbOperation.SELECT,
+      "notify_data", "2", okapiHeaders, reply -> { });
+    assertEquals(2, dbMetrics.inFlight("diku"));
+    assertEquals(2, registry.get(DbMetrics.IN_FLIGHT).tag("tenant", "diku").gauge().value(), 0);
+
+    first.handle(Future.succeededFuture());
+    second.handle(Future.failedFuture("timeout"));
+    assertEquals(0, dbMetrics.inFlight("diku"));
+  }
+
+  @Test
+  public void shouldCountRows() {
+    Results<String> results = new Results<>();
+    results.setResults(List.of("a", "b", "c"));
+
+    assertEquals(0, DbMetrics.rowCount(null));
+    assertEquals(3, DbMetrics.rowCount(results));
+    assertEquals(0, DbMetrics.rowCount(new Results<String>()));
+    assertEquals(1, DbMetrics.rowCount("id"));
+  }
+}
@@ -0,0 +1,66 @@
+package org.folio.metrics;
+
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.ws.rs.core.Response;
+
+import org.junit.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+public class EndpointMetricsTest {
+
+  private final PrometheusMeterRegistry registry =
+    new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+  private final EndpointMetrics metrics = new EndpointMetrics(registry);
+
+  @Test
+  public void shouldRecordRequestPerEndpointTenantAndStatus() {
+    Promise<Response> handled = Promise.promise();
+
+    metrics.timed("postNotify", Map.of(TENANT, "diku"), handled::handle)
+      .handle(Future.succeededFuture(Response.status(201).build()));
+
+    assertTrue(handled.future().succeeded());
+    Timer timer = registry.get(EndpointMetrics.REQUESTS)
+      .tags("endpoint", "postNotify", "tenant", "diku", "status", "201")
+      .timer();
+    assertEquals(1, timer.count());
+  }
+
+  @Test
+  public void shouldRecordFailuresWithStatusZero() {
+    metrics.timed("getNotify", Map.of(), result -> { })
+      .handle(Future.failedFuture("failure"));
+
+    assertEquals(1, registry.get(EndpointMetrics.REQUESTS)
+      .tags("endpoint", "getNotify", "tenant", "unknown", "status", "0")
+      .timer()
+      .count());
+  }
+
+  @Test
+  public void shouldReuseTimers() {
+    assertSame(metrics.timer("getNotify", "diku", 200), metrics.timer("getNotify", "diku", 200));
+  }
+
+  @Test
+  public void shouldExposePercentilesInScrape() {
+    metrics.timer("getNotify", "diku", 200).record(Duration.ofMillis(5));
+
+    String scrape = registry.scrape();
+
+    assertTrue(scrape, scrape.contains("mod_notify_requests_seconds_count{endpoint=\"getNotify\""));
+    assertTrue(scrape, scrape.contains("quantile=\"0.99\""));
+  }
+}
@@ -0,0 +1,97 @@
+package org.folio.metrics;
+
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import javax.ws.rs.core.Response;
+
+import org.junit.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+public class PipelineTimingTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  public void shouldRecordStagesPerTenant() {
+    PipelineTiming timing = new PipelineMetrics(registry, false).start(Map.of(TENANT, "diku"));
+
+    timing.time(PipelineStage.GET_EVENT_CONFIG, () -> Future.succeededFuture("config"));
+    timing.time(PipelineStage.POST_TEMPLATE_REQUEST, () -> Future.failedFuture("failure"));
+    timing.time(PipelineStage.POST_TEMPLATE_REQUEST, () -> Future.succeededFuture("result"));
+
+    assertEquals(2, registry.get(PipelineMetrics.STAGE_DURATION)
+      .tags("stage", "postTemplateRequest", "downstream", "mod-template-engine", "tenant", "diku")
+      .timer()
+      .count());
+    assertEquals(1, registry.get(PipelineMetrics.STAGE_FAILURES)
+      .tags("stage", "postTemplateRequest", "tenant", "diku")
+      .counter()
+      .count(), 0);
+    assertEquals(0, registry.get(PipelineMetrics.STAGE_FAILURES)
+      .tags("stage", "getEventConfig", "tenant", "diku")
+      .counter()
+      .count(), 0);
+  }
+
+  @Test
+  public void shouldRecordFailedSynchronousStage() {
+    PipelineTiming timing = new PipelineMetrics(registry, false).start(Map.of());
+
+    assertThrows(IllegalStateException.class,
+      () -> timing.measure(PipelineStage.BUILD_NOTIFY_SEND_REQUEST, () -> {
+        throw new IllegalStateException();
+      }));
+
+    assertEquals(1, registry.get(PipelineMetrics.STAGE_FAILURES)
+      .tags("stage", "buildNotifySendRequest", "tenant", "unknown")
+      .counter()
+      .count(), 0);
+  }
+
+  @Test
+  public void shouldListCalledStagesInServerTiming() {
+    PipelineTiming timing = new PipelineMetrics(registry, true).start(Map.of());
+
+    timing.record(PipelineStage.SAVE, System.nanoTime(), true);
+    timing.time(PipelineStage.POST_MESSAGE_DELIVERY, () -> Future.succeededFuture());
+
+    assertTrue(timing.serverTiming(), timing.serverTiming().matches(
+      "save;dur=\\d+\\.\\d;desc=\"postgres\", "
+        + "postMessageDelivery;dur=\\d+\\.\\d;desc=\"mod-sender\""));
+  }
+
+  @Test
+  public void shouldAddServerTimingHeaderIfEnabled() {
+    PipelineTiming timing = new PipelineMetrics(registry, true).start(Map.of());
+    timing.record(PipelineStage.SAVE, System.nanoTime(), true);
+    Promise<Response> handled = Promise.promise();
+
+    timing.withServerTiming(handled::handle)
+      .handle(Future.succeededFuture(Response.status(201).build()));
+
+    Response response = handled.future().result();
+    assertEquals(201, response.getStatus());
+    assertTrue(response.getHeaderString(PipelineTiming.SERVER_TIMING_HEADER).startsWith("save;"));
+  }
+
+  @Test
+  public void shouldNotAddServerTimingHeaderByDefault() {
+    PipelineTiming timing = new PipelineMetrics(registry, false).start(Map.of());
+    timing.record(PipelineStage.SAVE, System.nanoTime(), true);
+    Promise<Response> handled = Promise.promise();
+
+    timing.withServerTiming(handled::handle)
+      .handle(Future.succeededFuture(Response.status(201).build()));
+
+    assertNull(handled.future().result().getHeaderString(PipelineTiming.SERVER_TIMING_HEADER));
+  }
+}
@@ -0,0 +1,242 @@
+package org.folio.perf;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Compares the results of the reduced JMH benchmarks and load test of the {@code perf}
+ * profile with the stored baselines. Fails, exit code 1, if the score of a benchmark or the
+ * p99 latency of the load test is worse than the baseline by more than the tolerance, if the
+ * error rate of the load test is higher by more than {@value #ERROR_RATE_TOLERANCE}, or if a
+ * result or baseline is missing. The load test runs at a fixed rate, so its throughput only
+ * follows the rate; it is reported, but not compared. Writes a report of all deltas.
+ * <p>
+ * Arguments: JMH result, JMH baseline, load test result, load test baseline, report file,
+ * tolerance (e.g. 0.2 for 20 %), and {@code true} to store the results as new baselines
+ * instead of comparing.
+ */
+public class PerfGate {
+  static final String LOAD_TEST = "loadtest";
+  // absolute, i.e. one failed request in 100 more than in the baseline
+  static final double ERROR_RATE_TOLERANCE = 0.01;
+
+  /**
+   * How a measurement is compared with its baseline.
+   */
+  enum Gate {
+    /** worse by more than the tolerance relative to the baseline fails */
+    RELATIVE,
+    /** worse by more than {@link #ERROR_RATE_TOLERANCE} fails */
+    ABSOLUTE,
+    /** only reported */
+    NONE
+  }
+
+  record Measurement(String scenario, String metric, double value, String unit,
+    boolean higherIsBetter, Gate gate) {
+
+    String key() {
+      return scenario + " " + metric;
+    }
+  }
+
+  record Delta(Measurement baseline, Measurement current, double tolerance) {
+
+    /**
+     * The change, positive if the current value is better; relative to the baseline unless
+     * the measurement is compared absolutely.
+     */
+    double improvement() {
+      double change = current.value() - baseline.value();
+      if (current.gate() != Gate.ABSOLUTE) {
+        change /= baseline.value();
+      }
+      return current.higherIsBetter() ? change : -change;
+    }
+
+    boolean isRegression() {
+      return switch (current.gate()) {
+        case RELATIVE -> baseline.value() > 0 && improvement() < -tolerance;
+        case ABSOLUTE -> improvement() < -ERROR_RATE_TOLERANCE;
+        case NONE -> false;
+      };
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    Path jmhResult = Path.of(args[0]);
+    Path jmhBaseline = Path.of(args[1]);
+    Path loadTestResult = Path.of(args[2]);
+    Path loadTestBaseline = Path.of(args[3]);
+    Path report = Path.of(args[4]);
+    double tolerance = Double.parseDouble(args[5]);
+    boolean updateBaseline = args.length > 6 && Boolean.parseBoolean(args[6]);
+
+    List<String> missing = missing(List.of(jmhResult, loadTestResult));
+    if (updateBaseline) {
+      if (!missing.isEmpty()) {
+        fail("Not storing baselines: " + missing);
+      }
+      copy(jmhResult, jmhBaseline);
+      copy(loadTestResult, loadTestBaseline);
+      System.out.println("Stored the results as new baselines");
+      return;
+    }
+    missing.addAll(missing(List.of(jmhBaseline, loadTestBaseline)));
+    if (!missing.isEmpty()) {
+      fail("Missing " + missing + "; check perf.baselineDir, or record the baselines on this "
+        + "machine with -Dperf.updateBaseline=true");
+    }
+
+    List<Measurement> current = new ArrayList<>(jmh(read(jmhResult)));
+    current.addAll(loadTest(read(loadTestResult)));
+    List<Measurement> baselines = new ArrayList<>(jmh(read(jmhBaseline)));
+    baselines.addAll(loadTest(read(loadTestBaseline)));
+
+    List<Delta> deltas = compare(baselines, current, tolerance);
+    String text = report(deltas, current, baselines, tolerance);
+    Files.createDirectories(report.toAbsolutePath().getParent());
+    Files.writeString(report, text);
+    System.out.println(text);
+    if (deltas.stream().anyMatch(Delta::isRegression)) {
+      fail("Performance regressed by more than the tolerance, see " + report);
+    }
+    List<String> withoutBaseline = withoutBaseline(baselines, current);
+    if (!withoutBaseline.isEmpty()) {
+      fail("No baseline for " + withoutBaseline + ", see " + report
+        + "; record the baselines with -Dperf.updateBaseline=true");
+    }
+  }
+
+  private static void fail(String message) {
+    System.err.println(message);
+    System.exit(1);
+  }
+
+  static List<String> missing(List<Path> files) {
+    List<String> missing = new ArrayList<>();
+    files.stream()
+      .filter(file -> !Files.exists(file))
+      .forEach(file -> missing.add(file.toString()));
+    return missing;
+  }
+
+  /**
+   * The gated measurements without baseline, e.g. of a new benchmark.
+   */
+  static List<String> withoutBaseline(List<Measurement> baselines, List<Measurement> current) {
+    List<String> baselineKeys = baselines.stream().map(Measurement::key).toList();
+    return current.stream()
+      .filter(measurement -> measurement.gate() != Gate.NONE)
+      .map(Measurement::key)
+      .filter(key -> !baselineKeys.contains(key))
+      .toList();
+  }
+
+  static List<Delta> compare(List<Measurement> baselines, List<Measurement> current,
+    double tolerance) {
+
+    Map<String, Measurement> byKey = new LinkedHashMap<>();
+    baselines.forEach(measurement -> byKey.put(measurement.key(), measurement));
+    List<Delta> deltas = new ArrayList<>();
+    for (Measurement measurement : current) {
+      Measurement baseline = byKey.get(measurement.key());
+      if (baseline != null) {
+        deltas.add(new Delta(baseline, measurement, tolerance));
+      }
+    }
+    return deltas;
+  }
+
+  /**
+   * The scores of a JMH result in JSON format, one scenario per benchmark and parameters.
+   */
+  static List<Measurement> jmh(String json) {
+    List<Measurement> measurements = new ArrayList<>();
+    if (json == null) {
+      return measurements;
+    }
+    for (Object entry : new JsonArray(json)) {
+      JsonObject benchmark = (JsonObject) entry;
+      String name = benchmark.getString("benchmark");
+      name = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+      JsonObject params = benchmark.getJsonObject("params");
+      if (params != null && !params.isEmpty()) {
+        name += " " + new TreeMap<>(params.getMap());
+      }
+      JsonObject primaryMetric = benchmark.getJsonObject("primaryMetric");
+      measurements.add(new Measurement(name, "score", primaryMetric.getDouble("score"),
+        primaryMetric.getString("scoreUnit"), "thrpt".equals(benchmark.getString("mode")),
+        Gate.RELATIVE));
+    }
+    return measurements;
+  }
+
+  /**
+   * The throughput, p99 latency and error rate of a load test result.
+   */
+  static List<Measurement> loadTest(String json) {
+    List<Measurement> measurements = new ArrayList<>();
+    if (json == null) {
+      return measurements;
+    }
+    JsonObject result = new JsonObject(json);
+    String scenario = LOAD_TEST + " " + new TreeMap<>(result.getJsonObject("mix").getMap());
+    measurements.add(new Measurement(scenario, "throughput", result.getDouble("throughput"),
+      "requests/s", true, Gate.NONE));
+    measurements.add(new Measurement(scenario, "p99", result.getJsonObject("latencyMs")
+      .getDouble("p99"), "ms", false, Gate.RELATIVE));
+    long sent = result.getLong("sent", 0L);
+    measurements.add(new Measurement(scenario, "errorRate",
+      sent == 0 ? 1 : result.getLong("failed", 0L) / (double) sent, "failed/sent", false,
+      Gate.ABSOLUTE));
+    return measurements;
+  }
+
+  static String report(List<Delta> deltas, List<Measurement> current,
+    List<Measurement> baselines, double tolerance) {
+
+    StringBuilder report = new StringBuilder()
+      .append(String.format(Locale.ROOT,
+        "# Performance compared with baseline (tolerance %.0f %%)%n%n", tolerance * 100))
+      .append("| Scenario | Metric | Baseline | Current | Change | |\n")
+      .append("|----------|--------|----------|---------|--------|-|\n");
+    for (Delta delta : deltas) {
+      report.append(String.format(Locale.ROOT, "| %s | %s | %.3f | %.3f %s | %+.1f %% | %s |%n",
+        delta.current().scenario(), delta.current().metric(), delta.baseline().value(),
+        delta.current().value(), delta.current().unit(), delta.improvement() * 100,
+        delta.isRegression() ? "REGRESSION" : ""));
+    }
+    List<String> baselineKeys = baselines.stream().map(Measurement::key).toList();
+    for (Measurement measurement : current) {
+      if (!baselineKeys.contains(measurement.key())) {
+        report.append(String.format(Locale.ROOT, "| %s | %s | none | %.3f %s | | |%n",
+          measurement.scenario(), measurement.metric(), measurement.value(),
+          measurement.unit()));
+      }
+    }
+    return report.toString();
+  }
+
+  private static String read(Path file) throws IOException {
+    return Files.exists(file) ? Files.readString(file) : null;
+  }
+
+  private static void copy(Path from, Path to) throws IOException {
+    if (Files.exists(from)) {
+      Files.createDirectories(to.toAbsolutePath().getParent());
+      Files.copy(from, to, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package org.folio.perf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.folio.perf.PerfGate.Delta;
+import org.folio.perf.PerfGate.Measurement;
+import org.junit.Test;
+
+public class PerfGateTest {
+  private static final String JMH = """
+    [ {
+      "benchmark" : "org.folio.benchmark.JsonMappingBenchmark.serializeNotification",
+      "mode" : "avgt",
+      "params" : { "size" : "10" },
+      "primaryMetric" : { "score" : %s, "scoreUnit" : "us/op" }
+    } ]""";
+  private static final String LOAD_TEST = """
+    { "mix" : { "notify" : 1 }, "throughput" : %s, "latencyMs" : { "p99" : %s },
+      "sent" : 1000, "failed" : %s }""";
+
+  @Test
+  public void shouldReadJmhResult() {
+    Measurement measurement = PerfGate.jmh(JMH.formatted("1.5")).get(0);
+
+    assertEquals("JsonMappingBenchmark.serializeNotification {size=10}", measurement.scenario());
+    assertEquals(1.5, measurement.value(), 0);
+    assertFalse(measurement.higherIsBetter());
+  }
+
+  @Test
+  public void shouldFailOnSlowerBenchmarkBeyondTolerance() {
+    List<Delta> deltas = PerfGate.compare(PerfGate.jmh(JMH.formatted("1.0")),
+      PerfGate.jmh(JMH.formatted("1.3")), 0.2);
+
+    assertEquals(1, deltas.size());
+    assertEquals(-0.3, deltas.get(0).improvement(), 1e-9);
+    assertTrue(deltas.get(0).isRegression());
+  }
+
+  @Test
+  public void shouldGateP99AndErrorRateButNotThroughputOfLoadTest() {
+    List<Delta> deltas = PerfGate.compare(
+      PerfGate.loadTest(LOAD_TEST.formatted("100", "50", "0")),
+      PerfGate.loadTest(LOAD_TEST.formatted("50", "80", "20")), 0.2);
+
+    assertEquals("throughput", deltas.get(0).current().metric());
+    assertFalse(deltas.get(0).isRegression());
+    assertEquals("p99", deltas.get(1).current().metric());
+    assertTrue(deltas.get(1).isRegression());
+    assertEquals("errorRate", deltas.get(2).current().metric());
+    assertEquals(-0.02, deltas.get(2).improvement(), 1e-9);
+    assertTrue(deltas.get(2).isRegression());
+  }
+
+  @Test
+  public void shouldTolerateSmallErrorRateIncrease() {
+    List<Delta> deltas = PerfGate.compare(
+      PerfGate.loadTest(LOAD_TEST.formatted("100", "50", "0")),
+      PerfGate.loadTest(LOAD_TEST.formatted("100", "50", "5")), 0.2);
+
+    assertFalse(deltas.get(2).isRegression());
+  }
+
+  @Test
+  public void shouldReportScenariosWithoutBaseline() {
+    List<Measurement> current = PerfGate.loadTest(LOAD_TEST.formatted("100", "50", "0"));
+
+    String report = PerfGate.report(List.of(), current, List.of(), 0.2);
+
+    assertTrue(report, report.contains("| loadtest {notify=1} | throughput | none | 100.000"));
+    assertEquals(List.of("loadtest {notify=1} p99", "loadtest {notify=1} errorRate"),
+      PerfGate.withoutBaseline(List.of(), current));
+  }
+
+  @Test
+  public void shouldListMissingFiles() {
+    Path missing = Path.of("target", "perf", "no-such-baseline.json");
+
+    assertEquals(List.of(missing.toString()), PerfGate.missing(List.of(missing)));
+  }
+}
@@ -2,19 +2,27 @@ package org.folio.rest.impl;
 
 import static io.vertx.core.Future.failedFuture;
 import static io.vertx.core.Future.succeededFuture;
-import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -26,16 +34,18 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.awaitility.Awaitility;
 import org.folio.client.NoticesClient;
+import org.folio.client.UsersClient;
 import org.folio.dbschema.ObjectMapperTool;
 import org.folio.rest.RestVerticle;
 import org.folio.rest.jaxrs.model.EventEntity;
 import org.folio.rest.jaxrs.model.Notification;
+import org.folio.rest.jaxrs.model.NotifyUsernamesRequest;
 import org.folio.rest.jaxrs.model.ResultInfo;
 import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.persist.cql.CQLWrapper;
 import org.folio.rest.persist.helpers.LocalRowSet;
 import org.folio.rest.persist.interfaces.Results;
-import org.folio.rest.tools.client.interfaces.HttpClientInterface;
+import org.folio.util.DeltaToken;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -49,9 +59,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowIterator;
 import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
 
 @RunWith(MockitoJUnitRunner.class)
 public class NotificationsResourceImplTest {
@@ -60,12 +74,16 @@ public class NotificationsResourceImplTest {
   private static final String USER_ID = UUID.randomUUID().toString();
   private static final String USERNAME = "username";
   private static final String LANG = "en";
+  private static final String SELF_VERSION = "2|2026-10-19T08:15:00.000+00:00";
 
   @Spy
   private NotificationsResourceImpl notificationsResource;
 
   @Mock
-  private HttpClientInterface httpClient;
+  private UsersClient usersClient;
+
+  @Mock
+  private HttpResponse<Buffer> usersResponse;
 
   @Mock
   private PostgresClient postgresClient;
@@ -79,14 +97,17 @@ public class NotificationsResourceImplTest {
   private boolean handlerIsCalled;
   private Map<String, String> okapiHeaders = new HashMap<>();
   private int status;
+  private String etag;
 
   @Before
   public void setUp() {
     handlerIsCalled = false;
 
-    doReturn(httpClient).when(notificationsResource).getHttpClient(any(), any());
+    doReturn(usersClient).when(notificationsResource).makeUsersClient(any(), any());
     doReturn(postgresClient).when(notificationsResource).getPostgresClient(any(), any());
     doReturn(noticesClient).when(notificationsResource).makeNoticesClient(any(), any());
+    // the lists written from the jsonb text are covered by NotifyTest
+    doReturn(false).when(notificationsResource).listRawJson();
   }
 
   @Test
@@ -145,6 +166,7 @@ public class NotificationsResourceImplTest {
     Handler<AsyncResult<Response>> handler = responseAsyncResult -> {
       handlerIsCalled = true;
       status = responseAsyncResult.result().getStatus();
+      etag = responseAsyncResult.result().getHeaderString("ETag");
     };
 
     doAnswer(invocationOnMock -> {
@@ -158,6 +180,8 @@ public class NotificationsResourceImplTest {
       .get(any(String.class), any(), any(), any(CQLWrapper.class), any(Boolean.class),
         any(Boolean.class), any(Handler.class));
 
+    doReturn(succeededFuture(SELF_VERSION)).when(notificationsResource)
+      .selfVersion(any(), any(), any());
     okapiHeaders.put(RestVerticle.OKAPI_USERID_HEADER, "user-id");
 
     notificationsResource.getNotifyUserSelf("", 0, 10, LANG, okapiHeaders, handler, null);
@@ -167,6 +191,139 @@ public class NotificationsResourceImplTest {
       .until(() -> handlerIsCalled);
 
     assertEquals(200, status);
+    assertEquals(NotificationsResourceImpl.etag(SELF_VERSION, "", 0, 10, null), etag);
+  }
+
+  @Test
+  public void shouldReturn304WhenGetNotifySelfNotModified() {
+    Handler<AsyncResult<Response>> handler = responseAsyncResult -> {
+      handlerIsCalled = true;
+      status = responseAsyncResult.result().getStatus();
+    };
+
+    doReturn(succeededFuture(SELF_VERSION)).when(notificationsResource)
+      .selfVersion(any(), any(), any());
+    okapiHeaders.put(RestVerticle.OKAPI_USERID_HEADER, "user-id");
+    okapiHeaders.put("If-None-Match",
+      NotificationsResourceImpl.etag(SELF_VERSION, "seen=false", 0, 10, null));
+
+    notificationsResource.getNotifyUserSelf("seen=false", 0, 10, LANG, okapiHeaders, handler,
+      null);
+
+    Awaitility.await()
+      .atMost(1, TimeUnit.SECONDS)
+      .until(() -> handlerIsCalled);
+
+    assertEquals(304, status);
+    verify(postgresClient, never())
+      .get(any(String.class), any(), any(), any(CQLWrapper.class), any(Boolean.class),
+        any(Boolean.class), any(Handler.class));
+  }
+
+  @Test
+  public void shouldReturnChangedVersionOfSelfAtOnce() {
+    Response[] response = new Response[1];
+    Handler<AsyncResult<Response>> handler = responseAsyncResult -> {
+      handlerIsCalled = true;
+      response[0] = responseAsyncResult.result();
+    };
+
+    doReturn(succeededFuture(SELF_VERSION)).when(notificationsResource)
+      .selfVersion(any(), any(), any());
+    okapiHeaders.put(RestVerticle.OKAPI_USERID_HEADER, "user-id");
+
+    notificationsResource.getNotifyUserSelfChanges("outdated", 30, okapiHeaders, handler, null);
+
+    Awaitility.await()
+      .atMost(1, TimeUnit.SECONDS)
+      .until(() -> handlerIsCalled);
+
+    assertEquals(200, response[0].getStatus());
+    assertEquals(UUID.nameUUIDFromBytes(SELF_VERSION.getBytes(StandardCharsets.UTF_8))
+      .toString(), response[0].getEntity());
+  }
+
+  @Test
+  public void shouldReturn400WhenGetChangesOfSelfWithoutUserId() {
+    Handler<AsyncResult<Response>> handler = responseAsyncResult -> {
+      handlerIsCalled = true;
+      status = responseAsyncResult.result().getStatus();
+    };
+
+    notificationsResource.getNotifyUserSelfChanges(null, 30, okapiHeaders, handler, null);
+
+    Awaitility.await()
+      .atMost(1, TimeUnit.SECONDS)
+      .until(() -> handlerIsCalled);
+
+    assertEquals(400, status);
+  }
+
+  @Test
+  public void shouldReturn400WhenGetDeltaOfSelfSinceInvalidToken() {
+    Handler<AsyncResult<Response>> handler = responseAsyncResult -> {
+      handlerIsCalled = true;
+      status = responseAsyncResult.result().getStatus();
+    };
+    okapiHeaders.put(RestVerticle.OKAPI_USERID_HEADER, "user-id");
+
+    notificationsResource.getNotifyUserSelfDelta("not a token", 100, 0, okapiHeaders, handler,
+      null);
+
+    Awaitility.await()
+      .atMost(1, TimeUnit.SECONDS)
+      .until(() -> handlerIsCalled);
+
+    assertEquals(400, status);
+  }
+
+  @Test
+  public void shouldReturn410WhenGetDeltaOfSelfSinceExpiredToken() {
+    Handler<AsyncResult<Response>> handler = responseAsyncResult -> {
+      handlerIsCalled = true;
+      status = responseAsyncResult.result().getStatus();
+    };
+    okapiHeaders.put(RestVerticle.OKAPI_USERID_HEADER, "user-id");
+    String expired = new DeltaToken("", "", OffsetDateTime.now().minusDays(31)).encode();
+
+    notificationsResource.getNotifyUserSelfDelta(expired, 100, 0, okapiHeaders, handler, null);
+
+    Awaitility.await()
+      .atMost(1, TimeUnit.SECONDS)
+      .until(() -> handlerIsCalled);
+
+    assertEquals(410, status);
+    verify(postgresClient, never())
+      .get(any(String.class), any(), any(), any(CQLWrapper.class), any(Boolean.class),
+        any(Boolean.class), any(Handler.class));
+  }
+
+  @Test
+  public void shouldQueryChangesAfterTokenPosition() {
+    String date = "2026-10-19T08:15:00.000+00:00";
+
+    assertEquals("recipientId==\"u\" sortBy metadata.updatedDate/sort.ascending "
+        + "id/sort.ascending",
+      NotificationsResourceImpl.deltaQuery("u", DeltaToken.parse(DeltaToken.INITIAL)));
+    assertEquals("recipientId==\"u\" and metadata.updatedDate>=\"" + date + "\" sortBy "
+        + "metadata.updatedDate/sort.ascending id/sort.ascending",
+      NotificationsResourceImpl.deltaQuery("u", new DeltaToken(date, "", null)));
+    assertEquals("recipientId==\"u\" and (metadata.updatedDate>\"" + date + "\" or "
+        + "(metadata.updatedDate==\"" + date + "\" and id>\"" + USER_ID + "\")) sortBy "
+        + "metadata.updatedDate/sort.ascending id/sort.ascending",
+      NotificationsResourceImpl.deltaQuery("u", new DeltaToken(date, USER_ID, null)));
+  }
+
+  @Test
+  public void shouldMatchETagWeakly() {
+    String etag = NotificationsResourceImpl.etag(SELF_VERSION, null, 0, 10, null);
+
+    assertTrue(NotificationsResourceImpl.matches(etag, etag));
+    assertTrue(NotificationsResourceImpl.matches("\"other\", " + etag.substring(2), etag));
+    assertTrue(NotificationsResourceImpl.matches("*", etag));
+    assertFalse(NotificationsResourceImpl.matches(null, etag));
+    assertFalse(NotificationsResourceImpl.matches(
+      NotificationsResourceImpl.etag(SELF_VERSION, null, 10, 10, null), etag));
   }
 
   @Test
@@ -192,14 +349,13 @@ public class NotificationsResourceImplTest {
       status = responseAsyncResult.result().getStatus();
     };
 
-    org.folio.rest.tools.client.Response response = new org.folio.rest.tools.client.Response();
-    response.setCode(200);
-    response.setBody(new JsonObject()
+    doReturn(200).when(usersResponse).statusCode();
+    doReturn(new JsonObject()
       .put("users", Arrays.asList(new JsonObject().put("id", USER_ID)))
       .put("totalRecords", 1)
-    );
+    ).when(usersResponse).bodyAsJsonObject();
 
-    doReturn(completedFuture(response)).when(httpClient).request(any(String.class), any(Map.class));
+    doReturn(succeededFuture(usersResponse)).when(usersClient).getUsersByUsername(USERNAME);
     doReturn("recipient").when(notification).getRecipientId();
     doAnswer(invocationOnMock -> {
       ((Handler<AsyncResult<String>>) invocationOnMock.getArgument(3))
@@ -211,7 +367,8 @@ public class NotificationsResourceImplTest {
       okapiHeaders, handler, null);
 
     verify(notification, times(1)).setRecipientId(USER_ID);
-    verify(notificationsResource, times(1)).postNotify(any(), any(), any(), any(), any());
+    verify(notificationsResource, times(1)).saveNotification(any(), any(), any(), any());
+    verify(notificationsResource, never()).postNotify(any(), any(), any(), any(), any());
 
     Awaitility.await()
       .atMost(1, TimeUnit.SECONDS)
@@ -234,7 +391,8 @@ public class NotificationsResourceImplTest {
       okapiHeaders, handler, null);
 
     verify(notification, times(1)).setRecipientId(USER_ID);
-    verify(notificationsResource, times(1)).postNotify(any(), any(), any(), any(), any());
+    verify(notificationsResource, times(1)).saveNotification(any(), any(), any(), any());
+    verify(notificationsResource, never()).postNotify(any(), any(), any(), any(), any());
 
     Awaitility.await()
       .atMost(1, TimeUnit.SECONDS)
@@ -258,7 +416,8 @@ public class NotificationsResourceImplTest {
       okapiHeaders, handler, null);
 
     verify(notification, times(1)).setRecipientId(USER_ID);
-    verify(notificationsResource, times(1)).postNotify(any(), any(), any(), any(), any());
+    verify(notificationsResource, times(1)).saveNotification(any(), any(), any(), any());
+    verify(notificationsResource, never()).postNotify(any(), any(), any(), any(), any());
 
     Awaitility.await()
       .atMost(1, TimeUnit.SECONDS)
@@ -282,7 +441,8 @@ public class NotificationsResourceImplTest {
       okapiHeaders, handler, null);
 
     verify(notification, times(1)).setRecipientId(USER_ID);
-    verify(notificationsResource, times(1)).postNotify(any(), any(), any(), any(), any());
+    verify(notificationsResource, times(1)).saveNotification(any(), any(), any(), any());
+    verify(notificationsResource, never()).postNotify(any(), any(), any(), any(), any());
 
     Awaitility.await()
       .atMost(1, TimeUnit.SECONDS)
@@ -298,12 +458,11 @@ public class NotificationsResourceImplTest {
       status = responseAsyncResult.result().getStatus();
     };
 
-    org.folio.rest.tools.client.Response response = new org.folio.rest.tools.client.Response();
-    response.setCode(200);
-    response.setBody(new JsonObject()
-      .put("users", new JsonObject()));
+    doReturn(200).when(usersResponse).statusCode();
+    doReturn(new JsonObject()
+      .put("users", new JsonObject())).when(usersResponse).bodyAsJsonObject();
 
-    doReturn(completedFuture(response)).when(httpClient).request(any(String.class), any(Map.class));
+    doReturn(succeededFuture(usersResponse)).when(usersClient).getUsersByUsername(USERNAME);
 
     notificationsResource.postNotifyUsernameByUsername(USERNAME, LANG, notification,
       okapiHeaders, handler, null);
@@ -324,13 +483,12 @@ public class NotificationsResourceImplTest {
       status = responseAsyncResult.result().getStatus();
     };
 
-    org.folio.rest.tools.client.Response response = new org.folio.rest.tools.client.Response();
-    response.setCode(200);
-    response.setBody(new JsonObject()
+    doReturn(200).when(usersResponse).statusCode();
+    doReturn(new JsonObject()
       .put("totalRecords", 1)
-    );
+    ).when(usersResponse).bodyAsJsonObject();
 
-    doReturn(completedFuture(response)).when(httpClient).request(any(String.class), any(Map.class));
+    doReturn(succeededFuture(usersResponse)).when(usersClient).getUsersByUsername(USERNAME);
 
     notificationsResource.postNotifyUsernameByUsername(USERNAME, LANG, notification,
       okapiHeaders, handler, null);
@@ -351,10 +509,9 @@ public class NotificationsResourceImplTest {
       status = responseAsyncResult.result().getStatus();
     };
 
-    org.folio.rest.tools.client.Response response = new org.folio.rest.tools.client.Response();
-    response.setCode(403);
+    doReturn(403).when(usersResponse).statusCode();
 
-    doReturn(completedFuture(response)).when(httpClient).request(any(String.class), any(Map.class));
+    doReturn(succeededFuture(usersResponse)).when(usersClient).getUsersByUsername(USERNAME);
 
     notificationsResource.postNotifyUsernameByUsername(USERNAME, LANG, notification,
       okapiHeaders, handler, null);
@@ -375,10 +532,9 @@ public class NotificationsResourceImplTest {
       status = responseAsyncResult.result().getStatus();
     };
 
-    org.folio.rest.tools.client.Response response = new org.folio.rest.tools.client.Response();
-    response.setCode(500);
+    doReturn(500).when(usersResponse).statusCode();
 
-    doReturn(completedFuture(response)).when(httpClient).request(any(String.class), any(Map.class));
+    doReturn(succeededFuture(usersResponse)).when(usersClient).getUsersByUsername(USERNAME);
 
     notificationsResource.postNotifyUsernameByUsername(USERNAME, LANG, notification,
       okapiHeaders, handler, null);
@@ -553,11 +709,8 @@ public class NotificationsResourceImplTest {
       status = responseAsyncResult.result().getStatus();
     };
 
-    doAnswer(invocationOnMock -> {
-      ((Handler<AsyncResult<RowSet<Row>>>) invocationOnMock.getArgument(2))
-        .handle(makeAsyncResult(new LocalRowSet(1), true));
-      return null;
-    }).when(postgresClient).delete(any(String.class), any(String.class), any());
+    doReturn(succeededFuture(recipientRows("recipient-id")))
+      .when(postgresClient).execute(any(String.class), any(Tuple.class));
 
     notificationsResource.deleteNotifyById(UUID.randomUUID().toString(),
       LANG, okapiHeaders, handler, null);
@@ -567,6 +720,8 @@ public class NotificationsResourceImplTest {
       .until(() -> handlerIsCalled);
 
     assertEquals(204, status);
+    verify(postgresClient).execute(contains("RETURNING jsonb->>'recipientId'"),
+      any(Tuple.class));
   }
 
   @Test
@@ -576,11 +731,8 @@ public class NotificationsResourceImplTest {
       status = responseAsyncResult.result().getStatus();
     };
 
-    doAnswer(invocationOnMock -> {
-      ((Handler<AsyncResult<RowSet<Row>>>) invocationOnMock.getArgument(2))
-        .handle(makeAsyncResult(new LocalRowSet(1), false));
-      return null;
-    }).when(postgresClient).delete(any(String.class), any(String.class), any());
+    doReturn(failedFuture("failed"))
+      .when(postgresClient).execute(any(String.class), any(Tuple.class));
 
     notificationsResource.deleteNotifyById(UUID.randomUUID().toString(),
       LANG, okapiHeaders, handler, null);
@@ -599,11 +751,8 @@ public class NotificationsResourceImplTest {
       status = responseAsyncResult.result().getStatus();
     };
 
-    doAnswer(invocationOnMock -> {
-      ((Handler<AsyncResult<RowSet<Row>>>) invocationOnMock.getArgument(2))
-        .handle(makeAsyncResult(new LocalRowSet(0), true));
-      return null;
-    }).when(postgresClient).delete(any(String.class), any(String.class), any());
+    doReturn(succeededFuture(new LocalRowSet(0)))
+      .when(postgresClient).execute(any(String.class), any(Tuple.class));
 
     notificationsResource.deleteNotifyById(UUID.randomUUID().toString(), LANG, okapiHeaders, handler, null);
 
@@ -621,11 +770,8 @@ public class NotificationsResourceImplTest {
       status = responseAsyncResult.result().getStatus();
     };
 
-    doAnswer(invocationOnMock -> {
-      ((Handler<AsyncResult<RowSet<Row>>>) invocationOnMock.getArgument(3))
-        .handle(makeAsyncResult(new LocalRowSet(1), true));
-      return null;
-    }).when(postgresClient).update(any(String.class), any(), any(String.class), any());
+    doReturn(succeededFuture(recipientRows("previous-recipient-id")))
+      .when(postgresClient).execute(any(String.class), any(Tuple.class));
 
     doAnswer(invocationOnMock -> {
       ((Handler<AsyncResult<RowSet<Row>>>) invocationOnMock.getArgument(2))
@@ -648,6 +794,8 @@ public class NotificationsResourceImplTest {
       .until(() -> handlerIsCalled);
 
     assertEquals(204, status);
+    verify(postgresClient).execute(contains("RETURNING o.jsonb->>'recipientId'"),
+      any(Tuple.class));
   }
 
   @Test
@@ -702,11 +850,8 @@ public class NotificationsResourceImplTest {
       status = responseAsyncResult.result().getStatus();
     };
 
-    doAnswer(invocationOnMock -> {
-      ((Handler<AsyncResult<RowSet<Row>>>) invocationOnMock.getArgument(3))
-        .handle(makeAsyncResult(new LocalRowSet(0), true));
-      return null;
-    }).when(postgresClient).update(any(String.class), any(), any(String.class), any());
+    doReturn(succeededFuture(new LocalRowSet(0)))
+      .when(postgresClient).execute(any(String.class), any(Tuple.class));
 
     String id = UUID.randomUUID().toString();
     ObjectMapper mapper = ObjectMapperTool.getMapper();
@@ -732,11 +877,8 @@ public class NotificationsResourceImplTest {
       status = responseAsyncResult.result().getStatus();
     };
 
-    doAnswer(invocationOnMock -> {
-      ((Handler<AsyncResult<RowSet<Row>>>) invocationOnMock.getArgument(3))
-        .handle(makeAsyncResult(new LocalRowSet(0), false));
-      return null;
-    }).when(postgresClient).update(any(String.class), any(), any(String.class), any());
+    doReturn(failedFuture("failed"))
+      .when(postgresClient).execute(any(String.class), any(Tuple.class));
 
     String id = UUID.randomUUID().toString();
     ObjectMapper mapper = ObjectMapperTool.getMapper();
@@ -755,6 +897,114 @@ public class NotificationsResourceImplTest {
     assertEquals(500, status);
   }
 
+  @Test
+  public void shouldReturn201WhenPostNotifyUsernamesSucceeded() {
+    Handler<AsyncResult<Response>> handler = responseAsyncResult -> {
+      handlerIsCalled = true;
+      status = responseAsyncResult.result().getStatus();
+    };
+
+    doReturn(succeededFuture(Map.of(USERNAME, USER_ID, "other", "other-id")))
+      .when(usersClient).getUserIdsByUsernames(any());
+    doAnswer(invocationOnMock -> {
+      List<Object> batch = invocationOnMock.getArgument(1);
+      assertEquals(2, batch.size());
+      ((Handler<AsyncResult<RowSet<Row>>>) invocationOnMock.getArgument(2))
+        .handle(makeAsyncResult(new LocalRowSet(batch.size()), true));
+      return null;
+    }).when(postgresClient).saveBatch(any(String.class), any(List.class), any(Handler.class));
+
+    NotifyUsernamesRequest request = new NotifyUsernamesRequest()
+      .withNotification(new Notification().withText("text"))
+      .withUsernames(List.of(USERNAME, "other", USERNAME));
+
+    notificationsResource.postNotifyUsernames(LANG, request, okapiHeaders, handler, null);
+
+    Awaitility.await()
+      .atMost(1, TimeUnit.SECONDS)
+      .until(() -> handlerIsCalled);
+
+    assertEquals(201, status);
+  }
+
+  @Test
+  public void shouldReturn400WhenPostNotifyUsernamesWithUnknownUser() {
+    Handler<AsyncResult<Response>> handler = responseAsyncResult -> {
+      handlerIsCalled = true;
+      status = responseAsyncResult.result().getStatus();
+    };
+
+    doReturn(succeededFuture(Map.of(USERNAME, USER_ID)))
+      .when(usersClient).getUserIdsByUsernames(any());
+
+    NotifyUsernamesRequest request = new NotifyUsernamesRequest()
+      .withNotification(new Notification().withText("text"))
+      .withUsernames(List.of(USERNAME, "unknown"));
+
+    notificationsResource.postNotifyUsernames(LANG, request, okapiHeaders, handler, null);
+
+    Awaitility.await()
+      .atMost(1, TimeUnit.SECONDS)
+      .until(() -> handlerIsCalled);
+
+    assertEquals(400, status);
+    verify(postgresClient, times(0)).saveBatch(any(String.class), any(List.class),
+      any(Handler.class));
+  }
+
+  @Test
+  public void shouldReturn500WhenPostNotifyUsernamesLookupFailed() {
+    Handler<AsyncResult<Response>> handler = responseAsyncResult -> {
+      handlerIsCalled = true;
+      status = responseAsyncResult.result().getStatus();
+    };
+
+    doReturn(failedFuture(new Exception())).when(usersClient).getUserIdsByUsernames(any());
+
+    NotifyUsernamesRequest request = new NotifyUsernamesRequest()
+      .withNotification(new Notification().withText("text"))
+      .withUsernames(List.of(USERNAME));
+
+    notificationsResource.postNotifyUsernames(LANG, request, okapiHeaders, handler, null);
+
+    Awaitility.await()
+      .atMost(1, TimeUnit.SECONDS)
+      .until(() -> handlerIsCalled);
+
+    assertEquals(500, status);
+  }
+
+  /**
+   * The rows returned by a write with {@code RETURNING jsonb->>'recipientId'}.
+   */
+  @SuppressWarnings("unchecked")
+  private static RowSet<Row> recipientRows(String... recipientIds) {
+    List<Row> rows = Arrays.stream(recipientIds)
+      .map(recipientId -> {
+        Row row = mock(Row.class);
+        doReturn(recipientId).when(row).getString(0);
+        return row;
+      })
+      .toList();
+    RowSet<Row> rowSet = mock(RowSet.class);
+    doReturn(rows.size()).when(rowSet).rowCount();
+    doAnswer(invocationOnMock -> {
+      Iterator<Row> iterator = rows.iterator();
+      return new RowIterator<Row>() {
+        @Override
+        public boolean hasNext() {
+          return iterator.hasNext();
+        }
+
+        @Override
+        public Row next() {
+          return iterator.next();
+        }
+      };
+    }).when(rowSet).iterator();
+    return rowSet;
+  }
+
   private <T> AsyncResult<T> makeAsyncResult(T result, boolean succeeded) {
     return new AsyncResult<T>() {
       @Override
@@ -780,20 +1030,13 @@ public class NotificationsResourceImplTest {
   }
 
   private void mockServicesForSuccessfulPost() {
-    org.folio.rest.tools.client.Response response = new org.folio.rest.tools.client.Response();
-    response.setCode(200);
-    response.setBody(new JsonObject()
+    doReturn(200).when(usersResponse).statusCode();
+    doReturn(new JsonObject()
       .put("users", Arrays.asList(new JsonObject().put("id", USER_ID)))
       .put("totalRecords", 1)
-    );
+    ).when(usersResponse).bodyAsJsonObject();
 
-    try {
-      doReturn(completedFuture(response)).when(httpClient)
-        .request(any(String.class), any(Map.class));
-    }
-    catch (Exception e) {
-      logger.error(e.getMessage());
-    }
+    doReturn(succeededFuture(usersResponse)).when(usersClient).getUsersByUsername(USERNAME);
     doReturn("recipient").when(notification).getRecipientId();
     doReturn("event-config-name").when(notification).getEventConfigName();
     doReturn(succeededFuture(new EventEntity())).when(noticesClient)
@@ -1,8 +1,22 @@
 package org.folio.rest.impl;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static io.restassured.RestAssured.given;
 import static org.folio.rest.impl.PomUtils.getModuleId;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -14,14 +28,20 @@ import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.tools.utils.NetworkUtils;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
 import io.restassured.RestAssured;
 import io.restassured.http.Header;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
@@ -57,6 +77,10 @@ public class NotifyTest {
 
   private static int port;
 
+  @Rule
+  public WireMockRule usersMockServer = new WireMockRule(
+    WireMockConfiguration.wireMockConfig().dynamicPort());
+
   @Before
   public void setUp(TestContext context) {
     PostgresClient.setPostgresTester(new PostgresTesterContainer());
@@ -68,7 +92,6 @@ public class NotifyTest {
     RestAssured.port = port;
 
     JsonObject conf = new JsonObject()
-      .put("mock.httpclient", "true")
       .put("http.port", port);
 
     logger.info("notifyTest: Deploying {} {}", RestVerticle.class.getName(), Json.encode(conf));
@@ -370,20 +393,23 @@ public class NotifyTest {
       + "\"link\" : \"things/34567\"," + LS
       + "\"text\" : \"Notification on a thing, for mockuser9\"}" + LS;
 
+    mockUserLookups();
+    Header okapiUrl = new Header("X-Okapi-Url", OKAPI_URL + usersMockServer.port());
+
     given()
-      .header(TENANT).header(USER8).header(JSON)
+      .header(TENANT).header(USER8).header(JSON).header(okapiUrl)
       .body(notify3)
       .post("/notify/_username/notfound")
       .then().log().ifValidationFails()
       .statusCode(400);
     given()
-      .header(TENANT).header(USER8).header(JSON)
+      .header(TENANT).header(USER8).header(JSON).header(okapiUrl)
       .body(notify3)
       .post("/notify/_username/error")
       .then().log().ifValidationFails()
       .statusCode(500);
     given()
-      .header(TENANT).header(USER8).header(JSON)
+      .header(TENANT).header(USER8).header(JSON).header(okapiUrl)
       .body(notify3)
       .post("/notify/_username/permissionproblem")
       .then().log().ifValidationFails()
@@ -391,14 +417,14 @@ public class NotifyTest {
       .statusCode(400);
 
     given() // lookup succeeds, but has no id
-      .header(TENANT).header(USER8).header(JSON)
+      .header(TENANT).header(USER8).header(JSON).header(okapiUrl)
       .body(notify3)
       .post("/notify/_username/badmockuser")
       .then().log().ifValidationFails()
       .statusCode(400);
 
     String notify3Loc = given() // a good one
-      .header(TENANT).header(USER8).header(JSON)
+      .header(TENANT).header(USER8).header(JSON).header(okapiUrl)
       .body(notify3)
       .post("/notify/_username/mockuser9")
       .then().log().ifValidationFails()
@@ -515,13 +541,48 @@ public class NotifyTest {
       .statusCode(400)
       .body(containsString("No UserId"));
 
-    given()
+    String selfEtag = given()
       .header(TENANT).header(USER7)
       .get("/notify/user/_self")
       .then().log().ifValidationFails()
       .statusCode(200)
       .body(containsString("\"totalRecords\" : 2")) // both match recipient 7
-      .body(containsString("with a comment"));
+      .body(containsString("with a comment"))
+      .extract().header("ETag");
+
+    given() // nothing changed
+      .header(TENANT).header(USER7)
+      .header("If-None-Match", selfEtag)
+      .get("/notify/user/_self")
+      .then().log().ifValidationFails()
+      .statusCode(304);
+
+    String selfChanges = given()
+      .header(TENANT).header(USER7)
+      .get("/notify/user/_self/changes")
+      .then().log().ifValidationFails()
+      .statusCode(200)
+      .extract().asString();
+
+    given() // nothing changed before the timeout
+      .header(TENANT).header(USER7)
+      .get("/notify/user/_self/changes?timeout=1&version=" + selfChanges)
+      .then().log().ifValidationFails()
+      .statusCode(204);
+
+    given()
+      .header(TENANT)
+      .get("/notify/user/_self/changes")
+      .then().log().ifValidationFails()
+      .statusCode(400)
+      .body(containsString("No UserId"));
+
+    given() // another page
+      .header(TENANT).header(USER7)
+      .header("If-None-Match", selfEtag)
+      .get("/notify/user/_self?query=seen=true")
+      .then().log().ifValidationFails()
+      .statusCode(200);
 
     given()
       .header(TENANT).header(USER7)
@@ -564,11 +625,64 @@ public class NotifyTest {
       .statusCode(400)
       .body(containsString("No UserId"));
 
+    String deltaToken = given()
+      .header(TENANT).header(USER7)
+      .get("/notify/user/_self/delta?since=0")
+      .then().log().ifValidationFails()
+      .statusCode(200)
+      .body("notifications", hasSize(2))
+      .body("deletedIds", hasSize(0))
+      .extract().path("nextToken");
+
+    given() // the notifications are recent, but returned already: waits instead
+      .header(TENANT).header(USER7)
+      .get("/notify/user/_self/delta?timeout=1&since=" + deltaToken)
+      .then().log().ifValidationFails()
+      .statusCode(200)
+      .time(greaterThanOrEqualTo(1000L));
+
+    CompletableFuture<String> changed = CompletableFuture.supplyAsync(() -> given()
+      .header(TENANT).header(USER7)
+      .get("/notify/user/_self/changes?timeout=60&version=" + selfChanges)
+      .then().log().ifValidationFails()
+      .statusCode(200)
+      .extract().asString());
+    CompletableFuture<List<String>> deltaDeleted = CompletableFuture.supplyAsync(() -> given()
+      .header(TENANT).header(USER7)
+      .get("/notify/user/_self/delta?timeout=60&since=" + deltaToken)
+      .then().log().ifValidationFails()
+      .statusCode(200)
+      .extract().path("deletedIds"));
     given()
       .header(TENANT).header(USER7)
       .delete("/notify/user/_self?olderthan=2099-01-01")
       .then().log().ifValidationFails()
       .statusCode(204); // gone!
+    assertNotEquals(selfChanges, changed.orTimeout(10, TimeUnit.SECONDS).join()); // woken
+    assertEquals(1, deltaDeleted.orTimeout(10, TimeUnit.SECONDS).join().size());
+    given() // the deleted notification is reported since the token
+      .header(TENANT).header(USER7)
+      .get("/notify/user/_self/delta?since=" + deltaToken)
+      .then().log().ifValidationFails()
+      .statusCode(200)
+      .body("deletedIds", hasSize(1));
+    given()
+      .header(TENANT).header(USER7)
+      .get("/notify/user/_self/delta?since=invalid")
+      .then().log().ifValidationFails()
+      .statusCode(400);
+    given()
+      .header(TENANT).header(USER7)
+      .get("/notify/user/_self/delta")
+      .then().log().ifValidationFails()
+      .statusCode(400);
+    given()
+      .header(TENANT).header(USER7)
+      .header("If-None-Match", selfEtag)
+      .get("/notify/user/_self")
+      .then().log().ifValidationFails()
+      .statusCode(200)
+      .body(containsString("\"totalRecords\" : 1"));
     given()
       .header(TENANT).header(USER7)
       .delete("/notify/user/_self") // no query
@@ -604,4 +718,35 @@ public class NotifyTest {
     // All done
     logger.info("notifyTest done");
   }
+
+  private void mockUserLookups() {
+    JsonObject mockUser9 = new JsonObject()
+      .put("username", "mockuser9")
+      .put("id", "99999999-9999-9999-9999-999999999999")
+      .put("active", true)
+      .put("type", "patron");
+    JsonObject badMockUser = mockUser9.copy();
+    badMockUser.put("MISSINGid", badMockUser.remove("id"));
+
+    mockUserLookup("mockuser9", okJson(usersResponse(mockUser9).encode()));
+    mockUserLookup("badmockuser", okJson(usersResponse(badMockUser).encode()));
+    mockUserLookup("notfound", okJson(usersResponse().encode()));
+    mockUserLookup("error", aResponse().withStatus(500));
+    mockUserLookup("permissionproblem", aResponse().withStatus(403)
+      .withBody("Access requires permission: users.collection.get"));
+  }
+
+  private static void mockUserLookup(String username,
+    ResponseDefinitionBuilder response) {
+
+    stubFor(get(urlPathEqualTo("/users"))
+      .withQueryParam("query", equalTo("username==\"" + username + "\""))
+      .willReturn(response));
+  }
+
+  private static JsonObject usersResponse(JsonObject... users) {
+    return new JsonObject()
+      .put("users", new JsonArray(List.of(users)))
+      .put("totalRecords", users.length);
+  }
 }
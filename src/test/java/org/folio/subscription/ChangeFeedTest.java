@@ -0,0 +1,79 @@
+package org.folio.subscription;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.folio.subscription.ChangeFeed.Change;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+
+@RunWith(VertxUnitRunner.class)
+public class ChangeFeedTest {
+  private static final String RECIPIENT_ID = "77777777-7777-7777-7777-777777777777";
+
+  private final List<Change> changes = new CopyOnWriteArrayList<>();
+  private Vertx vertx;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void tearDown(TestContext testContext) {
+    vertx.close().onComplete(testContext.asyncAssertSuccess());
+  }
+
+  @Test
+  public void shouldCoalesceChangesOfRecipient(TestContext testContext) {
+    ChangeFeed changeFeed = new ChangeFeed(50);
+    changeFeed.addListener(changes::add);
+
+    vertx.runOnContext(v -> {
+      changeFeed.received(vertx, "I|diku|" + RECIPIENT_ID);
+      changeFeed.received(vertx, "I|diku|" + RECIPIENT_ID);
+      changeFeed.received(vertx, "D|diku|" + RECIPIENT_ID);
+      changeFeed.received(vertx, "I|other|" + RECIPIENT_ID);
+      changeFeed.received(vertx, "no payload");
+    });
+
+    vertx.timer(200).onComplete(testContext.asyncAssertSuccess(v -> testContext.assertEquals(
+      List.of(new Change("I", "diku", RECIPIENT_ID), new Change("D", "diku", RECIPIENT_ID),
+        new Change("I", "other", RECIPIENT_ID)), changes)));
+  }
+
+  @Test
+  public void shouldDispatchLocalChangesWhileNotListening() {
+    ChangeFeed changeFeed = new ChangeFeed(0);
+    changeFeed.addListener(changes::add);
+
+    changeFeed.localChange(ChangeFeed.UPDATE, "diku", RECIPIENT_ID);
+    changeFeed.localChange(ChangeFeed.DELETE, "diku", null);
+
+    assertEquals(List.of(new Change("U", "diku", RECIPIENT_ID)), changes);
+  }
+
+  @Test
+  public void shouldParsePayload() {
+    assertEquals(new Change("U", "diku", RECIPIENT_ID),
+      Change.parse("U|diku|" + RECIPIENT_ID));
+    assertNull(Change.parse(null));
+    assertNull(Change.parse("U|diku"));
+    assertNull(Change.parse("D|diku|"));
+  }
+
+  @Test
+  public void shouldKeyRecipientsIgnoringCase() {
+    assertEquals(new Change("U", "diku", "abcdef00-0000-4000-8000-000000000000"),
+      Change.parse("U|diku|ABCDEF00-0000-4000-8000-000000000000"));
+  }
+}
@@ -0,0 +1,85 @@
+package org.folio.subscription;
+
+import static org.junit.Assert.assertEquals;
+
+import org.folio.subscription.NotificationSubscriptions.Subscription;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+
+@RunWith(VertxUnitRunner.class)
+public class NotificationSubscriptionsTest {
+  private static final String RECIPIENT_ID = "77777777-7777-7777-7777-777777777777";
+
+  private final NotificationSubscriptions subscriptions = new NotificationSubscriptions();
+  private Vertx vertx;
+  private Context context;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+    context = vertx.getOrCreateContext();
+  }
+
+  @After
+  public void tearDown(TestContext testContext) {
+    vertx.close().onComplete(testContext.asyncAssertSuccess());
+  }
+
+  @Test
+  public void shouldCompleteAllSubscriptionsOfRecipientOnChange(TestContext testContext) {
+    Subscription first = subscriptions.subscribe(context, "diku", RECIPIENT_ID, 60000);
+    Subscription second = subscriptions.subscribe(context, "diku", RECIPIENT_ID, 60000);
+    Subscription other = subscriptions.subscribe(context, "other", RECIPIENT_ID, 60000);
+    assertEquals(2, subscriptions.waiting("diku", RECIPIENT_ID));
+
+    subscriptions.changed("diku", RECIPIENT_ID);
+
+    Future.all(first.future(), second.future())
+      .onComplete(testContext.asyncAssertSuccess(changed -> {
+        testContext.assertTrue(first.future().result());
+        testContext.assertTrue(second.future().result());
+        testContext.assertFalse(other.future().isComplete());
+        testContext.assertEquals(0, subscriptions.waiting("diku", RECIPIENT_ID));
+        testContext.assertEquals(1, subscriptions.waiting("other", RECIPIENT_ID));
+      }));
+  }
+
+  @Test
+  public void shouldCompleteSubscriptionOfRecipientIgnoringCase(TestContext testContext) {
+    Subscription subscription = subscriptions.subscribe(context, "diku",
+      "ABCDEF00-0000-4000-8000-000000000000", 60000);
+
+    subscriptions.changed("diku", "abcdef00-0000-4000-8000-000000000000");
+
+    subscription.future().onComplete(testContext.asyncAssertSuccess(testContext::assertTrue));
+  }
+
+  @Test
+  public void shouldCompleteWithFalseOnTimeout(TestContext testContext) {
+    subscriptions.subscribe(context, "diku", RECIPIENT_ID, 10)
+      .future()
+      .onComplete(testContext.asyncAssertSuccess(changed -> {
+        testContext.assertFalse(changed);
+        testContext.assertEquals(0, subscriptions.waiting("diku", RECIPIENT_ID));
+      }));
+  }
+
+  @Test
+  public void shouldForgetCancelledSubscription() {
+    Subscription subscription = subscriptions.subscribe(context, "diku", RECIPIENT_ID, 60000);
+
+    subscription.cancel();
+    subscriptions.changed("diku", RECIPIENT_ID);
+
+    assertEquals(false, subscription.future().result());
+    assertEquals(0, subscriptions.waiting("diku", RECIPIENT_ID));
+  }
+}
@@ -0,0 +1,138 @@
+package org.folio.tracing;
+
+import static org.folio.okapi.common.XOkapiHeaders.TENANT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.Response;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+public class TracingTest {
+  private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+  private static final String CALLER_SPAN_ID = "00f067aa0ba902b7";
+
+  private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+  private OpenTelemetry previous;
+
+  @Before
+  public void setUp() {
+    previous = Tracing.get();
+    Tracing.set(OpenTelemetrySdk.builder()
+      .setTracerProvider(SdkTracerProvider.builder()
+        .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+        .build())
+      .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+      .build());
+  }
+
+  @After
+  public void tearDown() {
+    Tracing.set(previous);
+  }
+
+  @Test
+  public void shouldContinueTraceOfCaller() {
+    Map<String, String> okapiHeaders = new HashMap<>(Map.of(TENANT, "diku",
+      "Traceparent", "00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01"));
+    Promise<Response> handled = Promise.promise();
+
+    Tracing.traced("getNotify", okapiHeaders, handled::handle)
+      .handle(Future.succeededFuture(Response.status(200).build()));
+
+    SpanData span = exporter.getFinishedSpanItems().get(0);
+    assertEquals("getNotify", span.getName());
+    assertEquals(SpanKind.SERVER, span.getKind());
+    assertEquals(TRACE_ID, span.getTraceId());
+    assertEquals(CALLER_SPAN_ID, span.getParentSpanId());
+    assertEquals("diku", span.getAttributes().get(Tracing.TENANT_ATTRIBUTE));
+    assertEquals(200L, (long) span.getAttributes().get(Tracing.STATUS_ATTRIBUTE));
+    assertEquals(200, handled.future().result().getStatus());
+  }
+
+  @Test
+  public void shouldMakeServerSpanParentOfDatabaseSpans() throws Exception {
+    Map<String, String> okapiHeaders = new HashMap<>(Map.of(TENANT, "diku"));
+    Promise<Response> handled = Promise.promise();
+
+    onContext(() -> {
+      var serverHandler = Tracing.traced("postNotify", okapiHeaders, handled::handle);
+      Tracing.<String>tracedDb("INSERT notify_data", okapiHeaders, reply -> { })
+        .handle(Future.failedFuture("duplicate key"));
+      serverHandler.handle(Future.succeededFuture(Response.status(500).build()));
+    });
+
+    List<SpanData> spans = exporter.getFinishedSpanItems();
+    SpanData db = spans.get(0);
+    SpanData server = spans.get(1);
+    assertEquals("INSERT notify_data", db.getName());
+    assertEquals(SpanKind.CLIENT, db.getKind());
+    assertEquals(StatusCode.ERROR, db.getStatus().getStatusCode());
+    assertEquals(server.getSpanId(), db.getParentSpanId());
+    assertEquals(server.getTraceId(), db.getTraceId());
+    assertEquals(StatusCode.ERROR, server.getStatus().getStatusCode());
+  }
+
+  @Test
+  public void shouldPassOnTraceContextWithoutChangingHeaders() throws Exception {
+    String traceparent = "00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01";
+    Map<String, String> okapiHeaders = new HashMap<>(Map.of(TENANT, "diku",
+      Tracing.TRACEPARENT, traceparent));
+    Map<String, String> traceHeaders = new HashMap<>();
+
+    onContext(() -> {
+      Tracing.traced("getNotifyById", okapiHeaders, result -> { });
+      traceHeaders.putAll(Tracing.traceHeaders(okapiHeaders));
+    });
+
+    assertEquals(Map.of(TENANT, "diku", Tracing.TRACEPARENT, traceparent), okapiHeaders);
+    assertEquals(1, traceHeaders.size());
+    assertTrue(traceHeaders.get(Tracing.TRACEPARENT),
+      traceHeaders.get(Tracing.TRACEPARENT).matches("00-" + TRACE_ID + "-\\p{XDigit}{16}-01"));
+    assertNotEquals(traceparent, traceHeaders.get(Tracing.TRACEPARENT));
+  }
+
+  /**
+   * Runs the task on a Vert.x context, like the handling of a request.
+   */
+  private static void onContext(Runnable task) throws Exception {
+    Vertx vertx = Vertx.vertx();
+    try {
+      CompletableFuture<Void> done = new CompletableFuture<>();
+      vertx.getOrCreateContext().runOnContext(v -> {
+        try {
+          task.run();
+          done.complete(null);
+        } catch (RuntimeException | AssertionError e) {
+          done.completeExceptionally(e);
+        }
+      });
+      done.get(5, TimeUnit.SECONDS);
+    } finally {
+      vertx.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package org.folio.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Map;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.folio.rest.jaxrs.model.Notification;
+import org.folio.rest.tools.utils.BinaryOutStream;
+import org.junit.Test;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+
+public class BinaryJsonTest {
+
+  @Test
+  public void shouldPreferBinaryTypeOnlyIfQualityIsHigher() {
+    assertNull(BinaryJson.accepted(Map.of()));
+    assertNull(BinaryJson.accepted(Map.of("Accept", "application/json")));
+    assertNull(BinaryJson.accepted(Map.of("Accept", "application/json, application/cbor")));
+    assertEquals(BinaryJson.CBOR, BinaryJson.accepted(Map.of("accept", "application/cbor")));
+    assertEquals(BinaryJson.SMILE, BinaryJson.accepted(Map.of("Accept",
+      "application/json;q=0.5, application/x-jackson-smile, application/cbor;q=0.9")));
+    assertNull(BinaryJson.accepted(Map.of("Accept", "application/cbor;q=0.5, */*")));
+  }
+
+  @Test
+  public void shouldEncodePojoAndJsonText() throws Exception {
+    Notification notification = new Notification().withId("1").withText("Returned");
+
+    for (String mediaType : new String[] { BinaryJson.CBOR, BinaryJson.SMILE }) {
+      for (Object entity : new Object[] { notification,
+        "{\"id\": \"1\", \"text\": \"Returned\"}" }) {
+
+        Response response = BinaryJson.encode(Response.ok(entity, "application/json").build(),
+          mediaType);
+
+        assertEquals(mediaType, response.getHeaderString(HttpHeaders.CONTENT_TYPE));
+        byte[] data = ((BinaryOutStream) response.getEntity()).getData();
+        Notification decoded = BinaryJson.mapper(mediaType).readValue(data, Notification.class);
+        assertEquals("Returned", decoded.getText());
+      }
+    }
+  }
+
+  @Test
+  public void shouldLeaveJsonAndErrorResponsesAlone() {
+    Handler<AsyncResult<Response>> handler = result -> { };
+    assertSame(handler, BinaryJson.encoding(null, handler));
+
+    Promise<Response> handled = Promise.promise();
+    Response notFound = Response.status(404).entity("Not found").build();
+    BinaryJson.encoding(BinaryJson.CBOR, handled::handle).handle(Future.succeededFuture(notFound));
+
+    assertSame(notFound, handled.future().result());
+  }
+}
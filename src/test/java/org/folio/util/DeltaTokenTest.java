@@ -0,0 +1,97 @@
+package org.folio.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+
+import org.junit.Test;
+
+public class DeltaTokenTest {
+  private static final String DATE = "2026-10-19T08:15:00.000+00:00";
+  private static final String ID = "11111111-1111-1111-1111-111111111111";
+  private static final String LATER = "2026-10-19T08:15:00.001+00:00";
+
+  @Test
+  public void shouldEncodeAndParse() {
+    DeltaToken token = new DeltaToken(DATE, ID, OffsetDateTime.parse("2026-10-19T08:15:00Z"),
+      LATER, "", OffsetDateTime.parse("2026-10-19T08:15:01Z"));
+
+    assertEquals(token, DeltaToken.parse(token.encode()));
+    assertEquals(new DeltaToken("", "", null), DeltaToken.parse(DeltaToken.INITIAL));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectNonBase64() {
+    DeltaToken.parse("not a token");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectQueryInDate() {
+    DeltaToken.parse(encode(DATE + "\" or id=\"*|||||"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectMalformedReturnedId() {
+    DeltaToken.parse(encode(DATE + "|" + ID + "||" + DATE + "|1\" or id=\"*|"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectMalformedId() {
+    DeltaToken.parse(encode(DATE + "|1\" or id=\"*||||"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectMalformedDeletedDate() {
+    DeltaToken.parse(encode(DATE + "|" + ID + "|yesterday|||"));
+  }
+
+  @Test
+  public void shouldComparePositions() {
+    DeltaToken start = new DeltaToken(DATE, "", null);
+    DeltaToken first = new DeltaToken(DATE, ID, null);
+    DeltaToken later = new DeltaToken(LATER, "", null);
+
+    assertTrue(first.isAfter(start));
+    assertTrue(later.isAfter(first));
+    assertFalse(start.isAfter(start));
+    assertEquals(start, later.min(start));
+    assertEquals(first, first.min(later));
+  }
+
+  @Test
+  public void shouldMarkReturnedChangesAsNotNew() {
+    OffsetDateTime deleted = OffsetDateTime.parse("2026-10-19T08:15:00Z");
+    DeltaToken settled = new DeltaToken(DATE, "", deleted);
+    DeltaToken last = new DeltaToken(LATER, ID, null);
+
+    DeltaToken next = DeltaToken.parse(DeltaToken.INITIAL)
+      .next(settled, deleted, last, deleted.plusSeconds(1));
+
+    assertEquals(new DeltaToken(DATE, "", deleted, LATER, ID, deleted.plusSeconds(1)), next);
+    assertFalse(next.isNew(last));
+    assertFalse(next.isNew(new DeltaToken(DATE, ID, null)));
+    assertTrue(next.isNew(new DeltaToken("2026-10-19T08:15:00.002+00:00", "", null)));
+    assertFalse(next.isNewDeletion(deleted.plusSeconds(1)));
+    assertTrue(next.isNewDeletion(deleted.plusSeconds(2)));
+    assertFalse(next.isNewDeletion(null));
+    // the marks only move forward
+    assertEquals(next, next.next(settled, deleted, new DeltaToken(DATE, ID, null), deleted));
+  }
+
+  @Test
+  public void shouldExpireWithOldestTombstone() {
+    OffsetDateTime now = OffsetDateTime.now();
+
+    assertTrue(new DeltaToken("", "", now.minusDays(31)).isExpired(now.minusDays(30)));
+    assertFalse(new DeltaToken("", "", now.minusDays(29)).isExpired(now.minusDays(30)));
+    assertFalse(new DeltaToken("", "", null).isExpired(now.minusDays(30)));
+  }
+
+  private static String encode(String token) {
+    return Base64.getUrlEncoder().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,30 @@
+package org.folio.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class FolioContextDataProviderTest {
+
+  @Test
+  public void shouldOnlyBeEnabledWithAsyncProfileOrProperty() {
+    assertTrue(FolioContextDataProvider.isEnabled(null, "log4j2-async.properties"));
+    assertTrue(FolioContextDataProvider.isEnabled(null, "/opt/conf/log4j2-async.properties"));
+    assertTrue(FolioContextDataProvider.isEnabled("true", "log4j2.properties"));
+    assertFalse(FolioContextDataProvider.isEnabled(null, null));
+    assertFalse(FolioContextDataProvider.isEnabled(null, "log4j2-json.properties"));
+    assertFalse(FolioContextDataProvider.isEnabled("false", "log4j2-async.properties"));
+  }
+
+  @Test
+  public void shouldSupplyNoContextDataWithoutVertxContextOrWhenDisabled() {
+    FolioContextDataProvider enabled = new FolioContextDataProvider(true);
+    FolioContextDataProvider disabled = new FolioContextDataProvider(false);
+
+    assertTrue(enabled.supplyStringMap().isEmpty());
+    assertTrue(disabled.supplyContextData().isEmpty());
+    assertSame(enabled.supplyStringMap(), disabled.supplyStringMap());
+  }
+}
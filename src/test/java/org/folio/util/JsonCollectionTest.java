@@ -0,0 +1,30 @@
+package org.folio.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+public class JsonCollectionTest {
+
+  @Test
+  public void shouldWrapItemsWithTotalRecords() {
+    String json = JsonCollection.of("notifications",
+      List.of("{\"id\": \"1\", \"seen\": false}", "{\"id\": \"2\"}"), 7);
+
+    JsonObject collection = new JsonObject(json);
+    assertEquals(2, collection.getJsonArray("notifications").size());
+    assertEquals(false, collection.getJsonArray("notifications").getJsonObject(0)
+      .getBoolean("seen"));
+    assertEquals(7, (int) collection.getInteger("totalRecords"));
+  }
+
+  @Test
+  public void shouldWriteEmptyCollection() {
+    assertEquals("{\n  \"notifications\" : [ ],\n  \"totalRecords\" : 0\n}",
+      JsonCollection.of("notifications", List.of(), 0));
+  }
+}
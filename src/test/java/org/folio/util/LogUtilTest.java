@@ -2,14 +2,35 @@ package org.folio.util;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+import javax.ws.rs.core.Response;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.util.Supplier;
+import org.folio.rest.jaxrs.model.Attachment;
 import org.folio.rest.jaxrs.model.Context;
+import org.folio.rest.jaxrs.model.Message;
+import org.folio.rest.jaxrs.model.NotifySendRequest;
 import org.folio.rest.jaxrs.model.PatronNoticeEntity;
+import org.folio.rest.persist.PostgresClient;
 import org.junit.Test;
 
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.json.JsonObject;
 
 public class LogUtilTest {
@@ -75,4 +96,97 @@ public class LogUtilTest {
       LogUtil.patronNoticeAsString(patronNoticeEntity));
   }
 
-}
\ No newline at end of file
+  @Test
+  public void asJsonShouldCropLargeObjectsTo10Kb() throws Exception {
+    NotifySendRequest request = new NotifySendRequest()
+      .withNotificationId("notificationId")
+      .withMessages(List.of(new Message()
+        .withBody("body")
+        .withAttachments(List.of(new Attachment().withData("x".repeat(1024 * 1024))))));
+
+    String json = LogUtil.asJson(request);
+
+    assertEquals(10 * 1024, json.length());
+    assertTrue(PostgresClient.pojo2JsonObject(request).encode().startsWith(json));
+  }
+
+  @Test
+  public void toBoundedJsonShouldReturnSmallObjectsCompletely() throws Exception {
+    NotifySendRequest request = new NotifySendRequest().withNotificationId("id");
+
+    assertEquals(PostgresClient.pojo2JsonObject(request).encode(),
+      LogUtil.toBoundedJson(request, 1000));
+  }
+
+  @Test
+  public void loggingResponseHandlerShouldSkipSuccessfulResponsesBelowLevel() {
+    Logger logger = mock(Logger.class);
+    Promise<Response> handled = Promise.promise();
+    Response response = Response.ok(new NotifySendRequest()).build();
+
+    LogUtil.loggingResponseHandler("getNotify", promiseHandler(handled), logger,
+        new ResponseLogSettings(name -> null))
+      .handle(Future.succeededFuture(response));
+
+    assertTrue(handled.future().succeeded());
+    verify(logger, never()).log(any(Level.class), anyString(), any(Supplier[].class));
+    verify(logger, never()).log(any(Level.class), anyString(), any(Object.class),
+      any(Object.class));
+  }
+
+  @Test
+  public void loggingResponseHandlerShouldLogSuccessfulResponsesWithoutBody() {
+    Logger logger = mock(Logger.class);
+    when(logger.isEnabled(Level.INFO)).thenReturn(true);
+    Response response = Response.ok(new NotifySendRequest()).build();
+
+    LogUtil.loggingResponseHandler("getNotify", promiseHandler(Promise.promise()), logger,
+        new ResponseLogSettings(name -> null))
+      .handle(Future.succeededFuture(response));
+
+    verify(logger).log(Level.INFO, "{}:: result: HTTP response (code: {})", "getNotify", 200);
+  }
+
+  @Test
+  public void loggingResponseHandlerShouldNotSampleSuccessfulResponsesWithRateZero() {
+    Logger logger = mock(Logger.class);
+    when(logger.isEnabled(Level.INFO)).thenReturn(true);
+    Response response = Response.ok(new NotifySendRequest()).build();
+
+    LogUtil.loggingResponseHandler("getNotify", promiseHandler(Promise.promise()), logger,
+        new ResponseLogSettings(Map.of("RESPONSE_LOG_SAMPLE_RATE_GETNOTIFY", "0")::get))
+      .handle(Future.succeededFuture(response));
+
+    verify(logger, never()).log(any(Level.class), anyString(), any(Object.class),
+      any(Object.class));
+  }
+
+  @Test
+  public void loggingResponseHandlerShouldAlwaysLogErrorResponses() {
+    Logger logger = mock(Logger.class);
+    Response response = Response.status(500).entity("Internal Server Error").build();
+
+    LogUtil.loggingResponseHandler("getNotify", promiseHandler(Promise.promise()), logger,
+        new ResponseLogSettings(Map.of("RESPONSE_LOG_SAMPLE_RATE", "0")::get))
+      .handle(Future.succeededFuture(response));
+
+    verify(logger).info(anyString(), any(Supplier[].class));
+  }
+
+  @Test
+  public void loggingResponseHandlerShouldPassOnFailures() {
+    Logger logger = mock(Logger.class);
+    Promise<Response> handled = Promise.promise();
+
+    LogUtil.loggingResponseHandler("getNotify", promiseHandler(handled), logger,
+        new ResponseLogSettings(name -> null))
+      .handle(Future.failedFuture("failure"));
+
+    assertTrue(handled.future().failed());
+  }
+
+  private static Handler<AsyncResult<Response>> promiseHandler(Promise<Response> promise) {
+    return promise::handle;
+  }
+
+}
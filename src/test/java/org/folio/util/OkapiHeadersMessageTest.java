@@ -0,0 +1,50 @@
+package org.folio.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.junit.Test;
+
+public class OkapiHeadersMessageTest {
+
+  private static final Map<String, String> headers = new LinkedHashMap<>();
+
+  static {
+    headers.put("X-Okapi-Tenant", "diku");
+    headers.put("X-Okapi-Token", "secret");
+    headers.put("X-Okapi-Url", "http://okapi:9130");
+    headers.put("Authorization", "Bearer secret");
+  }
+
+  @Test
+  public void shouldSkipSensitiveHeaders() {
+    assertEquals("{X-Okapi-Tenant=diku, X-Okapi-Url=http://okapi:9130}",
+      new OkapiHeadersMessage(headers).getFormattedMessage());
+  }
+
+  @Test
+  public void shouldAppendToBuffer() {
+    StringBuilder buffer = new StringBuilder("headers: ");
+
+    new OkapiHeadersMessage(Map.of("x-okapi-token", "secret")).formatTo(buffer);
+
+    assertEquals("headers: {}", buffer.toString());
+  }
+
+  @Test
+  public void shouldFormatNullHeaders() {
+    assertEquals("null", new OkapiHeadersMessage(null).getFormattedMessage());
+  }
+
+  @Test
+  public void redactedHeadersShouldBeFormattedAsParameter() {
+    ParameterizedMessage message = new ParameterizedMessage("okapiHeaders: {}",
+      LogUtil.redactedHeaders(headers));
+
+    assertEquals("okapiHeaders: {X-Okapi-Tenant=diku, X-Okapi-Url=http://okapi:9130}",
+      message.getFormattedMessage());
+  }
+}
@@ -0,0 +1,48 @@
+package org.folio.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.apache.logging.log4j.Level;
+import org.junit.Test;
+
+public class ResponseLogSettingsTest {
+
+  @Test
+  public void shouldUseDefaults() {
+    ResponseLogSettings settings = new ResponseLogSettings(name -> null);
+
+    assertEquals(new ResponseLogSettings.Endpoint(Level.INFO, 1), settings.forEndpoint("getNotify"));
+    assertEquals(10 * 1024, settings.getBodySize());
+  }
+
+  @Test
+  public void shouldOverrideSettingsPerEndpoint() {
+    Map<String, String> values = Map.of(
+      "RESPONSE_LOG_LEVEL", "debug",
+      "RESPONSE_LOG_SAMPLE_RATE", "0.5",
+      "RESPONSE_LOG_LEVEL_POSTNOTIFY", "WARN",
+      "RESPONSE_LOG_SAMPLE_RATE_GETNOTIFY", "0.01",
+      "RESPONSE_LOG_BODY_SIZE", "0");
+    ResponseLogSettings settings = new ResponseLogSettings(values::get);
+
+    assertEquals(new ResponseLogSettings.Endpoint(Level.WARN, 0.5),
+      settings.forEndpoint("postNotify"));
+    assertEquals(new ResponseLogSettings.Endpoint(Level.DEBUG, 0.01),
+      settings.forEndpoint("getNotify"));
+    assertEquals(0, settings.getBodySize());
+  }
+
+  @Test
+  public void shouldIgnoreInvalidValues() {
+    Map<String, String> values = Map.of(
+      "RESPONSE_LOG_LEVEL", "chatty",
+      "RESPONSE_LOG_SAMPLE_RATE", "2",
+      "RESPONSE_LOG_BODY_SIZE", "large");
+    ResponseLogSettings settings = new ResponseLogSettings(values::get);
+
+    assertEquals(new ResponseLogSettings.Endpoint(Level.INFO, 1), settings.forEndpoint("getNotify"));
+    assertEquals(10 * 1024, settings.getBodySize());
+  }
+}
@@ -0,0 +1,34 @@
+package org.folio.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+public class SettingsTest {
+
+  private final Settings settings = new Settings(Map.of(
+    "BLANK", " ",
+    "TRIMMED", " 100 ",
+    "NEGATIVE", "-1",
+    "INVALID", "x")::get);
+
+  @Test
+  public void shouldParseIntValues() {
+    assertEquals(7, settings.intValue("MISSING", 7));
+    assertEquals(7, settings.intValue("BLANK", 7));
+    assertEquals(100, settings.intValue("TRIMMED", 7));
+    assertEquals(-1, settings.intValue("NEGATIVE", 7));
+    assertEquals(7, settings.intValue("INVALID", 7));
+  }
+
+  @Test
+  public void shouldParseLongValues() {
+    assertEquals(7, settings.longValue("MISSING", 7));
+    assertEquals(7, settings.longValue("BLANK", 7));
+    assertEquals(100, settings.longValue("TRIMMED", 7));
+    assertEquals(-1, settings.longValue("NEGATIVE", 7));
+    assertEquals(7, settings.longValue("INVALID", 7));
+  }
+}